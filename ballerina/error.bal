@@ -16,4 +16,20 @@
 
 # Represents the error type of the ballerina/xmldata module. This error type represents any error that can occur
 # during the execution of xmldata APIs.
-public type Error distinct error;
+public type Error distinct error<ErrorDetail>;
+
+# Represents the details of an error which occurred while converting an XML value. The fields are only present
+# when they are known at the point of the failure.
+#
+# + path - Path of the XML element which failed to convert, such as `/order/items/item[3]/qty`
+# + expectedType - Type which the value was being converted to
+# + snippet - The XML which failed to convert, truncated to a limited length
+public type ErrorDetail record {
+    string path?;
+    string expectedType?;
+    string snippet?;
+};
+
+# Represents the error returned when a value being converted exceeds one of the `xmldata:Limits` given in the
+# options of the conversion.
+public type LimitExceededError distinct Error;
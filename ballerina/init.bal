@@ -16,10 +16,26 @@
 
 import ballerina/jballerina.java;
 
+# The minimum number of the child elements of an element for them to be converted in parallel on the common
+# fork/join pool. It applies to `toJson`, and to the values which `fromXml` and `toRecord` convert through their JSON
+# representation. The children are converted one after another when it is `0`.
+configurable int parallelConversionThreshold = 0;
+
 isolated function init() {
     setModule();
+    if enableMetrics {
+        setMetricsEnabled(true);
+    }
+    if parallelConversionThreshold > 0 {
+        setParallelConversionThreshold(parallelConversionThreshold);
+    }
 }
 
 isolated function setModule() = @java:Method {
     'class: "io.ballerina.stdlib.xmldata.utils.ModuleUtils"
 } external;
+
+isolated function setParallelConversionThreshold(int threshold) = @java:Method {
+    'class: "io.ballerina.stdlib.xmldata.ParallelConversion",
+    name: "setThreshold"
+} external;
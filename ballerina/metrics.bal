@@ -0,0 +1,61 @@
+// Copyright (c) 2023 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/jballerina.java;
+
+# Enables the metrics of the `toJson`, `fromXml`, `toRecord` and `toXml` conversions. The metrics are also exported
+# through the `io.ballerina.stdlib.xmldata:type=ConversionMetrics` JMX MBean when enabled.
+configurable boolean enableMetrics = false;
+
+# Represents the metrics of the conversions of an API to a target type.
+#
+# + operation - Name of the API, which is `toJson`, `fromXml`, `toRecord` or `toXml`
+# + targetType - Type the values are converted to, or converted from in the case of `toXml`
+# + calls - Number of the conversions
+# + errors - Number of the conversions which returned an error
+# + totalLatency - Total time taken by the conversions in microseconds
+# + latencyHistogram - Number of the conversions by the upper bound of their latency in microseconds, with `+Inf`
+# for the conversions which took longer than the largest bound
+# + nodes - Total number of the XML elements and text nodes converted, or created in the case of `toXml`
+# + outputSize - Total number of the elements, attributes and text nodes converted, or created in the case of `toXml`,
+# by the conversions which returned a value
+public type ConversionMetrics record {|
+    string operation;
+    string targetType;
+    int calls;
+    int errors;
+    int totalLatency;
+    map<int> latencyHistogram;
+    int nodes;
+    int outputSize;
+|};
+
+# Returns the metrics of the conversions since the metrics were enabled. The metrics are enabled with the
+# `enableMetrics` configurable variable.
+# ```ballerina
+# xmldata:ConversionMetrics[] metrics = xmldata:getConversionMetrics();
+# ```
+#
+# + return - The metrics of each API and target type, or an empty array if the metrics are not enabled
+public isolated function getConversionMetrics() returns ConversionMetrics[] = @java:Method {
+    'class: "io.ballerina.stdlib.xmldata.ConversionMetrics",
+    name: "getSnapshot"
+} external;
+
+isolated function setMetricsEnabled(boolean enabled) = @java:Method {
+    'class: "io.ballerina.stdlib.xmldata.ConversionMetrics",
+    name: "setEnabled"
+} external;
@@ -899,3 +899,472 @@ isolated function testFromXmlWithEmpty5() returns error? {
     test:assertEquals(rec, output, msg = rec.toString());
     test:assertEquals((), rec.Catering?.statusCode);
 }
+
+type Library record {
+    @Attribute
+    string location;
+    string name;
+    int established;
+    decimal rating;
+    boolean open;
+    string[] tag;
+    Book[] book;
+    LibraryAddress address;
+};
+
+type Book record {
+    @Attribute
+    int id;
+    string title;
+    float price;
+    int[] edition;
+};
+
+type LibraryAddress record {
+    string city;
+    int zip;
+};
+
+@test:Config {
+    groups: ["fromXml"]
+}
+isolated function testFromXmlWithNestedRecordsAndArrays() returns error? {
+    xml library = xml `<Library location="north">
+        <name>City Library</name>
+        <established>1908</established>
+        <rating>4.5</rating>
+        <open>true</open>
+        <tag>public</tag>
+        <tag>books</tag>
+        <book id="1"><title>Ballerina</title><price>12.5</price><edition>1</edition><edition>2</edition></book>
+        <book id="2"><title>XML</title><price>9.0</price><edition>3</edition></book>
+        <address><city>Colombo</city><zip>10100</zip></address>
+    </Library>`;
+    Library expected = {
+        location: "north",
+        name: "City Library",
+        established: 1908,
+        rating: 4.5,
+        open: true,
+        tag: ["public", "books"],
+        book: [
+            {id: 1, title: "Ballerina", price: 12.5, edition: [1, 2]},
+            {id: 2, title: "XML", price: 9.0, edition: [3]}
+        ],
+        address: {city: "Colombo", zip: 10100}
+    };
+    Library actual = check fromXml(library, Library);
+    test:assertEquals(actual, expected, msg = actual.toString());
+}
+
+@test:Config {
+    groups: ["fromXml"]
+}
+isolated function testFromXmlWithRepeatedElementForNonArrayField() {
+    xml address = xml `<LibraryAddress><city>Colombo</city><city>Kandy</city><zip>10100</zip></LibraryAddress>`;
+    LibraryAddress|Error actual = fromXml(address, LibraryAddress);
+    test:assertTrue(actual is Error, msg = "Expected an error for the repeated element");
+}
+
+type Shelf record {
+    string name;
+    json details;
+    LibraryAddress address?;
+};
+
+@test:Config {
+    groups: ["fromXml"]
+}
+isolated function testFromXmlWithFieldsConvertedAsJson() returns error? {
+    xml shelf = xml `<Shelf>
+                        <name>A1</name>
+                        <details><floor>ground</floor><section>fiction</section></details>
+                        <color>red</color>
+                    </Shelf>`;
+    Shelf expected = {
+        name: "A1",
+        details: {floor: "ground", section: "fiction"},
+        "color": "red"
+    };
+    Shelf actual = check fromXml(shelf);
+    test:assertEquals(actual, expected, msg = "testFromXmlWithFieldsConvertedAsJson result incorrect");
+}
+
+@test:Config {
+    groups: ["fromXml"]
+}
+isolated function testFromXmlWithTextForRecordField() {
+    xml shelf = xml `<Shelf><name>A1</name><details/><address>Colombo</address></Shelf>`;
+    Shelf|Error actual = fromXml(shelf);
+    if actual is Error {
+        test:assertTrue(actual.message().includes("'map<json>' value cannot be converted to 'xmldata:Shelf'"),
+                        msg = actual.message());
+    } else {
+        test:assertFail("Expected an error for the text of a record field");
+    }
+}
+
+@test:Config {
+    groups: ["fromXml"]
+}
+isolated function testFromXmlWithMissingFieldInArrayItem() {
+    xml library = xml `<Library location="north">
+        <name>City Library</name>
+        <established>1908</established>
+        <rating>4.5</rating>
+        <open>true</open>
+        <tag>public</tag>
+        <book id="1"><title>Ballerina</title><price>12.5</price><edition>1</edition></book>
+        <book id="2"><price>9.0</price><edition>3</edition></book>
+        <address><city>Colombo</city><zip>10100</zip></address>
+    </Library>`;
+    Library|Error actual = fromXml(library);
+    if actual is Error {
+        test:assertTrue(actual.message().includes("missing required field 'book[1].title' of type 'string' " +
+                "in record 'xmldata:Book'"), msg = actual.message());
+    } else {
+        test:assertFail("Expected an error for the missing field");
+    }
+}
+
+type Samples record {
+    string name;
+    int[] v;
+    float[] f;
+    boolean[] b;
+};
+
+@test:Config {
+    groups: ["fromXml"]
+}
+isolated function testFromXmlWithRepeatedPrimitiveElements() returns error? {
+    xml samples = xml `<Samples>
+        <name>cpu</name>
+        <v>1</v><v>2</v><v>3</v><!-- gap --><v>4</v>
+        <f>0.5</f><f>1.5</f>
+        <b>true</b><b>false</b><b>true</b>
+    </Samples>`;
+    Samples expected = {name: "cpu", v: [1, 2, 3, 4], f: [0.5, 1.5], b: [true, false, true]};
+    Samples actual = check fromXml(samples, Samples);
+    test:assertEquals(actual, expected, msg = actual.toString());
+}
+
+type Invoice record {
+    int id;
+    decimal amount;
+    decimal[] taxes;
+    float rate;
+};
+
+@test:Config {
+    groups: ["fromXml"]
+}
+isolated function testFromXmlWithExactDecimals() returns error? {
+    xml invoice = xml `<Invoice>
+        <id>-42</id>
+        <amount>1234567890.123456789012</amount>
+        <taxes>0.1</taxes>
+        <taxes>0.2</taxes>
+        <rate>2.5e-3</rate>
+    </Invoice>`;
+    Invoice expected = {id: -42, amount: 1234567890.123456789012d, taxes: [0.1d, 0.2d], rate: 0.0025};
+    Invoice actual = check fromXml(invoice, Invoice);
+    test:assertEquals(actual, expected, msg = actual.toString());
+    test:assertEquals(actual.taxes[0] + actual.taxes[1], 0.3d);
+}
+
+@test:Config {
+    groups: ["fromXml"]
+}
+isolated function testFromXmlWithInvalidNumber() {
+    xml invoice = xml `<Invoice><id>4x2</id><amount>1</amount><taxes>0.1</taxes><rate>1</rate></Invoice>`;
+    Invoice|Error actual = fromXml(invoice, Invoice);
+    test:assertTrue(actual is Error, msg = "Expected an error for the invalid int value");
+}
+
+type Cart record {
+    CartLines lines;
+};
+
+type CartLines record {
+    CartLine[] line;
+};
+
+type CartLine record {
+    string sku;
+    int qty;
+};
+
+@test:Config {
+    groups: ["fromXml"]
+}
+isolated function testFromXmlErrorDetails() {
+    xml cart = xml `<Cart>
+                        <lines>
+                            <line><sku>A1</sku><qty>1</qty></line>
+                            <line><sku>B2</sku><qty>two</qty></line>
+                        </lines>
+                    </Cart>`;
+    Cart|Error actual = fromXml(cart, Cart);
+    if actual is Error {
+        ErrorDetail detail = actual.detail();
+        test:assertEquals(detail.path, "/Cart/lines/line[2]/qty");
+        test:assertEquals(detail.expectedType, "int");
+        test:assertEquals(detail.snippet, "<qty>two</qty>");
+    } else {
+        test:assertFail("Expected an error for the invalid int value");
+    }
+}
+
+@test:Config {
+    groups: ["fromXml"]
+}
+isolated function testFromXmlWithPaddedRepeatedBooleanElements() returns error? {
+    xml samples = xml `<Samples>
+        <name>cpu</name>
+        <v>1</v>
+        <f>0.5</f>
+        <b> true </b><b>
+            false
+        </b><b>TRUE</b>
+    </Samples>`;
+    Samples expected = {name: "cpu", v: [1], f: [0.5], b: [true, false, true]};
+    Samples actual = check fromXml(samples, Samples);
+    test:assertEquals(actual, expected, msg = actual.toString());
+}
+
+type StreamedPopulation record {
+    string wb\:countryiso3code;
+    int wb\:date;
+    int wb\:value;
+};
+
+@test:Config {
+    groups: ["fromXml", "fromXmlStream"]
+}
+isolated function testFromXmlStreamWithFile() returns error? {
+    stream<StreamedPopulation, Error?> populations =
+        check fromXmlStream("tests/resources/population.xml", "wb:data/wb:data");
+    int[] dates = check from StreamedPopulation population in populations
+        select population.wb\:date;
+    test:assertEquals(dates, [2021, 2020, 2019]);
+}
+
+type LogEntry record {|
+    string level;
+    int code;
+|};
+
+isolated function getChunks(string content, int chunkSize) returns byte[][] {
+    byte[] bytes = content.toBytes();
+    byte[][] chunks = [];
+    int index = 0;
+    while index < bytes.length() {
+        int end = index + chunkSize < bytes.length() ? index + chunkSize : bytes.length();
+        chunks.push(bytes.slice(index, end));
+        index = end;
+    }
+    return chunks;
+}
+
+@test:Config {
+    groups: ["fromXml", "fromXmlStream"]
+}
+isolated function testFromXmlStreamWithMultipleDocuments() returns error? {
+    string content = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+        "<log><entry><level>INFO</level><code>1</code></entry></log>\n" +
+        "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+        "<log><entry><level>WARN</level><code>2</code></entry><entry><level>ERROR</level><code>3</code></entry></log>";
+    stream<byte[], error?> bytes = getChunks(content, 7).toStream();
+    stream<LogEntry, Error?> entries = check fromXmlStream(bytes, "log/entry");
+    LogEntry[] actual = check from LogEntry entry in entries
+        select entry;
+    LogEntry[] expected = [
+        {level: "INFO", code: 1},
+        {level: "WARN", code: 2},
+        {level: "ERROR", code: 3}
+    ];
+    test:assertEquals(actual, expected);
+}
+
+@test:Config {
+    groups: ["fromXml", "fromXmlStream"]
+}
+isolated function testFromXmlStreamWithDeclarationInContent() returns error? {
+    string content = "<?xml version=\"1.0\"?>\n" +
+        "<log><!-- <?xml version=\"1.0\"?> --><entry><level><![CDATA[<?xml version=\"1.0\"?>]]></level>" +
+        "<code>1</code></entry></log>\n" +
+        "<?xml version=\"1.0\"?>\n" +
+        "<log><entry><level>WARN</level><code>2</code></entry></log>";
+    stream<byte[], error?> bytes = getChunks(content, 5).toStream();
+    stream<LogEntry, Error?> entries = check fromXmlStream(bytes, "log/entry");
+    LogEntry[] actual = check from LogEntry entry in entries
+        select entry;
+    LogEntry[] expected = [
+        {level: "<?xml version=\"1.0\"?>", code: 1},
+        {level: "WARN", code: 2}
+    ];
+    test:assertEquals(actual, expected);
+}
+
+@test:Config {
+    groups: ["fromXml", "fromXmlStream"]
+}
+isolated function testFromXmlStreamWithTypeMismatch() returns error? {
+    string content = "<log><entry><level>INFO</level><code>one</code></entry></log>";
+    stream<LogEntry, Error?> entries = check fromXmlStream([content.toBytes()].toStream(), "log/entry");
+    record {|LogEntry value;|}|Error? entry = entries.next();
+    test:assertTrue(entry is Error, msg = "Expected an error for the type mismatch");
+}
+
+@test:Config {
+    groups: ["fromXml", "fromXmlStream"]
+}
+isolated function testFromXmlStreamWithDeeplyNestedElement() returns error? {
+    string[] opening = [];
+    string[] closing = [];
+    foreach int i in 0 ..< 100000 {
+        opening.push("<level>");
+        closing.push("</level>");
+    }
+    string content = "<log><entry>" + string:'join("", ...opening) + string:'join("", ...closing) +
+        "</entry></log>";
+    stream<LogEntry, Error?> entries = check fromXmlStream(getChunks(content, 4096).toStream(), "log/entry");
+    record {|LogEntry value;|}|Error? entry = entries.next();
+    test:assertTrue(entry is Error, msg = "Expected an error for the deeply nested element");
+    test:assertEquals(entries.next(), ());
+}
+
+@test:Config {
+    groups: ["fromXml", "fromXmlStream"]
+}
+isolated function testFromXmlStreamNotReadToTheEnd() returns error? {
+    string content = "<log><entry><level>INFO</level><code>1</code></entry>" +
+        "<entry><level>WARN</level><code>2</code></entry></log>";
+    foreach int i in 0 ..< 10 {
+        // The streams are left without reading them to the end or closing them.
+        stream<LogEntry, Error?> entries = check fromXmlStream(getChunks(content, 16).toStream(), "log/entry");
+        record {|LogEntry value;|}|Error? entry = entries.next();
+        test:assertEquals(entry, {value: {level: "INFO", code: 1}});
+    }
+    stream<LogEntry, Error?> entries = check fromXmlStream(getChunks(content, 16).toStream(), "log/entry");
+    record {|LogEntry value;|}|Error? entry = entries.next();
+    test:assertEquals(entry, {value: {level: "INFO", code: 1}});
+    check entries.close();
+    test:assertEquals(entries.next(), ());
+}
+
+@test:Config {
+    groups: ["fromXml", "fromXmlStream"]
+}
+isolated function testFromXmlStreamWithInvalidPath() {
+    stream<LogEntry, Error?>|Error entries = fromXmlStream("tests/resources/population.xml", " / ");
+    test:assertTrue(entries is Error, msg = "Expected an error for the empty path");
+}
+
+@test:Config {
+    groups: ["fromXml", "fromXmlBatch"]
+}
+isolated function testFromXmlBatch() returns error? {
+    xml[] carts = [
+        xml `<Cart><lines><line><sku>A1</sku><qty>1</qty></line></lines></Cart>`,
+        xml `<Cart><lines><line><sku>B2</sku><qty>two</qty></line></lines></Cart>`,
+        xml `<Cart><lines><line><sku>C3</sku><qty>3</qty></line></lines></Cart>`
+    ];
+    foreach boolean parallel in [false, true] {
+        (Cart|Error)[] actual = check fromXmlBatch(carts, parallel);
+        test:assertEquals(actual.length(), 3);
+        test:assertEquals(actual[0], {lines: {line: [{sku: "A1", qty: 1}]}});
+        Cart|Error second = actual[1];
+        if second is Error {
+            test:assertEquals(second.detail().path, "/Cart/lines/line/qty");
+        } else {
+            test:assertFail("Expected an error for the second value");
+        }
+        test:assertEquals(actual[2], {lines: {line: [{sku: "C3", qty: 3}]}});
+    }
+}
+
+type Partner record {|
+    string id;
+    PartnerContact contact;
+|};
+
+type PartnerContact record {|
+    string email;
+|};
+
+@test:Config {
+    groups: ["fromXml"]
+}
+isolated function testFromXmlWithIgnoreUnknown() returns error? {
+    xml partner = xml `<Partner>
+                           <id>P1</id>
+                           <vendorExtensions><code>x</code><code>y</code></vendorExtensions>
+                           <contact><email>p1@example.com</email><fax>123</fax></contact>
+                       </Partner>`;
+    Partner|Error rejected = fromXml(partner);
+    test:assertTrue(rejected is Error, msg = "Expected an error for the undeclared elements");
+    Partner actual = check fromXml(partner, ignoreUnknown = true);
+    test:assertEquals(actual, {id: "P1", contact: {email: "p1@example.com"}});
+}
+
+@test:Config {
+    groups: ["fromXml"]
+}
+isolated function testFromXmlWithIgnoreUnknownAndTrailingText() returns error? {
+    // The text after the root element is not bound directly, so the XML is converted through JSON.
+    xml partner = xml `<Partner>
+                           <id>P1</id>
+                           <vendorExtensions><code>x</code><code>y</code></vendorExtensions>
+                           <contact><email>p1@example.com</email><fax>123</fax></contact>
+                       </Partner>trailing`;
+    Partner|Error rejected = fromXml(partner);
+    test:assertTrue(rejected is Error, msg = "Expected an error for the undeclared elements");
+    Partner actual = check fromXml(partner, ignoreUnknown = true);
+    test:assertEquals(actual, {id: "P1", contact: {email: "p1@example.com"}});
+}
+
+type Category record {
+    string name;
+    Category[] category?;
+};
+
+@test:Config {
+    groups: ["fromXml"]
+}
+isolated function testFromXmlWithRecursiveRecord() returns error? {
+    xml catalog = xml `<Category>
+                        <name>root</name>
+                        <category><name>a</name><category><name>a1</name></category></category>
+                        <category><name>b</name></category>
+                    </Category>`;
+    Category expected = {
+        name: "root",
+        category: [{name: "a", category: [{name: "a1"}]}, {name: "b"}]
+    };
+    Category actual = check fromXml(catalog);
+    test:assertEquals(actual, expected, msg = "testFromXmlWithRecursiveRecord result incorrect");
+    test:assertEquals(check fromXml(catalog, Category), expected,
+                    msg = "testFromXmlWithRecursiveRecord second result incorrect");
+}
+
+type Metric record {
+    string name;
+    int value;
+};
+
+@test:Config {
+    groups: ["fromXml", "metrics"]
+}
+function testFromXmlMetrics() returns error? {
+    setMetricsEnabled(true);
+    Metric actual = check fromXml(xml `<Metric><name>calls</name><value>1</value></Metric>`);
+    ConversionMetrics[] metrics = getConversionMetrics()
+        .filter(metric => metric.operation == "fromXml" && metric.targetType == "xmldata:Metric");
+    setMetricsEnabled(false);
+    test:assertEquals(actual, {name: "calls", value: 1});
+    test:assertEquals(metrics.length(), 1);
+    test:assertTrue(metrics[0].nodes >= 5);
+    test:assertTrue(metrics[0].outputSize >= 5);
+}
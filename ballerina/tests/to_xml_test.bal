@@ -1081,3 +1081,108 @@ isolated function testRecordWithNamespaceAnnotationToXml1() returns error? {
     xml result = check toXml(input);
     test:assertEquals(result.toString(), expected, msg = "testComplexRecordToXml result incorrect");
 }
+
+@test:Config {
+    groups: ["toXml", "toXmlBytes"]
+}
+isolated function testRecordToXmlBytes() returns error? {
+    Root data = {name: "Asha"};
+    byte[] result = check toXmlBytes(data);
+    xml expected = check toXml(data);
+    test:assertEquals(result, expected.toString().toBytes(), msg = "testRecordToXmlBytes result incorrect");
+}
+
+@test:Config {
+    groups: ["toXml", "toXmlBytes"]
+}
+isolated function testRecordWithNamespaceAnnotationToXmlBytes() returns error? {
+    Purchased_Bill input = {
+        PurchasedItems: {
+            PLine: [
+                {ItemCode: "223345", Count: 10},
+                {
+                    ItemCode: {discount: "22%", \#content: "200777"},
+                    Count: 7
+                }
+            ]
+        },
+        Address: {
+            StreetAddress: "20, Palm grove, Colombo 3",
+            City: "Colombo",
+            Zip: 300,
+            Country: "LK"
+        },
+        'xmlns\:ns: "ns.com",
+        attr: "attr-val",
+        ns\:attr: "ns-attr-val"
+    };
+    byte[] result = check toXmlBytes(input);
+    xml expected = check toXml(input);
+    test:assertEquals(result, expected.toString().toBytes(),
+                        msg = "testRecordWithNamespaceAnnotationToXmlBytes result incorrect");
+}
+
+@test:Config {
+    groups: ["toXml", "toXmlBytes"]
+}
+isolated function testMapToXmlBytes() returns error? {
+    map<anydata> data = {
+        name: "Asha & Co <Ltd>",
+        codes: [4, 8],
+        city: "Colombo"
+    };
+    byte[] result = check toXmlBytes(data);
+    string expected = "<root>" +
+                        "<name>Asha &amp; Co &lt;Ltd&gt;</name>" +
+                        "<codes>4</codes>" +
+                        "<codes>8</codes>" +
+                        "<city>Colombo</city>" +
+                    "</root>";
+    test:assertEquals(result, expected.toBytes(), msg = "testMapToXmlBytes result incorrect");
+}
+
+type Package record {
+    PackageTag|Tag tag;
+};
+
+type Tag record {
+    @Attribute
+    string kind;
+    string \#content?;
+};
+
+type PackageTag record {
+    string kind;
+    string text;
+};
+
+@test:Config {
+    groups: ["toXml"]
+}
+isolated function testRecordWithOverlappingUnionMemberNamesToXml() returns error? {
+    Package shipment = {tag: <PackageTag>{kind: "fragile", text: "Handle with care"}};
+    string expected = "<Package><tag><kind>fragile</kind><text>Handle with care</text></tag></Package>";
+    xml result = check toXml(shipment);
+    test:assertEquals(result.toString(), expected, msg = "testRecordWithOverlappingUnionMemberNamesToXml result incorrect");
+
+    shipment = {tag: <Tag>{kind: "fragile", \#content: "Handle with care"}};
+    expected = "<Package><tag kind=\"fragile\">Handle with care</tag></Package>";
+    result = check toXml(shipment);
+    test:assertEquals(result.toString(), expected, msg = "testRecordWithOverlappingUnionMemberNamesToXml result incorrect");
+}
+
+@test:Config {
+    groups: ["toXml", "metrics"]
+}
+function testToXmlMetricsWithMap() returns error? {
+    map<anydata> data = {metric: {name: "calls", value: 1}};
+    setMetricsEnabled(true);
+    xml actual = check toXml(data);
+    ConversionMetrics[] metrics = getConversionMetrics()
+        .filter(metric => metric.operation == "toXml" && metric.targetType == "map<anydata>");
+    setMetricsEnabled(false);
+    test:assertEquals(actual, xml `<metric><name>calls</name><value>1</value></metric>`);
+    test:assertEquals(metrics.length(), 1);
+    test:assertTrue(metrics[0].calls >= 1);
+    test:assertTrue(metrics[0].nodes >= 5);
+}
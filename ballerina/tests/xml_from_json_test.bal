@@ -1096,3 +1096,74 @@ isolated function testWithRootTagConfig() {
         test:assertFail("failed to convert json to xml");
     }
 }
+
+@test:Config {
+    groups: ["fromJson", "fromJsonToBytes"]
+}
+isolated function testFromJsonToBytes() returns error? {
+    json data = {
+        "ns0:bookStore": {
+            "@xmlns:ns0": "http://sample.com/test",
+            "@status": "online",
+            "ns0:storeName": "foo & bar",
+            "ns0:postalCode": "94",
+            "codes": ["4", "8"],
+            "city": "Colombo 東京"
+        }
+    };
+    byte[] result = check fromJsonToBytes(data);
+    xml? expected = check fromJson(data);
+    test:assertEquals(result, expected.toString().toBytes());
+}
+
+@test:Config {
+    groups: ["fromJson", "fromJsonToBytes"]
+}
+isolated function testFromJsonToBytesWithOptions() returns error? {
+    json data = [
+        {"#id": "1", "name": "Anne"},
+        {"#id": "2", "name": "Bob"}
+    ];
+    byte[] result = check fromJsonToBytes(data, {attributePrefix: "#", arrayEntryTag: "person", rootTag: "people"});
+    string expected = "<people>" +
+                        "<person id=\"1\"><name>Anne</name></person>" +
+                        "<person id=\"2\"><name>Bob</name></person>" +
+                    "</people>";
+    test:assertEquals(result, expected.toBytes());
+}
+
+@test:Config {
+    groups: ["fromJson", "fromJsonToBytes"]
+}
+isolated function testFromJsonToBytesWithAttributeObject() {
+    json data = {
+        "name": {
+            "@value": {"first": "Anne"}
+        }
+    };
+    byte[]|Error result = fromJsonToBytes(data);
+    if result is Error {
+        test:assertEquals(result.message(), "attribute cannot be an object or array.");
+    } else {
+        test:assertFail("Expected an error for an object attribute");
+    }
+}
+
+@test:Config {
+    groups: ["fromJson"]
+}
+isolated function testFromJsonWithUndeclaredAttributePrefix() {
+    json data = {
+        "book": {
+            "@ns0:lang": "en",
+            "title": "Harry Potter"
+        }
+    };
+    xml?|Error result = fromJson(data);
+    if result is Error {
+        test:assertEquals(result.message(),
+                        "The namespace of the prefix 'ns0' in the attribute '@ns0:lang' is not declared");
+    } else {
+        test:assertFail("Expected an error for an undeclared attribute prefix");
+    }
+}
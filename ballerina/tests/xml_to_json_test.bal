@@ -684,3 +684,223 @@ isolated function testComplexXmlWithNamespace4() returns error? {
         }
     });
 }
+
+@test:Config {
+    groups: ["toJson", "toJsonFromBytes"]
+}
+isolated function testToJsonFromBytes() returns error? {
+    string xmlString = string `<bookStore status="online" xmlns:ns0="http://sample.com/test">
+                    <storeName>foo</storeName>
+                    <address xmlns:ns0="http://sample.com/test1" status="online">
+                      <street>foo</street>
+                      <ns0:city>94</ns0:city>
+                    </address>
+                    <codes xmlns:ns0="http://sample.com/test">
+                      <item>4</item>
+                      <item>8</item>
+                      <item>9</item>
+                    </codes>
+                  </bookStore>`;
+    json expected = check toJson(check xml:fromString(xmlString));
+    json actual = check toJsonFromBytes(xmlString.toBytes());
+    test:assertEquals(actual, expected, msg = "testToJsonFromBytes result incorrect");
+}
+
+@test:Config {
+    groups: ["toJson", "toJsonFromBytes"]
+}
+isolated function testToJsonFromByteStream() returns error? {
+    string xmlString = "<Element><A>BCD</A><A>ZZZ</A><B attr=\"x\">text</B><!-- comment --></Element>";
+    byte[] xmlBytes = xmlString.toBytes();
+    byte[][] chunks = [xmlBytes.slice(0, 10), xmlBytes.slice(10, 27), xmlBytes.slice(27)];
+    stream<byte[], error?> byteStream = chunks.toStream();
+    json actual = check toJsonFromBytes(byteStream, {attributePrefix: "_", preserveNamespaces: false});
+    test:assertEquals(actual, {Element: {A: ["BCD", "ZZZ"], B: {"_attr": "x", "#content": "text"}}},
+                    msg = "testToJsonFromByteStream result incorrect");
+}
+
+@test:Config {
+    groups: ["toJson", "toJsonFromBytes"]
+}
+isolated function testToJsonFromBytesWithNamespacedAttributes() returns error? {
+    string xmlString = string `<p:catalog xmlns:p="http://example.com/p" xml:lang="en" p:version="2">
+                    <p:item p:id="1" xml:lang="si">first</p:item>
+                    <q:item xmlns:q="http://example.com/p" p:id="2">second</q:item>
+                    <item xmlns="http://example.com/d" p:id="3">third</item>
+                  </p:catalog>`;
+    xml xmlValue = check xml:fromString(xmlString);
+    byte[] xmlBytes = xmlString.toBytes();
+    stream<byte[], error?> byteStream = [xmlBytes.slice(0, 40), xmlBytes.slice(40, 150), xmlBytes.slice(150)]
+        .toStream();
+    json expected = check toJson(xmlValue);
+    test:assertEquals(check toJsonFromBytes(xmlBytes), expected,
+                    msg = "testToJsonFromBytesWithNamespacedAttributes result incorrect");
+    test:assertEquals(check toJsonFromBytes(byteStream), expected,
+                    msg = "testToJsonFromBytesWithNamespacedAttributes byte stream result incorrect");
+    test:assertEquals(check toJsonFromBytes(xmlBytes, {preserveNamespaces: false}),
+                    check toJson(xmlValue, {preserveNamespaces: false}),
+                    msg = "testToJsonFromBytesWithNamespacedAttributes result without namespaces incorrect");
+}
+
+@test:Config {
+    groups: ["toJson", "toJsonFromBytes"]
+}
+isolated function testToJsonFromBytesWithOptions() returns error? {
+    string xmlString = string `<ns:Envelope xmlns:ns="http://example.com/ns" version="1">
+                    <ns:Body>
+                      <Result id="r1"><Items><Item>a</Item><Item>b</Item></Items><Audit>x</Audit></Result>
+                    </ns:Body>
+                  </ns:Envelope>`;
+    xml xmlValue = check xml:fromString(xmlString);
+    byte[] xmlBytes = xmlString.toBytes();
+    XmlOptions[] optionSets = [
+        {},
+        {preserveNamespaces: false},
+        {attributePrefix: "_"},
+        {includePaths: ["/Envelope/Body/Result/Items"]},
+        {excludePaths: ["/Envelope/Body/Result/Audit"]},
+        {limits: {maxOutputSize: 12}},
+        {limits: {maxOutputSize: 11}},
+        {limits: {maxDepth: 3}},
+        {limits: {maxAttributes: 0}}
+    ];
+    foreach XmlOptions options in optionSets {
+        json|Error expected = toJson(xmlValue, options);
+        json|Error actual = toJsonFromBytes(xmlBytes, options);
+        if expected is LimitExceededError {
+            test:assertTrue(actual is LimitExceededError, msg = "Expected a limit error for " + options.toString());
+        } else {
+            test:assertEquals(actual, expected, msg = "testToJsonFromBytesWithOptions result incorrect for " +
+                options.toString());
+        }
+    }
+    // The whitespace between the elements is not counted in the output size.
+    test:assertTrue(toJsonFromBytes(xmlBytes, {limits: {maxOutputSize: 12}}) is json);
+}
+
+@test:Config {
+    groups: ["toJson", "toJsonFromBytes"]
+}
+isolated function testToJsonFromInvalidBytes() {
+    json|Error actual = toJsonFromBytes("<Element><A>BCD</Element>".toBytes());
+    if actual is Error {
+        test:assertTrue(actual.message().startsWith("Failed to parse the XML: "), msg = actual.message());
+    } else {
+        test:assertFail(msg = "testToJsonFromInvalidBytes result incorrect");
+    }
+}
+
+@test:Config {
+    groups: ["toJson", "metrics"]
+}
+function testToJsonMetrics() returns error? {
+    setMetricsEnabled(true);
+    json _ = check toJson(xml `<metric><name>calls</name></metric>`);
+    ConversionMetrics[] metrics = getConversionMetrics().filter(metric => metric.operation == "toJson");
+    setMetricsEnabled(false);
+    test:assertEquals(metrics.length(), 1);
+    test:assertEquals(metrics[0].targetType, "json");
+    test:assertTrue(metrics[0].calls >= 1);
+    test:assertTrue(metrics[0].nodes >= 3);
+    test:assertEquals(metrics[0].latencyHistogram.length(), 12);
+}
+
+@test:Config {
+    groups: ["toJson"]
+}
+function testToJsonWithParallelConversion() returns error? {
+    xml catalog = xml `<catalog>
+                           <product id="1"><name>A</name><price>10</price></product>
+                           <note>Prices in USD</note>
+                           <product id="2"><name>B</name><price>20</price></product>
+                           <product id="3"><name>C</name><price>30</price></product>
+                       </catalog>`;
+    json expected = check toJson(catalog);
+    setParallelConversionThreshold(2);
+    json|Error actual = toJson(catalog);
+    setParallelConversionThreshold(0);
+    test:assertEquals(actual, expected);
+}
+
+@test:Config {
+    groups: ["toJson", "toJsonView"]
+}
+isolated function testToJsonView() returns error? {
+    xml 'order = xml `<order xmlns:ns="http://example.com/ns" status="open">
+                          <id>42</id>
+                          <customer><name>Anne</name><ns:tier>gold</ns:tier></customer>
+                          <items><item>pen</item><item>ink</item></items>
+                      </order>`;
+    json expected = check toJson('order);
+    JsonView view = toJsonView('order);
+    test:assertEquals(check view.get("order", "id"), "42");
+    test:assertEquals(check view.get("order", "customer", "ns:tier"), "gold");
+    test:assertEquals(check view.get("order", "items", "item", "1"), "ink");
+    test:assertEquals(check view.get("order", "@status"), "open");
+    test:assertEquals(check view.get("order", "missing"), ());
+    json customer = check view.get("order", "customer");
+    test:assertTrue(customer.isReadOnly());
+    test:assertTrue(customer === check view.get("order", "customer"));
+    json actual = check view.toJson();
+    test:assertTrue(actual.isReadOnly());
+    test:assertEquals(actual, expected);
+}
+
+@test:Config {
+    groups: ["toJson"]
+}
+isolated function testToJsonWithIncludeAndExcludePaths() returns error? {
+    xml envelope = xml `<soap:Envelope xmlns:soap="http://schemas.xmlsoap.org/soap/envelope/">
+                            <soap:Header><token>abc</token></soap:Header>
+                            <soap:Body>
+                                <Result>
+                                    <Items><Item>pen</Item><Item>ink</Item></Items>
+                                    <Audit><user>admin</user></Audit>
+                                </Result>
+                            </soap:Body>
+                        </soap:Envelope>`;
+    json expected = {"soap:Envelope": {"soap:Body": {"Result": {"Items": {"Item": ["pen", "ink"]}}}}};
+    test:assertEquals(check toJson(envelope, {includePaths: ["/Envelope/Body/Result/Items"]}), expected);
+    test:assertEquals(check toJson(envelope, {includePaths: ["/Envelope/Body/*"],
+        excludePaths: ["/Envelope/Body/Result/Audit"]}), expected);
+    test:assertEquals(check toJsonFromBytes(envelope.toString().toBytes(),
+        {includePaths: ["/Envelope/Body/Result/Items"]}), expected);
+}
+
+@test:Config {
+    groups: ["toJson"]
+}
+isolated function testToJsonWithLimits() returns error? {
+    xml nested = xml `<a><b><c><d>deep</d></c></b></a>`;
+    json|Error actual = toJson(nested, {limits: {maxDepth: 3}});
+    if actual is LimitExceededError {
+        test:assertEquals(actual.message(), "The value exceeds the maximum depth: 3");
+        test:assertEquals(actual.detail().path, "/a/b/c/d");
+    } else {
+        test:assertFail("Expected a LimitExceededError for the depth");
+    }
+    test:assertTrue(toJson(xml `<p>xxxxxxxxxxxxxxxxxxxx</p>`, {limits: {maxTextLength: 10}})
+        is LimitExceededError);
+    test:assertTrue(toJson(xml `<p a="1" b="2"/>`, {limits: {maxAttributes: 1}}) is LimitExceededError);
+    test:assertTrue(toJsonFromBytes(nested.toString().toBytes(), {limits: {maxElements: 3}})
+        is LimitExceededError);
+    test:assertTrue(fromJson({a: {b: {c: "deep"}}}, {limits: {maxDepth: 2}}) is LimitExceededError);
+    test:assertEquals(check toJson(nested, {limits: {maxDepth: 4, maxElements: 4}}),
+        check toJson(nested));
+}
+
+@test:Config {
+    groups: ["toJson"]
+}
+isolated function testToJsonWithLimitsAndExcludedElements() returns error? {
+    xml report = xml `<report><summary>ok</summary><details><row/><row/><row/></details></report>`;
+    json|Error actual = toJson(report, {limits: {maxElements: 2}});
+    if actual is LimitExceededError {
+        test:assertEquals(actual.message(), "The value exceeds the maximum number of elements: 2");
+        test:assertEquals(actual.detail().path, "/report/details");
+    } else {
+        test:assertFail("Expected a LimitExceededError for the number of elements");
+    }
+    test:assertEquals(check toJson(report, {excludePaths: ["/report/details"], limits: {maxElements: 2}}),
+        {report: {summary: "ok"}});
+}
@@ -1251,3 +1251,67 @@ isolated function testToRecordWithSameAttribute() returns Error? {
     Root30 actual = check toRecord(x);
     test:assertEquals(actual, expected, msg = "testToRecordWithSameAttribute result incorrect");
 }
+
+type Root31 record {
+    Root32 Root;
+};
+
+type Root32 record {
+    int|string id;
+    decimal|string amount;
+    float|boolean|string flag;
+    int|string code;
+};
+
+@test:Config {
+    groups: ["toRecord"]
+}
+isolated function testToRecordWithPrimitiveUnionValues() returns Error? {
+    xml x = xml `<Root><id>42</id><amount>12.50</amount><flag>yes</flag><code>A-7</code></Root>`;
+    Root31 expected = {
+        Root: {
+            id: 42,
+            amount: 12.50d,
+            flag: false,
+            code: "A-7"
+        }
+    };
+
+    Root31 actual = check toRecord(x);
+    test:assertEquals(actual, expected, msg = "testToRecordWithPrimitiveUnionValues result incorrect");
+}
+
+type Root33 record {
+    Root34 Root;
+};
+
+type Root34 record {
+    string name;
+    Measure[] measure;
+};
+
+type Measure record {
+    string unit;
+    float value;
+};
+
+@test:Config {
+    groups: ["toRecord"]
+}
+isolated function testToRecordWithInvalidValueDetails() {
+    xml x = xml `<Root><name>probe</name>
+                    <measure><unit>cm</unit><value>1.5</value></measure>
+                    <measure><unit>cm</unit><value>n/a</value></measure>
+                 </Root>`;
+    Root33|Error actual = toRecord(x);
+    if actual is Error {
+        test:assertEquals(actual.message(),
+                        "XML type mismatch with record type: Error occurred when converting value: n/a to float");
+        ErrorDetail detail = actual.detail();
+        test:assertEquals(detail.path, "/Root/measure[2]/value");
+        test:assertEquals(detail.expectedType, "float");
+        test:assertEquals(detail.snippet, "<value>n/a</value>");
+    } else {
+        test:assertFail("Expected an error for the invalid float value");
+    }
+}
@@ -16,11 +16,6 @@
 
 import ballerina/jballerina.java;
 
-const string XMLNS_NAMESPACE_URI = "http://www.w3.org/2000/xmlns/";
-const string CONTENT = "#content";
-const string ATTRIBUTE_PREFIX = "attribute_";
-const string XMLNS = "xmlns";
-
 # Defines the name of the XML element.
 #
 # + value - The name of the XML element
@@ -63,14 +58,25 @@ public isolated function toXml(map<anydata> mapValue) returns xml|Error {
     if mapValue is map<xml>|map<xml[]> {
         return convertMapXml(mapValue);
     }
-    JsonOptions jsonOption = {attributePrefix: ATTRIBUTE_PREFIX, arrayEntryTag : ""};
-    typedesc<(map<anydata>)> inputType = typeof mapValue;
-    json|json[]|record{} jsonValue = check getModifiedRecord(mapValue, inputType);
-    if jsonValue is json[] {
-        jsonOption.rootTag = jsonValue[1].toString();
-        return <xml>check fromJson(jsonValue[0], jsonOption);
+    return recordToXml(mapValue, typeof mapValue);
+}
+
+# Converts a `Map` or `Record` representation to its XML representation as UTF-8 encoded bytes. The XML is written
+# directly to the bytes, so the XML value is not created during the conversion. The same rules as the
+# `xmldata:toXml` API are used for the conversion.
+# ```ballerina
+# map<anydata> data = {name: "John", age: 30};
+# byte[] xmlBytes = check xmldata:toXmlBytes(data);
+# ```
+#
+# + mapValue - The `Map` or `Record` representation source to be converted to XML
+# + return - XML representation of the given source as bytes if the source is
+# successfully converted or else an `xmldata:Error`
+public isolated function toXmlBytes(map<anydata> mapValue) returns byte[]|Error {
+    if mapValue is map<xml>|map<xml[]> {
+        return convertMapXml(mapValue).toString().toBytes();
     }
-    return <xml>check fromJson(jsonValue.toJson(), jsonOption);
+    return recordToXmlBytes(mapValue, typeof mapValue);
 }
 
 isolated function convertMapXml(map<xml>|map<xml[]> mapValue) returns xml {
@@ -90,9 +96,16 @@ isolated function convertMapXml(map<xml>|map<xml[]> mapValue) returns xml {
     return xml:createElement("root", {}, xNode);
 }
 
-isolated function getModifiedRecord(map<anydata> mapValue, typedesc<(map<anydata>|json)> inputType)
-returns json|json[]|record{}|Error = @java:Method {
-    'class: "io.ballerina.stdlib.xmldata.utils.XmlDataUtils"
+isolated function recordToXml(map<anydata> mapValue, typedesc<(map<anydata>)> inputType) returns xml|Error =
+@java:Method {
+    'class: "io.ballerina.stdlib.xmldata.RecordToXml",
+    name: "toXml"
+} external;
+
+isolated function recordToXmlBytes(map<anydata> mapValue, typedesc<(map<anydata>)> inputType)
+returns byte[]|Error = @java:Method {
+    'class: "io.ballerina.stdlib.xmldata.RecordToXml",
+    name: "toXmlBytes"
 } external;
 
 # Provides configurations for converting JSON to XML.
@@ -101,10 +114,32 @@ returns json|json[]|record{}|Error = @java:Method {
 # + arrayEntryTag - The name of the XML elements that represent a converted JSON array entry
 # + rootTag- The name of the root element of the XML that will be created. If its value is (), and the converted XML
 #            is not in the valid format, it will create a root tag as `root`
+# + limits - The limits of the JSON value to convert. The objects and the arrays are the levels of the depth,
+#            their members and items are the elements, and each JSON value adds to the output size
 public type JsonOptions record {|
     string attributePrefix = "@";
     string arrayEntryTag = "item";
     string? rootTag = ();
+    Limits limits = {};
+|};
+
+# Provides limits on the size of the values converted, so that a large or malformed value is rejected. An XML value
+# is checked while it is converted, and the conversion returns an `xmldata:LimitExceededError` as soon as a limit is
+# exceeded. A JSON value is checked before it is converted, which traverses it twice. The limits which are not given
+# are not checked.
+#
+# + maxDepth - The maximum depth of the nested elements
+# + maxElements - The maximum number of elements
+# + maxTextLength - The maximum length of a text value
+# + maxAttributes - The maximum number of attributes of an element, without the namespace declarations
+# + maxOutputSize - The maximum number of values in the result, which are the elements, the attributes and the
+#                   text values converted from XML, or the values converted from JSON
+public type Limits record {|
+    int maxDepth?;
+    int maxElements?;
+    int maxTextLength?;
+    int maxAttributes?;
+    int maxOutputSize?;
 |};
 
 # Converts a JSON object to an XML representation.
@@ -120,238 +155,47 @@ public type JsonOptions record {|
 # + options - The `xmldata:JsonOptions` record for JSON to XML conversion properties
 # + return - XML representation of the given JSON if the JSON is
 # successfully converted or else an `xmldata:Error`. The `()` value is not returned
-public isolated function fromJson(json jsonValue, JsonOptions options = {}) returns xml?|Error {
-    string? rootTag = options.rootTag;
-    map<string> allNamespaces = {};
-    if !isSingleNode(jsonValue) {
-        addNamespaces(allNamespaces, check getNamespacesMap(jsonValue, options, {}));
-        return getElement(rootTag is string ? rootTag : "root",
-                          check traverseNode(jsonValue, allNamespaces, {}, options), allNamespaces, options,
-                          check getAttributesMap(jsonValue, options, allNamespaces));
-    } else {
-        map<json>|error jMap = jsonValue.ensureType();
-        if jMap is map<json> {
-            if jMap.length() == 0 {
-                return xml ``;
-            }
-            json value = jMap.toArray()[0];
-            addNamespaces(allNamespaces, check getNamespacesMap(value, options, {}));
-            if value is json[] {
-                return getElement(rootTag is string ? rootTag : "root",
-                                  check traverseNode(value, allNamespaces, {}, options, jMap.keys()[0]),
-                                  allNamespaces, options, check getAttributesMap(value, options, allNamespaces));
-            } else {
-                string key = jMap.keys()[0];
-                if key == CONTENT {
-                    return xml:createText(value.toString());
-                }
-                xml output = check getElement(jMap.keys()[0], check traverseNode(value, allNamespaces, {}, options),
-                                            allNamespaces, options,
-                                            check getAttributesMap(value, options, allNamespaces));
-                if rootTag is string {
-                    return xml:createElement(rootTag.toString(), {}, output);
-                }
-                return output;
-            }
-        }
-        if jsonValue !is null {
-            return xml:createText(jsonValue.toString());
-        } else {
-            return xml ``;
-        }
-    }
-}
-
-isolated function traverseNode(json jNode, map<string> allNamespaces, map<string> parentNamespaces, JsonOptions options,
-                                string? key = ()) returns xml|Error {
-    map<string> namespacesOfElem = {};
-    string attributePrefix = options.attributePrefix;
-    xml xNode = xml ``;
-    if jNode is map<json> {
-        foreach [string, json] [k, value] in jNode.entries() {
-            string jsonKey = k.trim();
-            if !jsonKey.startsWith(attributePrefix) {
-                if jsonKey == CONTENT {
-                    xNode += xml:createText(value.toString());
-                } else {
-                    namespacesOfElem = check getNamespacesMap(value, options, parentNamespaces);
-                    addNamespaces(allNamespaces, namespacesOfElem);
-                    if value is json[] {
-                        xml node = check traverseNode(value, allNamespaces, namespacesOfElem, options, jsonKey);
-                        xNode += node;
-                    } else {
-                        xml node =
-                        check getElement(jsonKey, check traverseNode(value, allNamespaces, namespacesOfElem, options),
-                                        allNamespaces, options,
-                                        check getAttributesMap(value, options, allNamespaces, parentNamespaces));
-                        xNode += node;
-                    }
-                }
-            }
-        }
-    } else if jNode is json[] {
-        foreach var i in jNode {
-            string arrayEntryTagKey = "";
-            if (key is string) {
-                arrayEntryTagKey = key;
-            } else if options.arrayEntryTag != "" {
-                arrayEntryTagKey = options.arrayEntryTag;
-            }
-            namespacesOfElem = check getNamespacesMap(i, options, parentNamespaces);
-            addNamespaces(allNamespaces, namespacesOfElem);
-            xml item;
-            if options.arrayEntryTag == "" {
-                item = check getElement(arrayEntryTagKey,
-                                        check traverseNode(i, allNamespaces, namespacesOfElem, options, key),
-                                        allNamespaces, options,
-                                        check getAttributesMap(i, options, allNamespaces, parentNamespaces));
-            } else {
-                item = check getElement(arrayEntryTagKey,
-                                        check traverseNode(i, allNamespaces, namespacesOfElem, options),
-                                        allNamespaces, options,
-                                        check getAttributesMap(i, options, allNamespaces, parentNamespaces));
-            }
-            xNode += item;
-        }
-    } else {
-        xNode = xml:createText(jNode.toString());
-    }
-    return xNode;
-}
-
-isolated function isSingleNode(json node) returns boolean {
-    map<anydata>|error jMap = node.ensureType();
-    if jMap is map<anydata> && jMap.length() > 1 {
-        return false;
-    }
-    if node is json[] {
-        return false;
-    }
-    return true;
-}
-
-isolated function getElement(string name, xml children, map<string> namespaces, JsonOptions options,
-                            map<string> attributes = {}) returns xml|Error {
-    string attributePrefix = options.attributePrefix;
-    xml:Element element;
-    int? index = name.indexOf(":");
-    if index is int {
-        string prefix = name.substring(0, index);
-        string elementName = name.substring(index + 1, name.length());
-        string namespaceUrl = attributes[string `{${XMLNS_NAMESPACE_URI}}${prefix}`].toString();
-        if namespaceUrl == "" {
-            namespaceUrl = namespaces[string `{${XMLNS_NAMESPACE_URI}}${prefix}`].toString();
-            if namespaceUrl != "" {
-                attributes[string `{${XMLNS_NAMESPACE_URI}}${prefix}`] = namespaceUrl;
-            }
-        }
-        if namespaceUrl == "" {
-            element = xml:createElement(elementName, attributes, children);
-        } else {
-            element = xml:createElement(string `{${namespaceUrl}}${elementName}`, attributes, children);
-        }
-    } else {
-        if !name.startsWith(attributePrefix) {
-            map<string> newAttributes = attributes;
-            if newAttributes.hasKey(string `{${XMLNS_NAMESPACE_URI}}`) {
-                string value = newAttributes.get(string `{${XMLNS_NAMESPACE_URI}}`);
-                _ = newAttributes.remove(string `{${XMLNS_NAMESPACE_URI}}`);
-                newAttributes[XMLNS] = value;
-            }
-            element = xml:createElement(name, newAttributes, children);
-        } else {
-            return error Error("attribute cannot be an object or array");
-        }
-    }
-    return element;
-}
-
-isolated function getAttributesMap(json jTree, JsonOptions options, map<string> namespaces,
-                                    map<string> parentNamespaces = {}) returns map<string>|Error {
-    map<string> attributes = parentNamespaces.clone();
-    map<json>|error attr = jTree.ensureType();
-    string attributePrefix = options.attributePrefix;
-    if attr is map<json> {
-        foreach [string, json] [k, v] in attr.entries() {
-            if k.startsWith(attributePrefix) {
-                if v is map<json> || v is json[] {
-                    return error Error("attribute cannot be an object or array");
-                }
-                int? index = k.indexOf(":");
-                if index is int {
-                    string suffix = k.substring(index + 1);
-                    if k.startsWith(attributePrefix + XMLNS) {
-                        attributes[string `{${XMLNS_NAMESPACE_URI}}${suffix}`] = v.toString();
-                    } else {
-                        int startIndex = getStartIndex(attributePrefix, k);
-                        string prefix = k.substring(startIndex, index);
-                        string namespaceUrl = namespaces.get(string `{${XMLNS_NAMESPACE_URI}}${prefix}`);
-                        attributes[string `{${namespaceUrl}}${suffix}`] = v.toString();
-                    }
-                } else {
-                    if k == attributePrefix + XMLNS {
-                        attributes[XMLNS] = v.toString();
-                    } else {
-                        int startIndex = getStartIndex(attributePrefix, k);
-                        attributes[k.substring(startIndex)] = v.toString();
-                    }
-                }
-            }
-        }
-    }
-    return attributes;
-}
-
-isolated function getStartIndex(string attributePrefix, string key) returns int {
-    int startIndex = 1;
-    if (attributePrefix is ATTRIBUTE_PREFIX) {
-        int? location = key.indexOf("_");
-        if (location is int) {
-            startIndex = location + 1;
-        }
-    }
-    return startIndex;
-}
-
-isolated function getNamespacesMap(json jTree, JsonOptions options, map<string> parentNamespaces = {})
-                            returns map<string>|Error {
-    map<string> namespaces = parentNamespaces.clone();
-    map<json>|error attr = jTree.ensureType();
-    string attributePrefix = options.attributePrefix;
-    if attr is map<json> {
-        foreach [string, json] [k, v] in attr.entries() {
-            if k.startsWith(attributePrefix) {
-                if v is map<json> || v is json[] {
-                    return error Error("attribute cannot be an object or array.");
-                }
-                if k.startsWith(attributePrefix + XMLNS) {
-                    int? index = k.indexOf(":");
-                    if index is int {
-                        string prefix = k.substring(index + 1);
-                        namespaces[string `{${XMLNS_NAMESPACE_URI}}${prefix}`] = v.toString();
-                    } else {
-                        namespaces[string `{${XMLNS_NAMESPACE_URI}}`] = v.toString();
-                    }
-                }
-            }
-        }
-    }
-    return namespaces;
-}
+public isolated function fromJson(json jsonValue, JsonOptions options = {}) returns xml?|Error = @java:Method {
+    'class: "io.ballerina.stdlib.xmldata.JsonToXml"
+} external;
 
-isolated function addNamespaces(map<string> allNamespaces, map<string> namespaces) {
-    foreach [string, string] namespace in namespaces.entries() {
-        allNamespaces[namespace[0]] = namespace[1];
-    }
-}
+# Converts a JSON object to an XML representation as UTF-8 encoded bytes. The XML is written directly to the bytes,
+# so the XML value is not created during the conversion. The same rules as the `xmldata:fromJson` API are used for
+# the conversion.
+# ```ballerina
+# json data = {
+#     name: "John",
+#     age: 30
+# };
+# byte[] xmlBytes = check xmldata:fromJsonToBytes(data);
+# ```
+#
+# + jsonValue - The JSON source to be converted to XML
+# + options - The `xmldata:JsonOptions` record for JSON to XML conversion properties
+# + return - XML representation of the given JSON as bytes if the JSON is
+# successfully converted or else an `xmldata:Error`
+public isolated function fromJsonToBytes(json jsonValue, JsonOptions options = {}) returns byte[]|Error =
+@java:Method {
+    'class: "io.ballerina.stdlib.xmldata.JsonToXml"
+} external;
 
 # Provides configurations for converting XML to JSON.
 #
 # + attributePrefix - Attribute prefix used in the XML
 # + preserveNamespaces - Instructs whether to preserve the namespaces of the XML when converting
+# + includePaths - The paths of the elements to convert, such as `/Envelope/Body/Result`. A `*` matches any element
+#                  name, and a name without a prefix matches the elements with any prefix. When paths are given,
+#                  only the elements at the paths and their descendants are converted, along with the child
+#                  elements of their ancestors on the paths. By default, all the elements are converted
+# + excludePaths - The paths of the elements to skip, along with their descendants. The paths have the same
+#                  form as `includePaths` and take precedence over them
+# + limits - The limits of the XML to convert
 public type XmlOptions record {|
     string attributePrefix = "@";
     boolean preserveNamespaces = true;
+    string[] includePaths = [];
+    string[] excludePaths = [];
+    Limits limits = {};
 |};
 
 # Converts an XML object to its JSON representation.
@@ -367,6 +211,106 @@ public isolated function toJson(xml xmlValue, XmlOptions options = {}) returns j
     'class: "io.ballerina.stdlib.xmldata.XmlToJson"
 } external;
 
+# Creates a view of an XML object as JSON, which converts only the parts of the XML that are read. The values
+# of the view are the same as the corresponding values of the JSON returned by the `xmldata:toJson` API.
+# ```ballerina
+# xml xmlValue = xml `<order><id>1</id><items><item>pen</item><item>ink</item></items></order>`;
+# xmldata:JsonView view = xmldata:toJsonView(xmlValue);
+# json id = check view.get("order", "id");
+# ```
+#
+# + xmlValue - The XML source to be converted to JSON
+# + options - The `xmldata:XmlOptions` record consisting of the configurations for the conversion
+# + return - The view of the given XML
+public isolated function toJsonView(xml xmlValue, XmlOptions options = {}) returns JsonView = @java:Method {
+    'class: "io.ballerina.stdlib.xmldata.JsonView"
+} external;
+
+# A view of an XML object as JSON, which is created by the `xmldata:toJsonView` API. An element is converted to
+# JSON when its value is first read, and the values read are kept, so each element is converted at most once.
+# The values returned are read-only, as they are shared with the later reads of the view.
+public isolated class JsonView {
+
+    # Returns the JSON value at the given path. When each key of the path names a single child element, only the
+    # element at the end of the path is converted.
+    #
+    # + path - The keys of the objects, and the indices of the arrays, from the root of the JSON value
+    # + return - The JSON value at the path, `()` if there is no value at the path, or else an `xmldata:Error`
+    #            if the XML cannot be converted
+    public isolated function get(string... path) returns json|Error = @java:Method {
+        'class: "io.ballerina.stdlib.xmldata.JsonView"
+    } external;
+
+    # Returns the JSON value of the whole XML object.
+    #
+    # + return - The JSON representation of the XML on success, else returns an `xmldata:Error`
+    public isolated function toJson() returns json|Error = @java:Method {
+        'class: "io.ballerina.stdlib.xmldata.JsonView"
+    } external;
+}
+
+# Converts an XML document given as bytes to its JSON representation. The document is read as a stream of
+# events, so the XML value of the document is not created during the conversion. The result is the same as
+# converting the parsed document with the `xmldata:toJson` API.
+# ```ballerina
+# byte[] xmlBytes = "<name>supun</name>".toBytes();
+# json jsonValue = check xmldata:toJsonFromBytes(xmlBytes);
+# ```
+#
+# + xmlBytes - The XML document as a `byte[]` or as a stream of `byte[]` chunks
+# + options - The `xmldata:XmlOptions` record consisting of the configurations for the conversion
+# + return - The JSON representation of the given XML on success, else returns an `xmldata:Error`
+public isolated function toJsonFromBytes(byte[]|stream<byte[], error?> xmlBytes, XmlOptions options = {})
+returns json|Error {
+    if xmlBytes is byte[] {
+        return bytesToJson(xmlBytes, options);
+    }
+    ByteStreamParser parser = check createByteStreamParser(options);
+    while check parseChunks(parser) {
+        record {|byte[] value;|}|error? chunk = xmlBytes.next();
+        if chunk is error {
+            closeByteStreamParser(parser);
+            return error Error("Failed to read the XML byte stream: " + chunk.message(), chunk);
+        }
+        addByteStreamChunk(parser, chunk is () ? () : chunk.value);
+    }
+    closeByteStreamParser(parser);
+    return getByteStreamResult(parser);
+}
+
+isolated function bytesToJson(byte[] xmlBytes, XmlOptions options) returns json|Error = @java:Method {
+    'class: "io.ballerina.stdlib.xmldata.XmlBytesToJson",
+    name: "toJson"
+} external;
+
+# The parser of an XML document given as a stream of byte chunks to the `xmldata:toJsonFromBytes` API. The chunks
+# are parsed as they are read, so only the chunks not parsed yet are kept in memory.
+class ByteStreamParser {
+}
+
+isolated function createByteStreamParser(XmlOptions options) returns ByteStreamParser|Error = @java:Method {
+    'class: "io.ballerina.stdlib.xmldata.XmlBytesToJson"
+} external;
+
+isolated function parseChunks(ByteStreamParser parser) returns boolean|Error = @java:Method {
+    'class: "io.ballerina.stdlib.xmldata.XmlBytesToJson"
+} external;
+
+isolated function addByteStreamChunk(ByteStreamParser parser, byte[]? chunk) = @java:Method {
+    'class: "io.ballerina.stdlib.xmldata.XmlBytesToJson",
+    name: "addChunk"
+} external;
+
+isolated function getByteStreamResult(ByteStreamParser parser) returns json = @java:Method {
+    'class: "io.ballerina.stdlib.xmldata.XmlBytesToJson",
+    name: "getResult"
+} external;
+
+isolated function closeByteStreamParser(ByteStreamParser parser) = @java:Method {
+    'class: "io.ballerina.stdlib.xmldata.XmlBytesToJson",
+    name: "close"
+} external;
+
 # Converts an XML to its Record representation.
 # ```ballerina
 # type Person record {
@@ -396,9 +340,110 @@ returns returnType|Error = @java:Method {
 # + xmlValue - The XML source to be converted to a given target type. If the XML elements have a prefix,
 #              the mapping field names of the record must also have the same prefix.
 # + returnType - The `typedesc` of the returned value. this should be either `map` or `record` type.
+# + ignoreUnknown - Instructs whether to skip the elements which are not declared as fields of the target record
+#                   types, instead of converting them. The skipped elements are not added to open records either
 # + return - The given target type representation of the given XML on success,
 #            else returns an `xmldata:Error`
-public isolated function fromXml(xml xmlValue, typedesc<map<anydata>> returnType = <>)
+public isolated function fromXml(xml xmlValue, typedesc<map<anydata>> returnType = <>, boolean ignoreUnknown = false)
 returns returnType|Error = @java:Method {
     'class: "io.ballerina.stdlib.xmldata.MapFromXml"
 } external;
+
+# Converts each XML value of the given array to its `Map` or `Record` representation, with the same rules as the
+# `xmldata:fromXml` API. The target type is validated once for the whole batch, and a value which fails to convert
+# does not fail the rest of the batch.
+# ```ballerina
+# xml[] messages = [xml `<Person><name>Alex</name></Person>`, xml `<Person><name>Sam</name></Person>`];
+# (Person|xmldata:Error)[] people = check xmldata:fromXmlBatch(messages);
+# ```
+#
+# + xmlValues - The XML sources to be converted to the given target type
+# + parallel - Instructs whether to convert the values in parallel on the conversion pool of the module
+# + returnType - The `typedesc` of the returned values. this should be either `map` or `record` type.
+# + return - The given target type representation or an `xmldata:Error` for each XML value, in the same order,
+#            else returns an `xmldata:Error` if the target type is not valid
+public isolated function fromXmlBatch(xml[] xmlValues, boolean parallel = false,
+        typedesc<map<anydata>> returnType = <>) returns (returnType|Error)[]|Error = @java:Method {
+    'class: "io.ballerina.stdlib.xmldata.MapFromXml"
+} external;
+
+# Converts the elements at the given path of an XML document to records, one element at a time. Only the element
+# being converted is kept in memory, so documents with any number of matching elements can be converted. Each
+# element is converted with the same rules as the `xmldata:fromXml` API, except that the name of the element does
+# not have to match the name of the record type. The source may contain more than one XML document one after the
+# other. The documents are read as UTF-8.
+# ```ballerina
+# stream<Population, xmldata:Error?> populations = check xmldata:fromXmlStream("population.xml", "data/data");
+# ```
+#
+# + source - The path of the XML file, or the XML document as a stream of `byte[]` chunks
+# + elementPath - The names of the elements from the root of the document to the elements to be converted,
+#                 separated by `/`. A name with a prefix matches the elements with the same prefix
+# + returnType - The `typedesc` of the record type to convert the elements to
+# + return - A stream of the records on success, else returns an `xmldata:Error`. A stream which is not read until
+#            the end should be closed, as it is otherwise released only when it is garbage collected
+public isolated function fromXmlStream(stream<byte[], error?>|string 'source, string elementPath,
+        typedesc<record {}> returnType = <>) returns stream<returnType, Error?>|Error = @java:Method {
+    'class: "io.ballerina.stdlib.xmldata.XmlRecordStream"
+} external;
+
+# The iterator of the stream returned by the `xmldata:fromXmlStream` API. The chunks of a byte stream are read
+# only when the parser needs them.
+class RecordStream {
+    private final stream<byte[], error?>? byteStream;
+
+    isolated function init(stream<byte[], error?>? byteStream) {
+        self.byteStream = byteStream;
+    }
+
+    public isolated function next() returns record {|record {} value;|}|Error? {
+        while true {
+            record {}|boolean|Error? result = nextRecord(self);
+            if result is boolean {
+                check self.readChunk();
+            } else if result is record {} {
+                return {value: result};
+            } else {
+                return result;
+            }
+        }
+    }
+
+    public isolated function close() returns Error? {
+        closeRecordStream(self);
+        stream<byte[], error?>? byteStream = self.byteStream;
+        if byteStream !is () {
+            error? result = byteStream.close();
+            if result is error {
+                return error Error("Failed to close the XML byte stream: " + result.message(), result);
+            }
+        }
+    }
+
+    private isolated function readChunk() returns Error? {
+        stream<byte[], error?>? byteStream = self.byteStream;
+        if byteStream is () {
+            return;
+        }
+        record {|byte[] value;|}|error? chunk = byteStream.next();
+        if chunk is error {
+            closeRecordStream(self);
+            return error Error("Failed to read the XML byte stream: " + chunk.message(), chunk);
+        }
+        addChunk(self, chunk is () ? () : chunk.value);
+    }
+}
+
+isolated function nextRecord(RecordStream recordStream) returns record {}|boolean|Error? = @java:Method {
+    'class: "io.ballerina.stdlib.xmldata.XmlRecordStream",
+    name: "next"
+} external;
+
+isolated function addChunk(RecordStream recordStream, byte[]? chunk) = @java:Method {
+    'class: "io.ballerina.stdlib.xmldata.XmlRecordStream"
+} external;
+
+isolated function closeRecordStream(RecordStream recordStream) = @java:Method {
+    'class: "io.ballerina.stdlib.xmldata.XmlRecordStream",
+    name: "close"
+} external;
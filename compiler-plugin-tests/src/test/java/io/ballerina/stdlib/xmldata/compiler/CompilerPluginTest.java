@@ -18,7 +18,11 @@
 
 package io.ballerina.stdlib.xmldata.compiler;
 
+import io.ballerina.projects.CodeModifierResult;
 import io.ballerina.projects.DiagnosticResult;
+import io.ballerina.projects.Document;
+import io.ballerina.projects.DocumentId;
+import io.ballerina.projects.Module;
 import io.ballerina.projects.Package;
 import io.ballerina.projects.ProjectEnvironmentBuilder;
 import io.ballerina.projects.directory.BuildProject;
@@ -158,4 +162,53 @@ public class CompilerPluginTest {
         Assert.assertEquals(errorDiagnosticsList.get(1).diagnosticInfo().messageFormat(),
                 "invalid union type: union type does not support multiple non-primitive record types");
     }
+
+    @Test
+    public void testRecordsDeclaredAfterCallSite() {
+        DiagnosticResult diagnosticResult = loadPackage("sample11").getCompilation().diagnosticResult();
+        List<Diagnostic> errorDiagnosticsList = diagnosticResult.diagnostics().stream()
+                .filter(r -> r.diagnosticInfo().severity().equals(DiagnosticSeverity.ERROR))
+                .collect(Collectors.toList());
+        Assert.assertEquals(errorDiagnosticsList.size(), 3);
+        for (Diagnostic diagnostic : errorDiagnosticsList) {
+            Assert.assertEquals(diagnostic.diagnosticInfo().code(), "XMLDATA_101");
+            Assert.assertEquals(diagnostic.diagnosticInfo().messageFormat(),
+                    "invalid field type: the record field does not support the optional value type");
+        }
+    }
+
+    @Test
+    public void testGeneratedRecordConverters() {
+        CodeModifierResult modifierResult = loadPackage("sample12").runCodeModifierPlugins();
+        Assert.assertTrue(modifierResult.updatedPackage().isPresent());
+        Package updatedPackage = modifierResult.updatedPackage().get();
+        Module module = updatedPackage.getDefaultModule();
+        String mainSource = null;
+        String converterSource = null;
+        for (DocumentId documentId : module.documentIds()) {
+            Document document = module.document(documentId);
+            if (document.name().equals("main.bal")) {
+                mainSource = document.textDocument().toString();
+            } else if (document.name().startsWith("xmldata_converters")) {
+                converterSource = document.textDocument().toString();
+            }
+        }
+        Assert.assertNotNull(mainSource);
+        Assert.assertNotNull(converterSource);
+        Assert.assertTrue(mainSource.contains("Book book = check xmldataGeneratedFromXmlBook(x1);"));
+        Assert.assertTrue(mainSource.contains("Library library = check xmldataGeneratedToRecordLibrary(x2);"));
+        // The record type with an annotation is left to the runtime binder.
+        Assert.assertTrue(mainSource.contains("Invoice invoice = check xmldata:fromXml(x3);"));
+        Assert.assertTrue(converterSource.contains(
+                "isolated function xmldataGeneratedFromXmlBook(xml xmlValue) returns Book|xmldata:Error {"));
+        Assert.assertTrue(converterSource.contains("isolated function xmldataGeneratedBindPublisher(xml content)"));
+        Assert.assertTrue(converterSource.contains("return xmldata:fromXml(xmlValue);"));
+        Assert.assertFalse(converterSource.contains("xmldataGeneratedFromXmlInvoice"));
+
+        List<Diagnostic> errorDiagnosticsList = updatedPackage.getCompilation().diagnosticResult().diagnostics()
+                .stream()
+                .filter(r -> r.diagnosticInfo().severity().equals(DiagnosticSeverity.ERROR))
+                .collect(Collectors.toList());
+        Assert.assertEquals(errorDiagnosticsList.size(), 0);
+    }
 }
@@ -0,0 +1,52 @@
+// Copyright (c) 2023 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/xmldata;
+
+type Book record {
+    string title;
+    int year;
+    decimal price;
+    boolean available;
+    string[] authors;
+    Publisher publisher?;
+};
+
+type Publisher record {
+    string name;
+};
+
+type Library record {
+    Book book;
+};
+
+@xmldata:Namespace {
+    uri: "http://example.com"
+}
+type Invoice record {
+    string id;
+};
+
+public function main() returns error? {
+    xml x1 = xml `<Book><title>Ballerina</title><year>2023</year><price>12.50</price><available>true</available>
+        <authors>Anne</authors><authors>Tom</authors><publisher><name>WSO2</name></publisher></Book>`;
+    Book book = check xmldata:fromXml(x1);
+    xml x2 = xml `<book><title>Ballerina</title><year>2023</year><price>12.50</price><available>false</available>
+        <authors>Anne</authors></book>`;
+    Library library = check xmldata:toRecord(x2);
+    xml x3 = xml `<Invoice xmlns="http://example.com"><id>1</id></Invoice>`;
+    Invoice invoice = check xmldata:fromXml(x3);
+}
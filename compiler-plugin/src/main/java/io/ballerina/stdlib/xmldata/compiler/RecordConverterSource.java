@@ -0,0 +1,390 @@
+/*
+ * Copyright (c) 2023 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.xmldata.compiler;
+
+import io.ballerina.compiler.api.ModuleID;
+import io.ballerina.compiler.api.symbols.ArrayTypeSymbol;
+import io.ballerina.compiler.api.symbols.ModuleSymbol;
+import io.ballerina.compiler.api.symbols.RecordFieldSymbol;
+import io.ballerina.compiler.api.symbols.RecordTypeSymbol;
+import io.ballerina.compiler.api.symbols.Symbol;
+import io.ballerina.compiler.api.symbols.TypeDefinitionSymbol;
+import io.ballerina.compiler.api.symbols.TypeDescKind;
+import io.ballerina.compiler.api.symbols.TypeReferenceTypeSymbol;
+import io.ballerina.compiler.api.symbols.TypeSymbol;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Builds the Ballerina source of the record converters of a module.
+ * <p>
+ * A converter binds the elements of the XML value to the fields of one record type with straight-line code, without
+ * looking up the record type at runtime. It handles the records whose fields are all `string`, `int`, `float`,
+ * `decimal`, `boolean`, a record handled the same way or an open array of these, and which have no annotations. Any
+ * XML value the converter does not bind exactly as the runtime binder does, such as an element with attributes or
+ * namespaces, an unknown or repeated element, or a value which cannot be parsed, is passed to the `xmldata` function
+ * of the call site, so the results and the errors of the call site do not change.
+ *
+ * @since 2.5.0
+ */
+class RecordConverterSource {
+
+    static final String FILE_PREFIX = "xmldata_converters";
+
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z][A-Za-z0-9_]*");
+    private static final String FUNCTION_PREFIX = "xmldataGenerated";
+    private static final String BIND_PREFIX = FUNCTION_PREFIX + "Bind";
+    private static final String ROOT_FUNCTION = FUNCTION_PREFIX + "Root";
+    private static final String TEXT_FUNCTION = FUNCTION_PREFIX + "Text";
+
+    private final String orgName;
+    private final String packageName;
+    private final String moduleName;
+    private final Map<String, Boolean> supportedRecords = new HashMap<>();
+    private final Map<String, RecordTypeSymbol> records = new LinkedHashMap<>();
+    private final Map<String, String[]> converters = new LinkedHashMap<>();
+
+    RecordConverterSource(String orgName, String packageName, String moduleName) {
+        this.orgName = orgName;
+        this.packageName = packageName;
+        this.moduleName = moduleName;
+    }
+
+    /**
+     * Adds the converter of a `toRecord` or `fromXml` call site, and returns the name of the generated function which
+     * replaces the call. Nothing is added if the record type is not handled by the converters.
+     */
+    Optional<String> addConverter(TypeReferenceTypeSymbol typeReference, String functionName) {
+        Optional<String> recordName = getRecordName(typeReference);
+        if (recordName.isEmpty()) {
+            return Optional.empty();
+        }
+        Map<String, RecordTypeSymbol> reachedRecords = new LinkedHashMap<>();
+        if (!collectRecords(typeReference, reachedRecords)) {
+            return Optional.empty();
+        }
+        for (Map.Entry<String, RecordTypeSymbol> entry : reachedRecords.entrySet()) {
+            this.supportedRecords.put(entry.getKey(), true);
+            this.records.putIfAbsent(entry.getKey(), entry.getValue());
+        }
+        String prefix = functionName.equals(XmldataRecordFieldValidator.FROM_XML) ? "FromXml" : "ToRecord";
+        String converterName = FUNCTION_PREFIX + prefix + recordName.get();
+        this.converters.putIfAbsent(converterName, new String[]{functionName, recordName.get()});
+        return Optional.of(converterName);
+    }
+
+    boolean isEmpty() {
+        return this.converters.isEmpty();
+    }
+
+    /**
+     * Collects the record type and the record types of its fields, and returns whether all of them are handled. A
+     * record type reached again through a recursive field is handled if the record types around it are, so it is only
+     * marked as handled once the record type of the call site is.
+     */
+    private boolean collectRecords(TypeReferenceTypeSymbol typeReference, Map<String, RecordTypeSymbol> reached) {
+        Optional<String> recordName = getRecordName(typeReference);
+        if (recordName.isEmpty() || typeReference.typeDescriptor().typeKind() != TypeDescKind.RECORD) {
+            return false;
+        }
+        String name = recordName.get();
+        Boolean supported = this.supportedRecords.get(name);
+        if (supported != null) {
+            return supported;
+        }
+        if (reached.containsKey(name)) {
+            return true;
+        }
+        RecordTypeSymbol recordType = (RecordTypeSymbol) typeReference.typeDescriptor();
+        reached.put(name, recordType);
+        Symbol definition = typeReference.definition();
+        boolean handled = !(definition instanceof TypeDefinitionSymbol) ||
+                ((TypeDefinitionSymbol) definition).annotations().isEmpty();
+        for (Map.Entry<String, RecordFieldSymbol> field : recordType.fieldDescriptors().entrySet()) {
+            if (!handled) {
+                break;
+            }
+            handled = IDENTIFIER.matcher(field.getKey()).matches() && field.getValue().annotations().isEmpty() &&
+                    isHandledType(field.getValue().typeDescriptor(), reached);
+        }
+        if (!handled) {
+            this.supportedRecords.put(name, false);
+        }
+        return handled;
+    }
+
+    private boolean isHandledType(TypeSymbol type, Map<String, RecordTypeSymbol> reached) {
+        if (type instanceof ArrayTypeSymbol) {
+            ArrayTypeSymbol arrayType = (ArrayTypeSymbol) type;
+            TypeSymbol memberType = arrayType.memberTypeDescriptor();
+            return arrayType.size().isEmpty() && !(memberType instanceof ArrayTypeSymbol) &&
+                    isHandledType(memberType, reached);
+        }
+        if (type instanceof TypeReferenceTypeSymbol) {
+            return collectRecords((TypeReferenceTypeSymbol) type, reached);
+        }
+        return getPrimitiveTypeName(type).isPresent();
+    }
+
+    /**
+     * Returns the name of a record type defined in the module of the converters, which the generated source refers to
+     * without a module prefix.
+     */
+    private Optional<String> getRecordName(TypeReferenceTypeSymbol typeReference) {
+        Symbol definition = typeReference.definition();
+        Optional<ModuleSymbol> module = definition.getModule();
+        if (module.isEmpty() || definition.getName().isEmpty()) {
+            return Optional.empty();
+        }
+        ModuleID recordModuleId = module.get().id();
+        if (!recordModuleId.orgName().equals(this.orgName) ||
+                !recordModuleId.packageName().equals(this.packageName) ||
+                !recordModuleId.moduleName().equals(this.moduleName)) {
+            return Optional.empty();
+        }
+        String name = definition.getName().get();
+        return IDENTIFIER.matcher(name).matches() ? Optional.of(name) : Optional.empty();
+    }
+
+    private static Optional<String> getPrimitiveTypeName(TypeSymbol type) {
+        switch (type.typeKind()) {
+            case STRING:
+                return Optional.of("string");
+            case INT:
+                return Optional.of("int");
+            case FLOAT:
+                return Optional.of("float");
+            case DECIMAL:
+                return Optional.of("decimal");
+            case BOOLEAN:
+                return Optional.of("boolean");
+            default:
+                return Optional.empty();
+        }
+    }
+
+    /**
+     * Returns the source of the converters added so far.
+     */
+    String build() {
+        StringBuilder source = new StringBuilder();
+        source.append("// This file is generated by the xmldata compiler plugin.\n\n");
+        source.append("import ballerina/xmldata;\n");
+        for (String[] converter : this.converters.values()) {
+            appendConverter(source, converter[0], converter[1]);
+        }
+        for (Map.Entry<String, RecordTypeSymbol> entry : this.records.entrySet()) {
+            appendBindFunction(source, entry.getKey(), entry.getValue());
+        }
+        source.append("\nisolated function ").append(ROOT_FUNCTION).append("(xml xmlValue) returns xml:Element? {\n");
+        source.append("    xml:Element? root = ();\n");
+        source.append("    foreach xml item in xmlValue {\n");
+        source.append("        if item is xml:Element {\n");
+        source.append("            if root !is () {\n");
+        source.append("                return ();\n");
+        source.append("            }\n");
+        source.append("            root = item;\n");
+        source.append("        } else if item is xml:Text && item.data().trim() != \"\" {\n");
+        source.append("            return ();\n");
+        source.append("        }\n");
+        source.append("    }\n");
+        source.append("    return root;\n");
+        source.append("}\n");
+        source.append("\nisolated function ").append(TEXT_FUNCTION)
+                .append("(xml:Element xmlElement) returns string? {\n");
+        source.append("    if xmlElement.getAttributes().length() > 0 {\n");
+        source.append("        return ();\n");
+        source.append("    }\n");
+        source.append("    string elementText = \"\";\n");
+        source.append("    foreach xml item in xmlElement.getChildren() {\n");
+        source.append("        if item !is xml:Text {\n");
+        source.append("            return ();\n");
+        source.append("        }\n");
+        source.append("        elementText += item.data();\n");
+        source.append("    }\n");
+        source.append("    return elementText.trim();\n");
+        source.append("}\n");
+        return source.toString();
+    }
+
+    /**
+     * Appends the function which replaces a call site. `fromXml` binds the children of the root element named after
+     * the record type, and `toRecord` binds the items of the XML value.
+     */
+    private static void appendConverter(StringBuilder source, String functionName, String recordName) {
+        source.append("\nisolated function ").append(FUNCTION_PREFIX)
+                .append(functionName.equals(XmldataRecordFieldValidator.FROM_XML) ? "FromXml" : "ToRecord")
+                .append(recordName).append("(xml xmlValue) returns ").append(recordName)
+                .append("|xmldata:Error {\n");
+        if (functionName.equals(XmldataRecordFieldValidator.FROM_XML)) {
+            source.append("    xml:Element? root = ").append(ROOT_FUNCTION).append("(xmlValue);\n");
+            source.append("    if root !is () && root.getName() == \"").append(recordName)
+                    .append("\" && root.getAttributes().length() == 0 {\n");
+            source.append("        ").append(recordName).append("? result = ").append(BIND_PREFIX)
+                    .append(recordName).append("(root.getChildren());\n");
+            source.append("        if result !is () {\n");
+            source.append("            return result;\n");
+            source.append("        }\n");
+            source.append("    }\n");
+        } else {
+            source.append("    ").append(recordName).append("? result = ").append(BIND_PREFIX).append(recordName)
+                    .append("(xmlValue);\n");
+            source.append("    if result !is () {\n");
+            source.append("        return result;\n");
+            source.append("    }\n");
+        }
+        source.append("    return xmldata:").append(functionName).append("(xmlValue);\n");
+        source.append("}\n");
+    }
+
+    /**
+     * Appends the function which binds the child elements of a record element, or returns nil if the runtime binder
+     * is needed.
+     */
+    private void appendBindFunction(StringBuilder source, String recordName, RecordTypeSymbol recordType) {
+        List<RecordFieldSymbol> fields = new ArrayList<>(recordType.fieldDescriptors().values());
+        List<String> fieldNames = new ArrayList<>(recordType.fieldDescriptors().keySet());
+        source.append("\nisolated function ").append(BIND_PREFIX).append(recordName)
+                .append("(xml content) returns ").append(recordName).append("? {\n");
+        for (int i = 0; i < fields.size(); i++) {
+            TypeSymbol type = fields.get(i).typeDescriptor();
+            if (type instanceof ArrayTypeSymbol) {
+                source.append("    ").append(getTypeName(((ArrayTypeSymbol) type).memberTypeDescriptor()))
+                        .append("[] f").append(i).append(" = [];\n");
+            } else {
+                source.append("    ").append(getTypeName(type)).append("? f").append(i).append(" = ();\n");
+            }
+        }
+        source.append("    boolean hasElements = false;\n");
+        source.append("    foreach xml item in content {\n");
+        source.append("        if item is xml:Element {\n");
+        source.append("            hasElements = true;\n");
+        if (fields.isEmpty()) {
+            source.append("            return ();\n");
+        } else {
+            source.append("            string name = item.getName();\n");
+            for (int i = 0; i < fields.size(); i++) {
+                source.append(i == 0 ? "            if" : "            } else if").append(" name == \"")
+                        .append(fieldNames.get(i)).append("\" {\n");
+                appendFieldBinding(source, "f" + i, fields.get(i).typeDescriptor());
+            }
+            source.append("            } else {\n");
+            source.append("                return ();\n");
+            source.append("            }\n");
+        }
+        source.append("        } else if item !is xml:Text || item.data().trim() != \"\" {\n");
+        source.append("            return ();\n");
+        source.append("        }\n");
+        source.append("    }\n");
+        source.append("    if !hasElements {\n");
+        source.append("        return ();\n");
+        source.append("    }\n");
+        StringBuilder requiredFields = new StringBuilder();
+        StringBuilder optionalFields = new StringBuilder();
+        for (int i = 0; i < fields.size(); i++) {
+            boolean isArray = fields.get(i).typeDescriptor() instanceof ArrayTypeSymbol;
+            String present = isArray ? "f" + i + ".length() > 0" : "f" + i + " !is ()";
+            if (fields.get(i).isOptional()) {
+                optionalFields.append("    if ").append(present).append(" {\n");
+                optionalFields.append("        result.'").append(fieldNames.get(i)).append(" = f").append(i)
+                        .append(";\n");
+                optionalFields.append("    }\n");
+                continue;
+            }
+            source.append("    if ").append(isArray ? "f" + i + ".length() == 0" : "f" + i + " is ()").append(" {\n");
+            source.append("        return ();\n");
+            source.append("    }\n");
+            requiredFields.append(requiredFields.length() == 0 ? "" : ", ").append("'").append(fieldNames.get(i))
+                    .append(": f").append(i);
+        }
+        source.append("    ").append(recordName).append(" result = {").append(requiredFields).append("};\n");
+        source.append(optionalFields);
+        source.append("    return result;\n");
+        source.append("}\n");
+    }
+
+    /**
+     * Appends the binding of one element to a field variable. A repeated element is bound to an array field only.
+     */
+    private static void appendFieldBinding(StringBuilder source, String variable, TypeSymbol fieldType) {
+        boolean isArray = fieldType instanceof ArrayTypeSymbol;
+        TypeSymbol type = isArray ? ((ArrayTypeSymbol) fieldType).memberTypeDescriptor() : fieldType;
+        String indent = "                ";
+        String assignment = isArray ? variable + ".push(converted);\n" : variable + " = converted;\n";
+        if (type instanceof TypeReferenceTypeSymbol) {
+            String recordName = getTypeName(type);
+            source.append(indent).append("if ").append(isArray ? "" : variable + " !is () || ")
+                    .append("item.getAttributes().length() > 0 {\n");
+            source.append(indent).append("    return ();\n");
+            source.append(indent).append("}\n");
+            source.append(indent).append(recordName).append("? converted = ").append(BIND_PREFIX).append(recordName)
+                    .append("(item.getChildren());\n");
+            source.append(indent).append("if converted is () {\n");
+            source.append(indent).append("    return ();\n");
+            source.append(indent).append("}\n");
+            source.append(indent).append(assignment);
+            return;
+        }
+        if (!isArray) {
+            source.append(indent).append("if ").append(variable).append(" !is () {\n");
+            source.append(indent).append("    return ();\n");
+            source.append(indent).append("}\n");
+        }
+        source.append(indent).append("string? elementText = ").append(TEXT_FUNCTION).append("(item);\n");
+        source.append(indent).append("if elementText is () {\n");
+        source.append(indent).append("    return ();\n");
+        source.append(indent).append("}\n");
+        if (isArray) {
+            // The empty elements of an array are left to the runtime binder.
+            source.append(indent).append("if elementText == \"\" {\n");
+            source.append(indent).append("    return ();\n");
+            source.append(indent).append("}\n");
+        }
+        String typeName = getTypeName(type);
+        switch (typeName) {
+            case "string":
+                source.append(indent).append("string converted = elementText;\n");
+                break;
+            case "boolean":
+                source.append(indent).append("boolean converted = elementText.toLowerAscii() == \"true\";\n");
+                break;
+            default:
+                source.append(indent).append(typeName).append("|error converted = ").append(typeName)
+                        .append(":fromString(elementText);\n");
+                source.append(indent).append("if converted is error {\n");
+                source.append(indent).append("    return ();\n");
+                source.append(indent).append("}\n");
+                break;
+        }
+        source.append(indent).append(assignment);
+    }
+
+    private static String getTypeName(TypeSymbol type) {
+        if (type instanceof TypeReferenceTypeSymbol) {
+            return ((TypeReferenceTypeSymbol) type).definition().getName().orElseThrow();
+        }
+        return getPrimitiveTypeName(type).orElseThrow();
+    }
+}
@@ -28,5 +28,6 @@ public class XmldataCompilerPlugin extends CompilerPlugin {
     @Override
     public void init(CompilerPluginContext compilerPluginContext) {
         compilerPluginContext.addCodeAnalyzer(new XmldataCodeAnalyzer());
+        compilerPluginContext.addCodeModifier(new XmldataCodeModifier());
     }
 }
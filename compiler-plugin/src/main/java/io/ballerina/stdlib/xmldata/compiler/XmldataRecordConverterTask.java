@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) 2023 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.xmldata.compiler;
+
+import io.ballerina.compiler.api.SemanticModel;
+import io.ballerina.compiler.syntax.tree.ExpressionNode;
+import io.ballerina.compiler.syntax.tree.FunctionCallExpressionNode;
+import io.ballerina.compiler.syntax.tree.IdentifierToken;
+import io.ballerina.compiler.syntax.tree.ImportDeclarationNode;
+import io.ballerina.compiler.syntax.tree.ImportPrefixNode;
+import io.ballerina.compiler.syntax.tree.ModulePartNode;
+import io.ballerina.compiler.syntax.tree.ModuleVariableDeclarationNode;
+import io.ballerina.compiler.syntax.tree.NameReferenceNode;
+import io.ballerina.compiler.syntax.tree.NodeFactory;
+import io.ballerina.compiler.syntax.tree.NodeVisitor;
+import io.ballerina.compiler.syntax.tree.PositionalArgumentNode;
+import io.ballerina.compiler.syntax.tree.QualifiedNameReferenceNode;
+import io.ballerina.compiler.syntax.tree.SyntaxKind;
+import io.ballerina.compiler.syntax.tree.SyntaxTree;
+import io.ballerina.compiler.syntax.tree.Token;
+import io.ballerina.compiler.syntax.tree.TreeModifier;
+import io.ballerina.compiler.syntax.tree.TypedBindingPatternNode;
+import io.ballerina.compiler.syntax.tree.VariableDeclarationNode;
+import io.ballerina.projects.DocumentId;
+import io.ballerina.projects.Module;
+import io.ballerina.projects.ModuleId;
+import io.ballerina.projects.plugins.ModifierTask;
+import io.ballerina.projects.plugins.SourceModifierContext;
+import io.ballerina.tools.diagnostics.Diagnostic;
+import io.ballerina.tools.diagnostics.DiagnosticSeverity;
+import io.ballerina.tools.text.TextDocuments;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Replaces the `toRecord` and `fromXml` call sites with generated record converters.
+ * <p>
+ * The call sites are resolved the same way as in {@link XmldataRecordFieldValidator}. A call with only the XML value
+ * as its argument, assigned to a variable of a record type of the same module which {@link RecordConverterSource}
+ * handles, is replaced with a call to the converter of the record type. The converters of a module are added to the
+ * module as one source file, and they call the replaced `xmldata` function for the values they do not bind. The
+ * modules with compilation errors are not modified.
+ *
+ * @since 2.5.0
+ */
+public class XmldataRecordConverterTask implements ModifierTask<SourceModifierContext> {
+
+    @Override
+    public void modify(SourceModifierContext ctx) {
+        for (ModuleId moduleId : ctx.currentPackage().moduleIds()) {
+            Module module = ctx.currentPackage().module(moduleId);
+            SemanticModel semanticModel = ctx.compilation().getSemanticModel(moduleId);
+            if (hasErrors(semanticModel)) {
+                continue;
+            }
+            RecordConverterSource converterSource = new RecordConverterSource(
+                    module.descriptor().org().value(), module.descriptor().packageName().value(),
+                    module.descriptor().name().toString());
+            for (DocumentId documentId : module.documentIds()) {
+                SyntaxTree syntaxTree = module.document(documentId).syntaxTree();
+                CallSiteCollector collector = new CallSiteCollector(semanticModel, converterSource);
+                syntaxTree.rootNode().accept(collector);
+                if (collector.converters.isEmpty()) {
+                    continue;
+                }
+                ModulePartNode rootNode = new CallSiteModifier(collector.converters).transform(syntaxTree.rootNode());
+                rootNode = ignoreUnusedImports(rootNode, collector.modulePrefixes);
+                ctx.modifySourceFile(syntaxTree.modifyWith(rootNode).textDocument(), documentId);
+            }
+            if (!converterSource.isEmpty()) {
+                ctx.addSourceFile(TextDocuments.from(converterSource.build()), RecordConverterSource.FILE_PREFIX,
+                        moduleId);
+            }
+        }
+    }
+
+    private static boolean hasErrors(SemanticModel semanticModel) {
+        for (Diagnostic diagnostic : semanticModel.diagnostics()) {
+            if (diagnostic.diagnosticInfo().severity() == DiagnosticSeverity.ERROR) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Changes the prefix of an `xmldata` import which is no longer used after the call sites are replaced to `_`, as
+     * an unused import is an error. The import is kept so that the lines of the source file do not change.
+     */
+    private static ModulePartNode ignoreUnusedImports(ModulePartNode rootNode, Set<String> modulePrefixes) {
+        PrefixCollector prefixCollector = new PrefixCollector();
+        rootNode.accept(prefixCollector);
+        List<ImportDeclarationNode> imports = new ArrayList<>();
+        boolean modified = false;
+        for (ImportDeclarationNode importNode : rootNode.imports()) {
+            Optional<String> prefix = getXmldataPrefix(importNode);
+            if (prefix.isEmpty() || !modulePrefixes.contains(prefix.get()) ||
+                    prefixCollector.usedPrefixes.contains(prefix.get())) {
+                imports.add(importNode);
+                continue;
+            }
+            Token underscore = NodeFactory.createToken(SyntaxKind.UNDERSCORE_KEYWORD);
+            ImportPrefixNode prefixNode = importNode.prefix().isPresent() ?
+                    importNode.prefix().get().modify().withPrefix(underscore).apply() :
+                    NodeFactory.createImportPrefixNode(NodeFactory.createToken(SyntaxKind.AS_KEYWORD,
+                            NodeFactory.createMinutiaeList(NodeFactory.createWhitespaceMinutiae(" ")),
+                            NodeFactory.createMinutiaeList(NodeFactory.createWhitespaceMinutiae(" "))), underscore);
+            imports.add(importNode.modify().withPrefix(prefixNode).apply());
+            modified = true;
+        }
+        if (!modified) {
+            return rootNode;
+        }
+        return rootNode.modify().withImports(NodeFactory.createNodeList(imports)).apply();
+    }
+
+    /**
+     * Returns the prefix of an import of the `ballerina/xmldata` module.
+     */
+    private static Optional<String> getXmldataPrefix(ImportDeclarationNode importNode) {
+        if (importNode.orgName().isEmpty() || importNode.moduleName().size() != 1 ||
+                !importNode.orgName().get().orgName().text().equals(XmldataRecordFieldValidator.BALLERINA_ORG) ||
+                !importNode.moduleName().get(0).text().equals(XmldataRecordFieldValidator.XMLDATA_MODULE)) {
+            return Optional.empty();
+        }
+        if (importNode.prefix().isPresent()) {
+            return Optional.of(importNode.prefix().get().prefix().text());
+        }
+        return Optional.of(XmldataRecordFieldValidator.XMLDATA_MODULE);
+    }
+
+    /**
+     * Collects the call sites of a source file which are replaced with converters, by the start offset of the call.
+     */
+    private static class CallSiteCollector extends NodeVisitor {
+
+        private final SemanticModel semanticModel;
+        private final RecordConverterSource converterSource;
+        private final Map<Integer, String> converters = new HashMap<>();
+        private final Set<String> modulePrefixes = new HashSet<>();
+
+        CallSiteCollector(SemanticModel semanticModel, RecordConverterSource converterSource) {
+            this.semanticModel = semanticModel;
+            this.converterSource = converterSource;
+        }
+
+        @Override
+        public void visit(VariableDeclarationNode variableDeclarationNode) {
+            variableDeclarationNode.initializer().ifPresent(
+                    initializer -> collect(initializer, variableDeclarationNode.typedBindingPattern()));
+            visitSyntaxNode(variableDeclarationNode);
+        }
+
+        @Override
+        public void visit(ModuleVariableDeclarationNode moduleVariableDeclarationNode) {
+            moduleVariableDeclarationNode.initializer().ifPresent(
+                    initializer -> collect(initializer, moduleVariableDeclarationNode.typedBindingPattern()));
+            visitSyntaxNode(moduleVariableDeclarationNode);
+        }
+
+        private void collect(ExpressionNode initializer, TypedBindingPatternNode typedBindingPatternNode) {
+            Optional<String> functionName = XmldataRecordFieldValidator.getXmldataFunctionName(this.semanticModel,
+                    initializer);
+            Optional<FunctionCallExpressionNode> functionCall = XmldataRecordFieldValidator.getFunctionCall(
+                    initializer);
+            if (functionName.isEmpty() || functionCall.isEmpty() ||
+                    !(functionCall.get().functionName() instanceof QualifiedNameReferenceNode) ||
+                    functionCall.get().arguments().size() != 1 ||
+                    !(functionCall.get().arguments().get(0) instanceof PositionalArgumentNode)) {
+                return;
+            }
+            Optional<String> converter = XmldataRecordFieldValidator.getVariableType(this.semanticModel,
+                    typedBindingPatternNode).flatMap(
+                    typeReference -> this.converterSource.addConverter(typeReference, functionName.get()));
+            if (converter.isPresent()) {
+                this.converters.put(functionCall.get().textRange().startOffset(), converter.get());
+                this.modulePrefixes.add(
+                        ((QualifiedNameReferenceNode) functionCall.get().functionName()).modulePrefix().text());
+            }
+        }
+    }
+
+    /**
+     * Replaces the name of the function of the collected call sites, keeping the arguments.
+     */
+    private static class CallSiteModifier extends TreeModifier {
+
+        private final Map<Integer, String> converters;
+
+        CallSiteModifier(Map<Integer, String> converters) {
+            this.converters = converters;
+        }
+
+        @Override
+        public FunctionCallExpressionNode transform(FunctionCallExpressionNode functionCallExpressionNode) {
+            String converter = this.converters.get(functionCallExpressionNode.textRange().startOffset());
+            if (converter == null) {
+                return super.transform(functionCallExpressionNode);
+            }
+            NameReferenceNode functionName = functionCallExpressionNode.functionName();
+            IdentifierToken converterName = NodeFactory.createIdentifierToken(converter,
+                    functionName.leadingMinutiae(), functionName.trailingMinutiae());
+            return functionCallExpressionNode.modify()
+                    .withFunctionName(NodeFactory.createSimpleNameReferenceNode(converterName)).apply();
+        }
+    }
+
+    /**
+     * Collects the module prefixes which are still used in a source file.
+     */
+    private static class PrefixCollector extends NodeVisitor {
+
+        private final Set<String> usedPrefixes = new HashSet<>();
+
+        @Override
+        public void visit(QualifiedNameReferenceNode qualifiedNameReferenceNode) {
+            this.usedPrefixes.add(qualifiedNameReferenceNode.modulePrefix().text());
+        }
+    }
+}
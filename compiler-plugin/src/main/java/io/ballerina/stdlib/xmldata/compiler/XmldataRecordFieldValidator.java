@@ -17,150 +17,245 @@
  */
 package io.ballerina.stdlib.xmldata.compiler;
 
+import io.ballerina.compiler.api.ModuleID;
+import io.ballerina.compiler.api.SemanticModel;
 import io.ballerina.compiler.api.symbols.ArrayTypeSymbol;
-import io.ballerina.compiler.api.symbols.NilTypeSymbol;
+import io.ballerina.compiler.api.symbols.FunctionSymbol;
+import io.ballerina.compiler.api.symbols.ModuleSymbol;
 import io.ballerina.compiler.api.symbols.RecordFieldSymbol;
+import io.ballerina.compiler.api.symbols.RecordTypeSymbol;
 import io.ballerina.compiler.api.symbols.Symbol;
+import io.ballerina.compiler.api.symbols.TypeDescKind;
 import io.ballerina.compiler.api.symbols.TypeReferenceTypeSymbol;
 import io.ballerina.compiler.api.symbols.TypeSymbol;
 import io.ballerina.compiler.api.symbols.UnionTypeSymbol;
+import io.ballerina.compiler.api.symbols.VariableSymbol;
+import io.ballerina.compiler.syntax.tree.CheckExpressionNode;
 import io.ballerina.compiler.syntax.tree.ExpressionNode;
+import io.ballerina.compiler.syntax.tree.FunctionCallExpressionNode;
 import io.ballerina.compiler.syntax.tree.ModuleVariableDeclarationNode;
 import io.ballerina.compiler.syntax.tree.Node;
-import io.ballerina.compiler.syntax.tree.RecordFieldNode;
 import io.ballerina.compiler.syntax.tree.TypedBindingPatternNode;
 import io.ballerina.compiler.syntax.tree.VariableDeclarationNode;
+import io.ballerina.projects.ModuleId;
+import io.ballerina.projects.Package;
 import io.ballerina.projects.plugins.AnalysisTask;
 import io.ballerina.projects.plugins.SyntaxNodeAnalysisContext;
 import io.ballerina.tools.diagnostics.Diagnostic;
 import io.ballerina.tools.diagnostics.DiagnosticFactory;
 import io.ballerina.tools.diagnostics.DiagnosticInfo;
 import io.ballerina.tools.diagnostics.DiagnosticSeverity;
+import io.ballerina.tools.diagnostics.Location;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Xmldata record field analyzer.
+ * <p>
+ * The `toRecord` and `fromXml` call sites are resolved through the semantic model, and the record types they convert
+ * to are validated from their symbols. Each record type is validated once, the first time it is reached from a call
+ * site, so the cost of the analysis grows with the number of call sites and record types rather than their product.
+ * The validated record types are kept in a concurrent set, as the task may be performed for several nodes at once.
  */
 public class XmldataRecordFieldValidator implements AnalysisTask<SyntaxNodeAnalysisContext> {
 
-    private final List<SyntaxNodeAnalysisContext> nodes = new ArrayList<>();
-    private final List<SyntaxNodeAnalysisContext> validatedNodes = new ArrayList<>();
-    private static final String TO_RECORD = "xmldata:toRecord";
-    private static final String FROM_XML = "xmldata:fromXml";
+    static final String BALLERINA_ORG = "ballerina";
+    static final String XMLDATA_MODULE = "xmldata";
+    static final String TO_RECORD = "toRecord";
+    static final String FROM_XML = "fromXml";
+
+    private final Set<String> validatedRecords = ConcurrentHashMap.newKeySet();
+    private final Map<ModuleId, Boolean> modulesWithErrors = new ConcurrentHashMap<>();
 
     @Override
     public void perform(SyntaxNodeAnalysisContext ctx) {
-        List<Diagnostic> diagnostics = ctx.semanticModel().diagnostics();
-        for (Diagnostic diagnostic : diagnostics) {
-            if (diagnostic.diagnosticInfo().severity() == DiagnosticSeverity.ERROR) {
-                return;
-            }
+        Node node = ctx.node();
+        Optional<ExpressionNode> initializer;
+        TypedBindingPatternNode typedBindingPatternNode;
+        if (node instanceof VariableDeclarationNode) {
+            VariableDeclarationNode variableDeclarationNode = (VariableDeclarationNode) node;
+            initializer = variableDeclarationNode.initializer();
+            typedBindingPatternNode = variableDeclarationNode.typedBindingPattern();
+        } else if (node instanceof ModuleVariableDeclarationNode) {
+            ModuleVariableDeclarationNode moduleVariableDeclarationNode = (ModuleVariableDeclarationNode) node;
+            initializer = moduleVariableDeclarationNode.initializer();
+            typedBindingPatternNode = moduleVariableDeclarationNode.typedBindingPattern();
+        } else {
+            return;
+        }
+        if (initializer.isEmpty()) {
+            return;
         }
+        SemanticModel semanticModel = ctx.semanticModel();
+        Optional<String> functionName = getXmldataFunctionName(semanticModel, initializer.get());
+        if (functionName.isEmpty() || hasErrors(ctx)) {
+            return;
+        }
+        getVariableType(semanticModel, typedBindingPatternNode).ifPresent(
+                typeReference -> checkRecordField(typeReference, ctx, functionName.get()));
+    }
 
-        Node node = ctx.node();
-        if (node instanceof RecordFieldNode) {
-            this.nodes.add(ctx);
+    /**
+     * Returns the function call of the initializer, without the `check` expressions around it.
+     */
+    static Optional<FunctionCallExpressionNode> getFunctionCall(ExpressionNode expression) {
+        while (expression instanceof CheckExpressionNode) {
+            expression = ((CheckExpressionNode) expression).expression();
+        }
+        if (!(expression instanceof FunctionCallExpressionNode)) {
+            return Optional.empty();
         }
+        return Optional.of((FunctionCallExpressionNode) expression);
+    }
 
-        if (node instanceof VariableDeclarationNode) {
-            VariableDeclarationNode variableDeclarationNode = (VariableDeclarationNode) node;
-            Optional<ExpressionNode> initializer = variableDeclarationNode.initializer();
-            if (!initializer.isEmpty()) {
-                ExpressionNode expressionNode = initializer.get();
-                String functionName = expressionNode.toString();
-                if (functionName.contains(TO_RECORD) || functionName.contains(FROM_XML)) {
-                    TypedBindingPatternNode typedBindingPatternNode = variableDeclarationNode.typedBindingPattern();
-                    checkRecordField(typedBindingPatternNode.typeDescriptor().toString(), ctx, functionName);
+    /**
+     * Returns the name of the `xmldata` function called by the initializer, if it is `toRecord` or `fromXml`.
+     */
+    static Optional<String> getXmldataFunctionName(SemanticModel semanticModel, ExpressionNode expression) {
+        Optional<FunctionCallExpressionNode> functionCall = getFunctionCall(expression);
+        if (functionCall.isEmpty()) {
+            return Optional.empty();
+        }
+        Optional<Symbol> symbol = semanticModel.symbol(functionCall.get().functionName());
+        if (symbol.isEmpty() || !(symbol.get() instanceof FunctionSymbol) || symbol.get().getName().isEmpty()) {
+            return Optional.empty();
+        }
+        Optional<ModuleSymbol> module = symbol.get().getModule();
+        if (module.isEmpty()) {
+            return Optional.empty();
+        }
+        ModuleID moduleId = module.get().id();
+        String functionName = symbol.get().getName().get();
+        if (!moduleId.orgName().equals(BALLERINA_ORG) || !moduleId.moduleName().equals(XMLDATA_MODULE) ||
+                !(functionName.equals(TO_RECORD) || functionName.equals(FROM_XML))) {
+            return Optional.empty();
+        }
+        return Optional.of(functionName);
+    }
+
+    /**
+     * Returns the declared type of the variable, if it is a reference to a named type.
+     */
+    static Optional<TypeReferenceTypeSymbol> getVariableType(SemanticModel semanticModel,
+                                                             TypedBindingPatternNode typedBindingPatternNode) {
+        Optional<Symbol> variableSymbol = semanticModel.symbol(typedBindingPatternNode.bindingPattern());
+        if (variableSymbol.isEmpty() || !(variableSymbol.get() instanceof VariableSymbol)) {
+            return Optional.empty();
+        }
+        TypeSymbol typeSymbol = ((VariableSymbol) variableSymbol.get()).typeDescriptor();
+        if (!(typeSymbol instanceof TypeReferenceTypeSymbol)) {
+            return Optional.empty();
+        }
+        return Optional.of((TypeReferenceTypeSymbol) typeSymbol);
+    }
+
+    /**
+     * Whether the module of the node has compilation errors, in which case the call sites are not validated. The
+     * diagnostics of a module are read once.
+     */
+    private boolean hasErrors(SyntaxNodeAnalysisContext ctx) {
+        return modulesWithErrors.computeIfAbsent(ctx.moduleId(), moduleId -> {
+            for (Diagnostic diagnostic : ctx.semanticModel().diagnostics()) {
+                if (diagnostic.diagnosticInfo().severity() == DiagnosticSeverity.ERROR) {
+                    return true;
                 }
             }
+            return false;
+        });
+    }
+
+    private void checkRecordField(TypeReferenceTypeSymbol typeReference, SyntaxNodeAnalysisContext ctx,
+                                  String functionName) {
+        TypeSymbol referredType = typeReference.typeDescriptor();
+        if (referredType.typeKind() != TypeDescKind.RECORD) {
+            return;
         }
-        if (node instanceof ModuleVariableDeclarationNode) {
-            ModuleVariableDeclarationNode moduleVariableDeclarationNode = (ModuleVariableDeclarationNode) node;
-            Optional<ExpressionNode> initializer = moduleVariableDeclarationNode.initializer();
-            if (!initializer.isEmpty()) {
-                ExpressionNode expressionNode = initializer.get();
-                String functionName = expressionNode.toString();
-                if (functionName.contains(TO_RECORD) || functionName.contains(FROM_XML)) {
-                    TypedBindingPatternNode typedBindingPatternNode =
-                            moduleVariableDeclarationNode.typedBindingPattern();
-                    checkRecordField(typedBindingPatternNode.typeDescriptor().toString(), ctx, functionName);
+        Optional<String> recordKey = getRecordKey(typeReference, ctx.currentPackage());
+        // The record type is marked before its fields are validated, so the recursive record types end here.
+        if (recordKey.isEmpty() || !this.validatedRecords.add(recordKey.get())) {
+            return;
+        }
+        for (RecordFieldSymbol fieldSymbol : ((RecordTypeSymbol) referredType).fieldDescriptors().values()) {
+            Optional<Location> location = fieldSymbol.getLocation();
+            if (location.isEmpty()) {
+                continue;
+            }
+            TypeSymbol typeSymbol = fieldSymbol.typeDescriptor();
+            if (typeSymbol instanceof UnionTypeSymbol) {
+                List<TypeSymbol> typeSymbols = ((UnionTypeSymbol) typeSymbol).memberTypeDescriptors();
+                for (TypeSymbol symbol : typeSymbols) {
+                    validateType(ctx, location.get(), symbol, functionName);
                 }
+                if (functionName.equals(FROM_XML)) {
+                    validateUnionType(ctx, typeSymbols, location.get(), functionName);
+                }
+            } else {
+                validateType(ctx, location.get(), typeSymbol, functionName);
             }
         }
     }
 
-    private void checkRecordField(String recordName, SyntaxNodeAnalysisContext ctx, String functionName) {
-        for (SyntaxNodeAnalysisContext syntaxNodeAnalysisContext: this.nodes) {
-            if (!this.validatedNodes.contains(syntaxNodeAnalysisContext)) {
-                RecordFieldNode recordFieldNode = ((RecordFieldNode) syntaxNodeAnalysisContext.node());
-                String recordNameOfField = recordFieldNode.parent().parent().children().get(1).toString().trim();
-                if (recordNameOfField.equals(recordName.trim())) {
-                    this.validatedNodes.add(syntaxNodeAnalysisContext);
-                    Optional<Symbol> varSymOptional = syntaxNodeAnalysisContext.semanticModel().
-                            symbol(syntaxNodeAnalysisContext.node());
-                    if (varSymOptional.isPresent()) {
-                        TypeSymbol typeSymbol = ((RecordFieldSymbol) varSymOptional.get()).typeDescriptor();
-                        if (typeSymbol instanceof UnionTypeSymbol) {
-                            List<TypeSymbol> typeSymbols = ((UnionTypeSymbol) typeSymbol).memberTypeDescriptors();
-                            for (TypeSymbol symbol : typeSymbols) {
-                                validateType(ctx, recordFieldNode, symbol, functionName);
-                            }
-                            if (functionName.contains(FROM_XML))  {
-                                validateUnionType(ctx, typeSymbols, recordFieldNode, functionName);
-                            }
-                        } else {
-                            validateType(ctx, recordFieldNode, typeSymbol, functionName);
-                        }
-                    }
-                }
-            }
+    /**
+     * Returns the key of a record type defined in the current package, which is unique as the type definitions of a
+     * module have unique names. The record types of the other packages are not validated.
+     */
+    private static Optional<String> getRecordKey(TypeReferenceTypeSymbol typeReference, Package currentPackage) {
+        Symbol definition = typeReference.definition();
+        Optional<ModuleSymbol> module = definition.getModule();
+        if (module.isEmpty() || definition.getName().isEmpty()) {
+            return Optional.empty();
+        }
+        ModuleID moduleId = module.get().id();
+        if (!moduleId.orgName().equals(currentPackage.packageOrg().value()) ||
+                !moduleId.packageName().equals(currentPackage.packageName().value())) {
+            return Optional.empty();
         }
+        return Optional.of(moduleId.moduleName() + ":" + definition.getName().get());
     }
 
-    private void validateType(SyntaxNodeAnalysisContext ctx, RecordFieldNode recordFieldNode, TypeSymbol typeSymbol,
+    private void validateType(SyntaxNodeAnalysisContext ctx, Location location, TypeSymbol typeSymbol,
                               String functionName) {
-        if (typeSymbol instanceof NilTypeSymbol) {
-            reportDiagnosticInfo(ctx, recordFieldNode);
+        if (typeSymbol.typeKind() == TypeDescKind.NIL) {
+            reportDiagnosticInfo(ctx, location);
         } else if (typeSymbol instanceof TypeReferenceTypeSymbol) {
-            checkRecordField(typeSymbol.getName().get(), ctx, functionName);
+            checkRecordField((TypeReferenceTypeSymbol) typeSymbol, ctx, functionName);
         } else if (typeSymbol instanceof ArrayTypeSymbol) {
             TypeSymbol arrayTypeSymbol = ((ArrayTypeSymbol) typeSymbol).memberTypeDescriptor();
             if (arrayTypeSymbol instanceof TypeReferenceTypeSymbol) {
-                checkRecordField(arrayTypeSymbol.getName().get(), ctx, functionName);
+                checkRecordField((TypeReferenceTypeSymbol) arrayTypeSymbol, ctx, functionName);
             }
         }
     }
 
-    private void validateUnionType(SyntaxNodeAnalysisContext ctx, List<TypeSymbol> typeSymbols,
-                                   RecordFieldNode recordFieldNode, String functionName) {
+    private void validateUnionType(SyntaxNodeAnalysisContext ctx, List<TypeSymbol> typeSymbols, Location location,
+                                   String functionName) {
         int noOfNonPrimitiveType = 0;
         for (TypeSymbol typeSymbol : typeSymbols) {
             if (typeSymbol instanceof TypeReferenceTypeSymbol) {
                 noOfNonPrimitiveType += 1;
-                checkRecordField(typeSymbol.getName().get(), ctx, functionName);
+                checkRecordField((TypeReferenceTypeSymbol) typeSymbol, ctx, functionName);
             } else if (typeSymbol instanceof ArrayTypeSymbol) {
                 TypeSymbol arrayTypeSymbol = ((ArrayTypeSymbol) typeSymbol).memberTypeDescriptor();
                 if (arrayTypeSymbol instanceof TypeReferenceTypeSymbol) {
                     noOfNonPrimitiveType += 1;
-                    checkRecordField(arrayTypeSymbol.getName().get(), ctx, functionName);
+                    checkRecordField((TypeReferenceTypeSymbol) arrayTypeSymbol, ctx, functionName);
                 }
             }
         }
         if (noOfNonPrimitiveType > 1)  {
             DiagnosticInfo diagnosticInfo = new DiagnosticInfo(DiagnosticsCodes.XMLDATA_102.getCode(),
                     DiagnosticsCodes.XMLDATA_102.getMessage(), DiagnosticsCodes.XMLDATA_102.getSeverity());
-            ctx.reportDiagnostic(
-                    DiagnosticFactory.createDiagnostic(diagnosticInfo, recordFieldNode.location()));
+            ctx.reportDiagnostic(DiagnosticFactory.createDiagnostic(diagnosticInfo, location));
         }
     }
 
-    private void reportDiagnosticInfo(SyntaxNodeAnalysisContext ctx, RecordFieldNode recordFieldNode) {
+    private void reportDiagnosticInfo(SyntaxNodeAnalysisContext ctx, Location location) {
         DiagnosticInfo diagnosticInfo = new DiagnosticInfo(DiagnosticsCodes.XMLDATA_101.getCode(),
                 DiagnosticsCodes.XMLDATA_101.getMessage(), DiagnosticsCodes.XMLDATA_101.getSeverity());
-        ctx.reportDiagnostic(
-                DiagnosticFactory.createDiagnostic(diagnosticInfo, recordFieldNode.location()));
+        ctx.reportDiagnostic(DiagnosticFactory.createDiagnostic(diagnosticInfo, location));
     }
 }
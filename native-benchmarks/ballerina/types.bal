@@ -0,0 +1,86 @@
+// Copyright (c) 2023 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+// The record types of the documents converted by the native benchmarks. They are compiled as a Ballerina module, so
+// that the runtime creates their values in the same way as for the record types of any Ballerina program.
+
+type Order record {
+    int id;
+    string customer;
+    decimal total;
+    boolean paid;
+};
+
+type OrderDocument record {
+    Order Order;
+};
+
+type Item record {
+    string name;
+    int quantity;
+    float price;
+};
+
+type Catalog record {
+    Item[] item;
+};
+
+type CatalogDocument record {
+    Catalog Catalog;
+};
+
+type Level0 record {
+    int value;
+    Level child;
+};
+
+type Level record {
+    int value;
+    Level child?;
+};
+
+type Level0Document record {
+    Level0 Level0;
+};
+
+type Product record {
+    string name;
+};
+
+type Products record {
+    Product[] product;
+};
+
+type ProductsDocument record {
+    Products Products;
+};
+
+type Entry record {
+    string ns1\:title;
+    string ns2\:updated;
+};
+
+type Feed record {
+    Entry[] ns1\:entry;
+};
+
+type FeedDocument record {
+    Feed ns0\:Feed;
+};
+
+# Initializes the module, which makes its record types available to the benchmarks.
+public function main() {
+}
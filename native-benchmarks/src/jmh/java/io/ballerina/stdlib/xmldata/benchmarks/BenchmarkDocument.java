@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2023 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.xmldata.benchmarks;
+
+import io.ballerina.runtime.api.types.RecordType;
+
+/**
+ * The shapes of the documents converted by the benchmarks. Each document is generated, so the benchmarks do not
+ * read any files, and is converted to the record type of its root element in the benchmark module.
+ *
+ * @since 2.5.0
+ */
+public enum BenchmarkDocument {
+
+    /**
+     * An element with a few fields of different types.
+     */
+    SMALL {
+        @Override
+        String createXml() {
+            return "<Order><id>1001</id><customer>Anne</customer><total>12.50</total><paid>true</paid></Order>";
+        }
+
+        @Override
+        RecordType createRecordType() {
+            return BenchmarkModule.getRecordType("Order");
+        }
+    },
+
+    /**
+     * An element with many repeated child elements.
+     */
+    WIDE {
+        @Override
+        String createXml() {
+            StringBuilder xml = new StringBuilder("<Catalog>");
+            for (int i = 0; i < WIDE_ITEMS; i++) {
+                xml.append("<item><name>item-").append(i).append("</name><quantity>").append(i)
+                        .append("</quantity><price>").append(i).append(".25</price></item>");
+            }
+            return xml.append("</Catalog>").toString();
+        }
+
+        @Override
+        RecordType createRecordType() {
+            return BenchmarkModule.getRecordType("Catalog");
+        }
+    },
+
+    /**
+     * Elements nested within each other.
+     */
+    DEEP {
+        @Override
+        String createXml() {
+            StringBuilder xml = new StringBuilder("<Level0><value>0</value>");
+            for (int i = 1; i < DEPTH; i++) {
+                xml.append("<child><value>").append(i).append("</value>");
+            }
+            for (int i = 1; i < DEPTH; i++) {
+                xml.append("</child>");
+            }
+            return xml.append("</Level0>").toString();
+        }
+
+        @Override
+        RecordType createRecordType() {
+            return BenchmarkModule.getRecordType("Level0");
+        }
+    },
+
+    /**
+     * Repeated elements with many attributes each.
+     */
+    ATTRIBUTES {
+        @Override
+        String createXml() {
+            StringBuilder xml = new StringBuilder("<Products>");
+            for (int i = 0; i < REPEATED_ELEMENTS; i++) {
+                xml.append("<product");
+                for (int j = 0; j < ATTRIBUTES_PER_ELEMENT; j++) {
+                    xml.append(" attribute").append(j).append("=\"value-").append(i).append('"');
+                }
+                xml.append("><name>product-").append(i).append("</name></product>");
+            }
+            return xml.append("</Products>").toString();
+        }
+
+        @Override
+        RecordType createRecordType() {
+            return BenchmarkModule.getRecordType("Products");
+        }
+    },
+
+    /**
+     * Repeated elements in different namespaces, each declaring a namespace of its own.
+     */
+    NAMESPACES {
+        @Override
+        String createXml() {
+            StringBuilder xml = new StringBuilder("<ns0:Feed xmlns:ns0=\"http://example.com/feed\" " +
+                    "xmlns:ns1=\"http://example.com/entry\" xmlns:ns2=\"http://example.com/meta\">");
+            for (int i = 0; i < REPEATED_ELEMENTS; i++) {
+                xml.append("<ns1:entry xmlns:ns3=\"http://example.com/extension/").append(i)
+                        .append("\"><ns1:title>entry-").append(i)
+                        .append("</ns1:title><ns2:updated>2023-01-01</ns2:updated></ns1:entry>");
+            }
+            return xml.append("</ns0:Feed>").toString();
+        }
+
+        @Override
+        RecordType createRecordType() {
+            return BenchmarkModule.getRecordType("Feed");
+        }
+    };
+
+    private static final int WIDE_ITEMS = 1000;
+    private static final int DEPTH = 32;
+    private static final int REPEATED_ELEMENTS = 200;
+    private static final int ATTRIBUTES_PER_ELEMENT = 10;
+
+    /**
+     * Returns the document.
+     *
+     * @return the XML string of the document
+     */
+    abstract String createXml();
+
+    /**
+     * Returns the record type of the root element, which is named after the root element as `fromXml` expects.
+     *
+     * @return the record type of the root element
+     */
+    abstract RecordType createRecordType();
+
+    /**
+     * Returns the record type which has the root element as its field, as `toRecord` expects.
+     *
+     * @param recordType record type of the root element
+     * @return the record type of the document
+     */
+    RecordType createDocumentType(RecordType recordType) {
+        return BenchmarkModule.getRecordType(recordType.getName() + "Document");
+    }
+}
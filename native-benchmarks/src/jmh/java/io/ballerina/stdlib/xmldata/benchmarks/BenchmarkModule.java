@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2023 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.xmldata.benchmarks;
+
+import io.ballerina.runtime.api.Module;
+import io.ballerina.runtime.api.creators.ValueCreator;
+import io.ballerina.runtime.api.types.RecordType;
+
+/**
+ * The record types of the benchmark documents, which are defined by the compiled Ballerina module in the
+ * `native-benchmarks/ballerina` directory. The conversions create the record values through the value creator of the
+ * module of the record type, which the module registers when its init class is loaded.
+ *
+ * @since 2.5.0
+ */
+final class BenchmarkModule {
+
+    static final Module MODULE = new Module("ballerina", "xmldata_benchmarks", "0");
+
+    private static final String INIT_CLASS = MODULE.getOrg() + "." + MODULE.getName() + "." +
+            MODULE.getVersion() + ".$_init";
+
+    static {
+        try {
+            Class.forName(INIT_CLASS, true, BenchmarkModule.class.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("The benchmark module is not compiled: " + INIT_CLASS, e);
+        }
+    }
+
+    private BenchmarkModule() {
+    }
+
+    /**
+     * Returns the record type of the given name in the benchmark module.
+     *
+     * @param name name of the record type
+     * @return the record type
+     */
+    static RecordType getRecordType(String name) {
+        return (RecordType) ValueCreator.createRecordValue(MODULE, name).getType();
+    }
+}
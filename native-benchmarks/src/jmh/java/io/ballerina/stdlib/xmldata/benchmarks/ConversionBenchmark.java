@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2023 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.xmldata.benchmarks;
+
+import io.ballerina.runtime.api.creators.ValueCreator;
+import io.ballerina.runtime.api.types.RecordType;
+import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.values.BError;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BString;
+import io.ballerina.runtime.api.values.BTypedesc;
+import io.ballerina.runtime.api.values.BXml;
+import io.ballerina.stdlib.xmldata.MapFromXml;
+import io.ballerina.stdlib.xmldata.RecordToXml;
+import io.ballerina.stdlib.xmldata.XmlToJson;
+import io.ballerina.stdlib.xmldata.XmlToRecord;
+import io.ballerina.stdlib.xmldata.utils.Constants;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the native conversions of the `toJson`, `fromXml`, `toRecord` and `toXml` APIs for each shape of the
+ * benchmark documents. The XML values and the record value are created once, so only the conversions are measured.
+ *
+ * @since 2.5.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ConversionBenchmark {
+
+    @Param
+    public BenchmarkDocument document;
+
+    private BXml xml;
+    private BMap<BString, Object> options;
+    private BTypedesc recordType;
+    private BTypedesc documentType;
+    private BMap<BString, Object> record;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        xml = ValueCreator.createXmlValue(document.createXml());
+        options = ValueCreator.createMapValue();
+        options.put(StringUtils.fromString(Constants.OPTIONS_ATTRIBUTE_PREFIX), StringUtils.fromString("@"));
+        options.put(StringUtils.fromString(Constants.OPTIONS_PRESERVE_NS), true);
+        RecordType rootType = document.createRecordType();
+        recordType = ValueCreator.createTypedescValue(rootType);
+        documentType = ValueCreator.createTypedescValue(document.createDocumentType(rootType));
+        // The conversions are checked once, so that the benchmarks do not measure the error paths.
+        record = (BMap<BString, Object>) check("fromXml", fromXml());
+        check("toJson", toJson());
+        check("toRecord", toRecord());
+        check("toXml", toXml());
+    }
+
+    @Benchmark
+    public Object toJson() {
+        return XmlToJson.toJson(xml, options);
+    }
+
+    @Benchmark
+    public Object fromXml() {
+        return MapFromXml.fromXml(xml, recordType, false);
+    }
+
+    @Benchmark
+    public Object toRecord() {
+        return XmlToRecord.toRecord(xml, true, documentType);
+    }
+
+    @Benchmark
+    public Object toXml() {
+        return RecordToXml.toXml(record, recordType);
+    }
+
+    private Object check(String conversion, Object result) {
+        if (result instanceof BError) {
+            throw new IllegalStateException(conversion + " failed for the " + document + " document: " +
+                    ((BError) result).getErrorMessage());
+        }
+        return result;
+    }
+}
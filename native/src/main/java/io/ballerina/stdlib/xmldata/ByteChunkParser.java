@@ -0,0 +1,387 @@
+/*
+ * Copyright (c) 2023 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.xmldata;
+
+import io.ballerina.runtime.api.Environment;
+import io.ballerina.runtime.api.Future;
+import io.ballerina.runtime.api.values.BError;
+import io.ballerina.stdlib.xmldata.utils.XmlDataUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.lang.ref.Cleaner;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.xml.stream.XMLStreamException;
+
+/**
+ * Parses an XML document which is read from a stream of byte chunks pulled by the Ballerina code. The StAX parser
+ * reads its input with blocking calls, so it runs on a thread of a pool shared by the parsers, while the chunks are
+ * pulled from the Ballerina stream by the strand which asks for the results. When the parser runs out of input,
+ * {@link #next(Environment)} returns `true` so that the next chunk is added before the result is asked for again.
+ * Only the chunks not read by the parser yet are kept in memory.
+ * <p>
+ * Only the thread of the parser blocks while it waits for the next chunk. The strand does not wait for the parser:
+ * when the next result is not ready, the strand is suspended and is resumed by the parser with the result. A parser
+ * holds its thread until it ends or is closed, so the number of the parsers which run at the same time is bounded by
+ * the size of the pool, and a parser which can not get a thread ends with an error.
+ * <p>
+ * The parser always ends with a result, which is the end of the results or an error, so the strand is never left
+ * suspended by a parser which has failed. A parser which is neither read to the end nor closed is closed when the
+ * Ballerina object it is registered with is garbage collected, which releases its thread.
+ *
+ * @since 2.5.0
+ */
+class ByteChunkParser {
+
+    private static final Cleaner CLEANER = Cleaner.create();
+    private static final int MAX_PARSERS = 64;
+    private static final long IDLE_THREAD_SECONDS = 60;
+    // The result of a parser which has not reached its next result yet.
+    private static final Object PENDING = new Object();
+
+    private final Object lock = new Object();
+    private final String threadName;
+    private final ParserFactory factory;
+    private final boolean singleResult;
+    private final Deque<byte[]> chunks = new ArrayDeque<>();
+    private boolean started = false;
+    // The strand suspended until the next result is reached.
+    private Future waiting;
+    private boolean endOfInput = false;
+    private boolean waitingForInput = false;
+    private boolean requested = false;
+    private boolean hasResult = false;
+    private Object result;
+    private boolean closed = false;
+
+    /**
+     * Creates a parser of byte chunks.
+     *
+     * @param threadName   name of the thread of the parser, while it runs the parser
+     * @param factory      creates the parser which reads the chunks
+     * @param singleResult whether the parser ends after its first result
+     */
+    ByteChunkParser(String threadName, ParserFactory factory, boolean singleResult) {
+        this.threadName = threadName;
+        this.factory = factory;
+        this.singleResult = singleResult;
+    }
+
+    /**
+     * Closes the parser when the given object is garbage collected. The parser does not refer to the object, so
+     * it does not keep the object reachable.
+     *
+     * @param owner the object which holds the parser
+     */
+    void closeWith(Object owner) {
+        closeWith(owner, this::close);
+    }
+
+    /**
+     * Runs the given action when the given object is garbage collected. The action must not refer to the object.
+     *
+     * @param owner  the object which holds the resources to close
+     * @param action closes the resources
+     */
+    static void closeWith(Object owner, Runnable action) {
+        CLEANER.register(owner, action);
+    }
+
+    /**
+     * Returns the next result of the parser. When the parser has not reached the next result yet, the strand is
+     * suspended, and is resumed with the result when the parser reaches it.
+     *
+     * @param env environment of the strand which asks for the result
+     * @return the next result, `true` if the next chunk is needed, an error, or `null` if there are no more results
+     */
+    Object next(Environment env) {
+        synchronized (lock) {
+            if (!started && !closed) {
+                started = true;
+                start();
+            }
+            if (!hasResult && !requested && !closed) {
+                requested = true;
+                lock.notifyAll();
+            }
+            Object next = takeResult();
+            if (next == PENDING) {
+                waiting = env.markAsync();
+                return null;
+            }
+            return next;
+        }
+    }
+
+    /**
+     * Runs the parser on a thread of the pool, or ends it with an error if all the threads are taken.
+     */
+    private void start() {
+        try {
+            ParserPool.EXECUTOR.execute(() -> {
+                Thread thread = Thread.currentThread();
+                String poolThreadName = thread.getName();
+                thread.setName(threadName);
+                try {
+                    parse();
+                } finally {
+                    thread.setName(poolThreadName);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            publish(XmlDataUtils.getError("Failed to read the XML byte stream: more than " + MAX_PARSERS +
+                    " XML byte streams are being read at the same time"));
+        }
+    }
+
+    /**
+     * Takes the next result, if the parser has reached it.
+     */
+    private Object takeResult() {
+        if (hasResult) {
+            Object next = result;
+            hasResult = false;
+            result = null;
+            return next;
+        } else if (closed) {
+            return null;
+        } else if (waitingForInput) {
+            return Boolean.TRUE;
+        }
+        return PENDING;
+    }
+
+    /**
+     * Resumes the strand suspended for the next result, if the parser has reached it. This is called with the lock
+     * held, whenever the state of the parser changes.
+     */
+    private void resume() {
+        if (waiting == null) {
+            return;
+        }
+        Object next = takeResult();
+        if (next != PENDING) {
+            Future future = waiting;
+            waiting = null;
+            future.complete(next);
+        }
+    }
+
+    /**
+     * Adds the next chunk of the XML document.
+     *
+     * @param chunk the next chunk, or `null` if there are no more chunks
+     */
+    void addChunk(byte[] chunk) {
+        synchronized (lock) {
+            if (chunk == null) {
+                endOfInput = true;
+            } else {
+                chunks.add(chunk);
+            }
+            waitingForInput = false;
+            lock.notifyAll();
+        }
+    }
+
+    void close() {
+        synchronized (lock) {
+            closed = true;
+            chunks.clear();
+            lock.notifyAll();
+            resume();
+        }
+    }
+
+    /**
+     * Reads the results as they are requested. A result which ends the parsing is always published when the
+     * parser stops, so that {@link #next()} does not wait for a parser which has failed.
+     */
+    private void parse() {
+        Parser reader = null;
+        Object failure = null;
+        try {
+            reader = factory.create(new ChunkInputStream());
+            while (true) {
+                synchronized (lock) {
+                    while (!requested && !closed) {
+                        lock.wait();
+                    }
+                    if (closed) {
+                        return;
+                    }
+                    requested = false;
+                }
+                Object next = reader.next();
+                publish(next);
+                if (isLast(next)) {
+                    return;
+                }
+            }
+        } catch (XMLStreamException e) {
+            failure = XmlDataUtils.getError("Failed to parse the XML: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure = XmlDataUtils.getError("Interrupted while reading the XML byte stream");
+        } catch (StackOverflowError e) {
+            failure = XmlDataUtils.getError("Failed to read the XML: the element is nested too deeply");
+        } catch (Exception e) {
+            failure = XmlDataUtils.getError(e.getMessage(), e);
+        } catch (Throwable e) {
+            // The error is returned as the result, as the thread of the parser has no other way to report it.
+            failure = XmlDataUtils.getError("Failed to read the XML: " + e);
+        } finally {
+            if (reader != null) {
+                reader.close();
+            }
+            end(failure);
+        }
+    }
+
+    private boolean isLast(Object next) {
+        return singleResult || next == null || next instanceof BError;
+    }
+
+    private void publish(Object next) {
+        synchronized (lock) {
+            result = next;
+            hasResult = true;
+            requested = false;
+            if (isLast(next)) {
+                closed = true;
+                chunks.clear();
+            }
+            lock.notifyAll();
+            resume();
+        }
+    }
+
+    /**
+     * Publishes the failure of the parser, or the end of the results, unless the parsing has already ended or the
+     * parser is closed.
+     */
+    private void end(Object failure) {
+        synchronized (lock) {
+            if (!closed) {
+                publish(failure);
+            }
+        }
+    }
+
+    /**
+     * Reads the results from the chunks.
+     */
+    interface Parser {
+
+        /**
+         * Returns the next result.
+         *
+         * @return the next result, an error, or `null` if there are no more results
+         * @throws Exception if the input can not be read
+         */
+        Object next() throws Exception;
+
+        default void close() {
+        }
+    }
+
+    /**
+     * Creates the parser on the thread of the parser, as creating it may read the input.
+     */
+    interface ParserFactory {
+
+        Parser create(InputStream inputStream) throws Exception;
+    }
+
+    /**
+     * The input of the parser, which waits for the next chunk when the added chunks are read.
+     */
+    private class ChunkInputStream extends InputStream {
+
+        private byte[] chunk;
+        private int position = 0;
+
+        @Override
+        public int read() throws IOException {
+            byte[] bytes = new byte[1];
+            return read(bytes, 0, 1) < 0 ? -1 : bytes[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            synchronized (lock) {
+                while (chunk == null || position == chunk.length) {
+                    byte[] next = chunks.poll();
+                    if (next != null) {
+                        chunk = next;
+                        position = 0;
+                        continue;
+                    }
+                    if (closed) {
+                        throw new IOException("The stream is closed");
+                    }
+                    if (endOfInput) {
+                        return -1;
+                    }
+                    waitingForInput = true;
+                    lock.notifyAll();
+                    resume();
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new InterruptedIOException(e.getMessage());
+                    }
+                }
+                int count = Math.min(length, chunk.length - position);
+                System.arraycopy(chunk, position, bytes, offset, count);
+                position += count;
+                return count;
+            }
+        }
+    }
+
+    /**
+     * Holds the pool of the threads of the parsers, so it is only created when a byte stream is first read. The
+     * threads which are idle for a while are stopped.
+     */
+    private static class ParserPool {
+
+        private static final String THREAD_NAME_PREFIX = "xmldata-byte-stream-";
+        private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+        private static final ExecutorService EXECUTOR = new ThreadPoolExecutor(0, MAX_PARSERS, IDLE_THREAD_SECONDS,
+                TimeUnit.SECONDS, new SynchronousQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, THREAD_NAME_PREFIX + THREAD_COUNT.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+}
@@ -0,0 +1,322 @@
+/*
+ * Copyright (c) 2023 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.xmldata;
+
+import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.values.BArray;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BString;
+import io.ballerina.runtime.api.values.BXmlItem;
+import io.ballerina.stdlib.xmldata.utils.LimitExceededException;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The limits of the `limits` option of the `XmlOptions` and the `JsonOptions`. An XML value is checked while it is
+ * converted, with a {@link Tracker} which counts the elements, the attributes and the text nodes as they are
+ * converted, so the checks do not traverse the XML again. The conversions which read the XML from bytes check the
+ * limits while reading in the same way. A JSON value is checked before it is converted, with an iterative traversal
+ * that stops at the first limit exceeded, so a value which exceeds a limit is rejected before any part of the XML is
+ * created, at the cost of a second traversal of the JSON value.
+ *
+ * @since 2.5.0
+ */
+class ConversionLimits {
+
+    private static final String LIMITS = "limits";
+    private static final String MAX_DEPTH = "maxDepth";
+    private static final String MAX_ELEMENTS = "maxElements";
+    private static final String MAX_TEXT_LENGTH = "maxTextLength";
+    private static final String MAX_ATTRIBUTES = "maxAttributes";
+    private static final String MAX_OUTPUT_SIZE = "maxOutputSize";
+    // The limits of the trackers which only count the XML for the metrics of a conversion.
+    private static final ConversionLimits NO_LIMITS = new ConversionLimits();
+
+    private final long maxDepth;
+    private final long maxElements;
+    private final long maxTextLength;
+    private final long maxAttributes;
+    private final long maxOutputSize;
+
+    private ConversionLimits(BMap<?, ?> limits) {
+        this.maxDepth = getLimit(limits, MAX_DEPTH);
+        this.maxElements = getLimit(limits, MAX_ELEMENTS);
+        this.maxTextLength = getLimit(limits, MAX_TEXT_LENGTH);
+        this.maxAttributes = getLimit(limits, MAX_ATTRIBUTES);
+        this.maxOutputSize = getLimit(limits, MAX_OUTPUT_SIZE);
+    }
+
+    private ConversionLimits() {
+        this.maxDepth = Long.MAX_VALUE;
+        this.maxElements = Long.MAX_VALUE;
+        this.maxTextLength = Long.MAX_VALUE;
+        this.maxAttributes = Long.MAX_VALUE;
+        this.maxOutputSize = Long.MAX_VALUE;
+    }
+
+    /**
+     * Returns the limits of the given options.
+     *
+     * @param options `XmlOptions` or `JsonOptions` of the conversion
+     * @return the limits, or `null` if no limit is set
+     */
+    static ConversionLimits of(BMap<?, ?> options) {
+        Object limits = options.get(StringUtils.fromString(LIMITS));
+        if (!(limits instanceof BMap) || ((BMap<?, ?>) limits).isEmpty()) {
+            return null;
+        }
+        return new ConversionLimits((BMap<?, ?>) limits);
+    }
+
+    /**
+     * Returns a new tracker of the XML converted by a conversion.
+     *
+     * @return the tracker
+     */
+    Tracker newTracker() {
+        return new Tracker();
+    }
+
+    /**
+     * Returns a new tracker of the given limits, or a tracker which only counts the XML when there are no limits.
+     * The counts of the tracker are the metrics of the conversion.
+     *
+     * @param limits limits of the conversion, or `null` if no limit is set
+     * @return the tracker
+     */
+    static Tracker newCountingTracker(ConversionLimits limits) {
+        return (limits == null ? NO_LIMITS : limits).newTracker();
+    }
+
+    /**
+     * Checks a JSON value which is converted to XML. The objects and the arrays add to the depth, their members
+     * and items are the elements, the object members with the attribute prefix are the attributes, and each JSON
+     * value adds to the output size.
+     *
+     * @param json            JSON value to check
+     * @param attributePrefix prefix of the keys that are converted to attributes
+     * @throws LimitExceededException if the JSON exceeds a limit
+     */
+    void checkJson(Object json, String attributePrefix) throws LimitExceededException {
+        Deque<Iterator<?>> iterators = new ArrayDeque<>();
+        Iterator<?> values = Collections.singletonList(json).iterator();
+        long elementCount = 0;
+        long outputSize = 0;
+        while (true) {
+            if (!values.hasNext()) {
+                if (iterators.isEmpty()) {
+                    return;
+                }
+                values = iterators.pop();
+                continue;
+            }
+            Object value = values.next();
+            checkOutputSize(++outputSize);
+            if (value instanceof BMap) {
+                BMap<?, ?> map = (BMap<?, ?>) value;
+                checkDepth(iterators.size() + 1);
+                elementCount += map.size();
+                checkElements(elementCount);
+                int attributeCount = 0;
+                for (Object key : map.getKeys()) {
+                    if (key.toString().startsWith(attributePrefix)) {
+                        attributeCount++;
+                    }
+                }
+                checkAttributes(attributeCount);
+                iterators.push(values);
+                values = map.values().iterator();
+            } else if (value instanceof BArray) {
+                BArray array = (BArray) value;
+                checkDepth(iterators.size() + 1);
+                elementCount += array.size();
+                checkElements(elementCount);
+                iterators.push(values);
+                values = new ArrayIterator(array);
+            } else if (value instanceof BString) {
+                checkTextLength(((BString) value).length());
+            }
+        }
+    }
+
+    void checkDepth(long depth) throws LimitExceededException {
+        check(depth, maxDepth, "depth");
+    }
+
+    void checkElements(long elementCount) throws LimitExceededException {
+        check(elementCount, maxElements, "number of elements");
+    }
+
+    void checkTextLength(long length) throws LimitExceededException {
+        check(length, maxTextLength, "text length");
+    }
+
+    void checkAttributes(long attributeCount) throws LimitExceededException {
+        check(attributeCount, maxAttributes, "number of attributes of an element");
+    }
+
+    void checkOutputSize(long outputSize) throws LimitExceededException {
+        check(outputSize, maxOutputSize, "output size");
+    }
+
+    private static void check(long value, long limit, String name) throws LimitExceededException {
+        if (value > limit) {
+            throw new LimitExceededException("The value exceeds the maximum " + name + ": " + limit);
+        }
+    }
+
+    /**
+     * Counts the attributes of an element, without the namespace declarations which the XML parser adds to every
+     * element in their scope.
+     */
+    static int countAttributes(BXmlItem element) {
+        int count = 0;
+        for (Map.Entry<BString, BString> entry : element.getAttributesMap().entrySet()) {
+            if (!entry.getKey().getValue().startsWith(BXmlItem.XMLNS_NS_URI_PREFIX)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static long getLimit(BMap<?, ?> limits, String name) {
+        Object limit = limits.get(StringUtils.fromString(name));
+        return limit instanceof Long ? (Long) limit : Long.MAX_VALUE;
+    }
+
+    /**
+     * Counts the XML converted by a conversion against the limits. The output size is the number of the elements,
+     * the attributes and the text nodes converted, each of which is a value of the JSON result. The counts are
+     * shared by the threads of a parallel conversion. The errors have no path, as it is added by the elements which
+     * they are thrown through. The conversions which create the XML count the elements and the text nodes created,
+     * without checking them, as their input is checked before.
+     */
+    class Tracker {
+
+        private final AtomicLong elementCount = new AtomicLong();
+        private final AtomicLong textCount = new AtomicLong();
+        private final AtomicLong outputSize = new AtomicLong();
+
+        private Tracker() {
+        }
+
+        /**
+         * Counts an element which is being converted, before its children are converted.
+         *
+         * @param element the element
+         * @param depth   depth of the element, which is 1 for the root element
+         * @throws LimitExceededException if the element exceeds a limit
+         */
+        void enterElement(BXmlItem element, int depth) throws LimitExceededException {
+            enterElement(countAttributes(element), depth);
+        }
+
+        /**
+         * Counts an element which is being read, before any of its values are created.
+         *
+         * @param attributeCount number of the attributes of the element, without the namespace declarations
+         * @param depth          depth of the element, which is 1 for the root element
+         * @throws LimitExceededException if the element exceeds a limit
+         */
+        void enterElement(int attributeCount, int depth) throws LimitExceededException {
+            checkDepth(depth);
+            checkElements(elementCount.incrementAndGet());
+            checkAttributes(attributeCount);
+            checkOutputSize(outputSize.addAndGet(1L + attributeCount));
+        }
+
+        /**
+         * Checks the length of a text node, which is counted in the output size only if it is converted.
+         *
+         * @param text      value of the text node
+         * @param converted whether the text is converted, as the whitespace between the elements is not
+         * @throws LimitExceededException if the text exceeds a limit
+         */
+        void checkText(String text, boolean converted) throws LimitExceededException {
+            checkTextLength(text.length());
+            if (converted) {
+                textCount.incrementAndGet();
+                checkOutputSize(outputSize.incrementAndGet());
+            }
+        }
+
+        /**
+         * Counts an element created by a conversion.
+         *
+         * @param attributeCount number of the attributes of the element
+         */
+        void addElement(int attributeCount) {
+            elementCount.incrementAndGet();
+            outputSize.addAndGet(1L + attributeCount);
+        }
+
+        /**
+         * Counts a text node created by a conversion.
+         */
+        void addText() {
+            textCount.incrementAndGet();
+            outputSize.incrementAndGet();
+        }
+
+        /**
+         * Returns the number of the elements and the text nodes counted.
+         *
+         * @return the number of the XML nodes
+         */
+        long getNodeCount() {
+            return elementCount.get() + textCount.get();
+        }
+
+        long getOutputSize() {
+            return outputSize.get();
+        }
+    }
+
+    /**
+     * Iterates the items of a JSON array.
+     */
+    private static class ArrayIterator implements Iterator<Object> {
+
+        private final BArray array;
+        private int index = 0;
+
+        ArrayIterator(BArray array) {
+            this.array = array;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < array.size();
+        }
+
+        @Override
+        public Object next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return array.get(index++);
+        }
+    }
+}
@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2023 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.xmldata;
+
+import io.ballerina.runtime.api.PredefinedTypes;
+import io.ballerina.runtime.api.creators.TypeCreator;
+import io.ballerina.runtime.api.creators.ValueCreator;
+import io.ballerina.runtime.api.types.ArrayType;
+import io.ballerina.runtime.api.types.MapType;
+import io.ballerina.runtime.api.types.Type;
+import io.ballerina.runtime.api.values.BArray;
+import io.ballerina.runtime.api.values.BError;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BString;
+import io.ballerina.stdlib.xmldata.utils.ModuleUtils;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import static io.ballerina.runtime.api.utils.StringUtils.fromString;
+
+/**
+ * Records the metrics of the `toJson`, `fromXml`, `toRecord` and `toXml` conversions. The metrics are disabled by
+ * default, and the conversions only read a flag then. When enabled, the latency of each conversion is recorded, and
+ * the XML nodes and the values are counted during the conversion with a {@link ConversionLimits.Tracker}, in the
+ * same way the limits of a conversion are checked, so neither the XML nor the result is traversed again.
+ *
+ * @since 2.5.0
+ */
+public class ConversionMetrics {
+
+    static final String TO_JSON = "toJson";
+    static final String FROM_XML = "fromXml";
+    static final String TO_RECORD = "toRecord";
+    static final String TO_XML = "toXml";
+    static final String JSON = "json";
+
+    private static final String OBJECT_NAME = "io.ballerina.stdlib.xmldata:type=ConversionMetrics";
+    private static final String RECORD_NAME = "ConversionMetrics";
+    private static final String OTHER_TYPES = "other";
+    private static final String INFINITY = "+Inf";
+    // The upper bounds of the latency buckets in microseconds.
+    private static final long[] LATENCY_BOUNDS = {10, 50, 100, 500, 1000, 5000, 10000, 50000, 100000, 500000, 1000000};
+    private static final int MAX_TARGET_TYPES = 256;
+    private static final Map<String, Statistics> STATISTICS = new ConcurrentHashMap<>();
+    private static final MetricsBean BEAN = new MetricsBean();
+
+    private static volatile boolean enabled = false;
+    private static boolean registered = false;
+    private static volatile ArrayType snapshotType;
+
+    private ConversionMetrics() {
+    }
+
+    static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enables or disables the metrics. The JMX MBean is registered when the metrics are enabled the first time.
+     *
+     * @param enable whether the metrics are recorded
+     */
+    public static void setEnabled(boolean enable) {
+        enabled = enable;
+        if (enable) {
+            registerBean();
+        }
+    }
+
+    /**
+     * Records a conversion.
+     *
+     * @param operation  name of the API
+     * @param targetType type the value is converted to, or from in the case of `toXml`
+     * @param startTime  value of {@link System#nanoTime()} when the conversion started
+     * @param tracker    tracker which counted the XML nodes and the values of the conversion
+     * @param result     result of the conversion
+     * @return the result of the conversion
+     */
+    static Object record(String operation, Type targetType, long startTime, ConversionLimits.Tracker tracker,
+                         Object result) {
+        long latency = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startTime);
+        Statistics statistics = getStatistics(operation, targetType == null ? JSON : targetType.toString());
+        statistics.calls.increment();
+        statistics.totalLatency.add(latency);
+        statistics.latencyBuckets.incrementAndGet(getBucket(latency));
+        statistics.nodes.add(tracker.getNodeCount());
+        if (result instanceof BError) {
+            statistics.errors.increment();
+        } else {
+            statistics.outputSize.add(tracker.getOutputSize());
+        }
+        return result;
+    }
+
+    /**
+     * Returns the metrics of the conversions as `ConversionMetrics` records.
+     *
+     * @return an array of the metrics of each API and target type
+     */
+    public static BArray getSnapshot() {
+        BArray snapshot = ValueCreator.createArrayValue(getSnapshotType());
+        MapType histogramType = TypeCreator.createMapType(PredefinedTypes.TYPE_INT);
+        for (ConversionStatistics statistics : BEAN.getConversions()) {
+            BMap<BString, Object> histogram = ValueCreator.createMapValue(histogramType);
+            for (Map.Entry<String, Long> bucket : statistics.getLatencyHistogram().entrySet()) {
+                histogram.put(fromString(bucket.getKey()), bucket.getValue());
+            }
+            Map<String, Object> fields = new HashMap<>();
+            fields.put("operation", fromString(statistics.getOperation()));
+            fields.put("targetType", fromString(statistics.getTargetType()));
+            fields.put("calls", statistics.getCalls());
+            fields.put("errors", statistics.getErrors());
+            fields.put("totalLatency", statistics.getTotalLatency());
+            fields.put("latencyHistogram", histogram);
+            fields.put("nodes", statistics.getNodes());
+            fields.put("outputSize", statistics.getOutputSize());
+            snapshot.append(ValueCreator.createRecordValue(ModuleUtils.getModule(), RECORD_NAME, fields));
+        }
+        return snapshot;
+    }
+
+    /**
+     * Returns the type of the `ConversionMetrics[]` array. The record type is only known from a value of it, so the
+     * array type is created once from the first record value.
+     */
+    private static ArrayType getSnapshotType() {
+        ArrayType type = snapshotType;
+        if (type == null) {
+            Type recordType = ValueCreator.createRecordValue(ModuleUtils.getModule(), RECORD_NAME).getType();
+            type = TypeCreator.createArrayType(recordType);
+            snapshotType = type;
+        }
+        return type;
+    }
+
+    private static Statistics getStatistics(String operation, String targetType) {
+        String key = operation + ' ' + targetType;
+        Statistics statistics = STATISTICS.get(key);
+        if (statistics == null) {
+            // The number of the target types is limited, so that the metrics of generated types do not grow.
+            if (STATISTICS.size() >= MAX_TARGET_TYPES) {
+                return STATISTICS.computeIfAbsent(operation + ' ' + OTHER_TYPES,
+                        k -> new Statistics(operation, OTHER_TYPES));
+            }
+            statistics = STATISTICS.computeIfAbsent(key, k -> new Statistics(operation, targetType));
+        }
+        return statistics;
+    }
+
+    private static int getBucket(long latency) {
+        for (int i = 0; i < LATENCY_BOUNDS.length; i++) {
+            if (latency <= LATENCY_BOUNDS[i]) {
+                return i;
+            }
+        }
+        return LATENCY_BOUNDS.length;
+    }
+
+    private static synchronized void registerBean() {
+        if (registered) {
+            return;
+        }
+        registered = true;
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(BEAN, name);
+            }
+        } catch (JMException e) {
+            // The metrics are still available through `getConversionMetrics` without JMX.
+        }
+    }
+
+    /**
+     * The metrics of an API and a target type.
+     */
+    private static class Statistics {
+
+        private final String operation;
+        private final String targetType;
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder totalLatency = new LongAdder();
+        private final AtomicLongArray latencyBuckets = new AtomicLongArray(LATENCY_BOUNDS.length + 1);
+        private final LongAdder nodes = new LongAdder();
+        private final LongAdder outputSize = new LongAdder();
+
+        Statistics(String operation, String targetType) {
+            this.operation = operation;
+            this.targetType = targetType;
+        }
+
+        ConversionStatistics getSnapshot() {
+            Map<String, Long> histogram = new LinkedHashMap<>();
+            for (int i = 0; i < latencyBuckets.length(); i++) {
+                histogram.put(i < LATENCY_BOUNDS.length ? String.valueOf(LATENCY_BOUNDS[i]) : INFINITY,
+                        latencyBuckets.get(i));
+            }
+            return new ConversionStatistics(operation, targetType, calls.sum(), errors.sum(), totalLatency.sum(),
+                    histogram, nodes.sum(), outputSize.sum());
+        }
+    }
+
+    /**
+     * The JMX MBean of the metrics.
+     */
+    private static class MetricsBean implements ConversionMetricsMXBean {
+
+        @Override
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        @Override
+        public void setEnabled(boolean enable) {
+            ConversionMetrics.setEnabled(enable);
+        }
+
+        @Override
+        public List<ConversionStatistics> getConversions() {
+            List<ConversionStatistics> conversions = new ArrayList<>();
+            for (Statistics statistics : STATISTICS.values()) {
+                conversions.add(statistics.getSnapshot());
+            }
+            return conversions;
+        }
+
+        @Override
+        public void reset() {
+            STATISTICS.clear();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2023 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.xmldata;
+
+import java.util.List;
+
+/**
+ * The JMX interface of the conversion metrics, registered as `io.ballerina.stdlib.xmldata:type=ConversionMetrics`.
+ *
+ * @since 2.5.0
+ */
+public interface ConversionMetricsMXBean {
+
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    /**
+     * Returns the metrics of each API and target type.
+     *
+     * @return the metrics of the conversions
+     */
+    List<ConversionStatistics> getConversions();
+
+    /**
+     * Clears the metrics recorded so far.
+     */
+    void reset();
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2023 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.xmldata;
+
+import java.util.Map;
+
+/**
+ * A snapshot of the metrics of the conversions of an API to a target type, as exported through JMX. The fields are
+ * the same as the ones of the `ConversionMetrics` Ballerina record.
+ *
+ * @since 2.5.0
+ */
+public class ConversionStatistics {
+
+    private final String operation;
+    private final String targetType;
+    private final long calls;
+    private final long errors;
+    private final long totalLatency;
+    private final Map<String, Long> latencyHistogram;
+    private final long nodes;
+    private final long outputSize;
+
+    ConversionStatistics(String operation, String targetType, long calls, long errors, long totalLatency,
+                         Map<String, Long> latencyHistogram, long nodes, long outputSize) {
+        this.operation = operation;
+        this.targetType = targetType;
+        this.calls = calls;
+        this.errors = errors;
+        this.totalLatency = totalLatency;
+        this.latencyHistogram = latencyHistogram;
+        this.nodes = nodes;
+        this.outputSize = outputSize;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public String getTargetType() {
+        return targetType;
+    }
+
+    public long getCalls() {
+        return calls;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    /**
+     * Returns the total time taken by the conversions.
+     *
+     * @return the total latency in microseconds
+     */
+    public long getTotalLatency() {
+        return totalLatency;
+    }
+
+    /**
+     * Returns the number of the conversions by the upper bound of their latency in microseconds.
+     *
+     * @return the counts of the latency buckets, with `+Inf` for the conversions above the largest bound
+     */
+    public Map<String, Long> getLatencyHistogram() {
+        return latencyHistogram;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getOutputSize() {
+        return outputSize;
+    }
+}
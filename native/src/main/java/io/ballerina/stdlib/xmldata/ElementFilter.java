@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2023 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.xmldata;
+
+/**
+ * Selects the elements converted by {@link XmlToJson}. A filter is the state of the elements at one level of the
+ * document. It is entered for each element, and the filter for the children of the element is returned, or `null`
+ * if the element is skipped, so the skipped elements are never converted.
+ *
+ * @since 2.5.0
+ */
+interface ElementFilter {
+
+    /**
+     * The filter which converts all the elements.
+     */
+    ElementFilter ALL = new ElementFilter() {
+        @Override
+        public ElementFilter enter(String key) {
+            return this;
+        }
+
+        @Override
+        public boolean isPartial() {
+            return false;
+        }
+    };
+
+    /**
+     * Enters an element at this level.
+     *
+     * @param key key of the element, which is its name with the prefix when namespaces are preserved
+     * @return the filter of the children of the element, or `null` if the element is skipped
+     */
+    ElementFilter enter(String key);
+
+    /**
+     * Whether the element this filter was entered for is only on the way to the converted elements, so that only
+     * its child elements are converted.
+     *
+     * @return true if the attributes and the text of the element are skipped
+     */
+    boolean isPartial();
+}
@@ -0,0 +1,524 @@
+/*
+ * Copyright (c) 2023 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.xmldata;
+
+import io.ballerina.runtime.api.PredefinedTypes;
+import io.ballerina.runtime.api.creators.TypeCreator;
+import io.ballerina.runtime.api.creators.ValueCreator;
+import io.ballerina.runtime.api.types.MapType;
+import io.ballerina.runtime.api.types.XmlNodeType;
+import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.values.BArray;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BString;
+import io.ballerina.runtime.api.values.BXml;
+import io.ballerina.stdlib.xmldata.utils.Constants;
+import io.ballerina.stdlib.xmldata.utils.XmlDataUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.xml.namespace.QName;
+
+import static io.ballerina.runtime.api.utils.StringUtils.fromString;
+
+/**
+ * Converts a JSON value to the corresponding XML representation.
+ *
+ * @since 2.5.0
+ */
+public class JsonToXml {
+
+    private static final MapType ATTRIBUTE_MAP_TYPE = TypeCreator.createMapType(PredefinedTypes.TYPE_STRING);
+    private static final String NAMESPACE_DECLARATION = "{http://www.w3.org/2000/xmlns/}";
+    private static final String XMLNS = "xmlns";
+    private static final String CONTENT = "#content";
+    private static final String ROOT = "root";
+    private static final String TO_XML_ATTRIBUTE_PREFIX = "attribute_";
+    private static final String OPTIONS_ARRAY_ENTRY_TAG = "arrayEntryTag";
+    private static final String OPTIONS_ROOT_TAG = "rootTag";
+    private static final String ATTRIBUTE_ERROR = "attribute cannot be an object or array";
+
+    private final String attributePrefix;
+    private final String namespacePrefix;
+    private final String arrayEntryTag;
+    // Counts the nodes created for the metrics of `toXml`, or `null` if they are not counted.
+    private final ConversionLimits.Tracker tracker;
+    // All the namespaces declared so far, which are used to find the namespace of a prefix.
+    private final Map<String, String> allNamespaces = new HashMap<>();
+    // The namespace declarations of the ancestors of the element being converted. Each element only keeps the size
+    // of this list at the time it is entered, so the parent scope is restored by discarding the rest.
+    private final List<String[]> namespaceScope = new ArrayList<>();
+
+    private JsonToXml(String attributePrefix, String arrayEntryTag, ConversionLimits.Tracker tracker) {
+        this.attributePrefix = attributePrefix;
+        this.namespacePrefix = attributePrefix + XMLNS;
+        this.arrayEntryTag = arrayEntryTag;
+        this.tracker = tracker;
+    }
+
+    /**
+     * Converts a JSON value to the corresponding XML value.
+     *
+     * @param jsonValue JSON value to convert
+     * @param options   JSON options to be used in the conversion
+     * @return XML representation of the given JSON value or an error
+     */
+    public static Object fromJson(Object jsonValue, BMap<BString, Object> options) {
+        try {
+            String attributePrefix = options.get(fromString(Constants.OPTIONS_ATTRIBUTE_PREFIX)).toString();
+            String arrayEntryTag = options.get(fromString(OPTIONS_ARRAY_ENTRY_TAG)).toString();
+            Object rootTag = options.get(fromString(OPTIONS_ROOT_TAG));
+            checkLimits(jsonValue, options, attributePrefix);
+            JsonToXml converter = new JsonToXml(attributePrefix, arrayEntryTag, null);
+            return converter.convert(jsonValue, rootTag == null ? null : rootTag.toString());
+        } catch (Exception e) {
+            return XmlDataUtils.getError(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Writes the XML representation of a JSON value as UTF-8 encoded bytes, without creating the XML value.
+     *
+     * @param jsonValue JSON value to convert
+     * @param options   JSON options to be used in the conversion
+     * @return XML representation of the given JSON value as bytes or an error
+     */
+    public static Object fromJsonToBytes(Object jsonValue, BMap<BString, Object> options) {
+        try {
+            String attributePrefix = options.get(fromString(Constants.OPTIONS_ATTRIBUTE_PREFIX)).toString();
+            String arrayEntryTag = options.get(fromString(OPTIONS_ARRAY_ENTRY_TAG)).toString();
+            Object rootTag = options.get(fromString(OPTIONS_ROOT_TAG));
+            checkLimits(jsonValue, options, attributePrefix);
+            return write(jsonValue, attributePrefix, arrayEntryTag, rootTag == null ? null : rootTag.toString());
+        } catch (Exception e) {
+            return XmlDataUtils.getError(e.getMessage(), e);
+        }
+    }
+
+    private static void checkLimits(Object jsonValue, BMap<BString, Object> options, String attributePrefix)
+            throws Exception {
+        ConversionLimits limits = ConversionLimits.of(options);
+        if (limits != null) {
+            limits.checkJson(jsonValue, attributePrefix);
+        }
+    }
+
+    /**
+     * Converts a JSON value, which may contain {@link ObjectNode} values for its objects, to the corresponding XML
+     * value.
+     *
+     * @param jsonValue       JSON value to convert
+     * @param attributePrefix prefix of the keys that are converted to attributes
+     * @param arrayEntryTag   name of the elements of the array entries
+     * @param rootTag         name of the root element, or `null` to use the default
+     * @param tracker         tracker which counts the nodes created, or `null` if they are not counted
+     * @return XML representation of the given JSON value
+     * @throws Exception if the JSON value can not be converted
+     */
+    static BXml convert(Object jsonValue, String attributePrefix, String arrayEntryTag, String rootTag,
+                        ConversionLimits.Tracker tracker) throws Exception {
+        return new JsonToXml(attributePrefix, arrayEntryTag, tracker).convert(jsonValue, rootTag);
+    }
+
+    /**
+     * Writes the XML representation of a JSON value, which may contain {@link ObjectNode} values for its objects, as
+     * UTF-8 encoded bytes. The elements are written as they are visited, by the same rules used to create the XML
+     * value in {@link #convert(Object, String, String, String, ConversionLimits.Tracker)}.
+     *
+     * @param jsonValue       JSON value to convert
+     * @param attributePrefix prefix of the keys that are converted to attributes
+     * @param arrayEntryTag   name of the elements of the array entries
+     * @param rootTag         name of the root element, or `null` to use the default
+     * @return XML representation of the given JSON value as a byte array
+     * @throws Exception if the JSON value can not be converted
+     */
+    static BArray write(Object jsonValue, String attributePrefix, String arrayEntryTag, String rootTag)
+            throws Exception {
+        XmlWriter writer = new XmlWriter();
+        new JsonToXml(attributePrefix, arrayEntryTag, null).write(jsonValue, rootTag, writer);
+        return ValueCreator.createArrayValue(writer.toByteArray());
+    }
+
+    private BXml convert(Object jsonValue, String rootTag) throws Exception {
+        String rootName = rootTag == null ? ROOT : rootTag;
+        if (!isSingleNode(jsonValue)) {
+            enterScope(jsonValue, 0);
+            List<BXml> children = traverseNode(jsonValue, 0, null);
+            return getElement(rootName, children, getAttributes(jsonValue, 0));
+        }
+        Set<Map.Entry<BString, Object>> entries = getEntries(jsonValue);
+        if (entries != null) {
+            if (entries.isEmpty()) {
+                return ValueCreator.createXmlSequence();
+            }
+            Map.Entry<BString, Object> entry = entries.iterator().next();
+            String key = entry.getKey().getValue();
+            Object value = entry.getValue();
+            enterScope(value, 0);
+            if (isArray(value)) {
+                List<BXml> children = traverseNode(value, 0, key);
+                return getElement(rootName, children, getAttributes(value, 0));
+            }
+            if (key.equals(CONTENT)) {
+                return createText(toStringValue(value));
+            }
+            List<BXml> children = traverseNode(value, 0, null);
+            BXml output = getElement(key, children, getAttributes(value, 0));
+            if (rootTag != null) {
+                List<BXml> rootChildren = new ArrayList<>(1);
+                rootChildren.add(output);
+                return createElement(rootTag, new LinkedHashMap<>(), rootChildren, tracker);
+            }
+            return output;
+        }
+        return createText(toStringValue(jsonValue));
+    }
+
+    private List<BXml> traverseNode(Object node, int scope, String key) throws Exception {
+        List<BXml> sequence = new ArrayList<>();
+        Set<Map.Entry<BString, Object>> entries = getEntries(node);
+        if (entries != null) {
+            for (Map.Entry<BString, Object> entry : entries) {
+                String jsonKey = entry.getKey().getValue().trim();
+                if (jsonKey.startsWith(attributePrefix)) {
+                    continue;
+                }
+                Object value = entry.getValue();
+                if (jsonKey.equals(CONTENT)) {
+                    addText(sequence, toStringValue(value));
+                    continue;
+                }
+                int elementScope = enterScope(value, scope);
+                if (isArray(value)) {
+                    sequence.addAll(traverseNode(value, elementScope, jsonKey));
+                } else {
+                    List<BXml> children = traverseNode(value, elementScope, null);
+                    sequence.add(getElement(jsonKey, children, getAttributes(value, scope)));
+                }
+            }
+        } else if (isArray(node)) {
+            String entryTag = key != null ? key : arrayEntryTag;
+            String childKey = arrayEntryTag.isEmpty() ? key : null;
+            for (int i = 0; i < getLength(node); i++) {
+                Object item = getItem(node, i);
+                int itemScope = enterScope(item, scope);
+                List<BXml> children = traverseNode(item, itemScope, childKey);
+                sequence.add(getElement(entryTag, children, getAttributes(item, scope)));
+            }
+        } else {
+            addText(sequence, toStringValue(node));
+        }
+        return sequence;
+    }
+
+    private void write(Object jsonValue, String rootTag, XmlWriter writer) throws Exception {
+        String rootName = rootTag == null ? ROOT : rootTag;
+        if (!isSingleNode(jsonValue)) {
+            enterScope(jsonValue, 0);
+            writeElement(rootName, jsonValue, 0, 0, null, writer);
+            return;
+        }
+        Set<Map.Entry<BString, Object>> entries = getEntries(jsonValue);
+        if (entries != null) {
+            if (entries.isEmpty()) {
+                return;
+            }
+            Map.Entry<BString, Object> entry = entries.iterator().next();
+            String key = entry.getKey().getValue();
+            Object value = entry.getValue();
+            enterScope(value, 0);
+            if (isArray(value)) {
+                writeElement(rootName, value, 0, 0, key, writer);
+            } else if (key.equals(CONTENT)) {
+                writer.writeText(toStringValue(value));
+            } else if (rootTag != null) {
+                writer.startElement(rootTag, null, new LinkedHashMap<>());
+                writeElement(key, value, 0, 0, null, writer);
+                writer.endElement();
+            } else {
+                writeElement(key, value, 0, 0, null, writer);
+            }
+            return;
+        }
+        writer.writeText(toStringValue(jsonValue));
+    }
+
+    private void writeNode(Object node, int scope, String key, XmlWriter writer) throws Exception {
+        Set<Map.Entry<BString, Object>> entries = getEntries(node);
+        if (entries != null) {
+            for (Map.Entry<BString, Object> entry : entries) {
+                String jsonKey = entry.getKey().getValue().trim();
+                if (jsonKey.startsWith(attributePrefix)) {
+                    continue;
+                }
+                Object value = entry.getValue();
+                if (jsonKey.equals(CONTENT)) {
+                    writer.writeText(toStringValue(value));
+                    continue;
+                }
+                int elementScope = enterScope(value, scope);
+                if (isArray(value)) {
+                    writeNode(value, elementScope, jsonKey, writer);
+                } else {
+                    writeElement(jsonKey, value, scope, elementScope, null, writer);
+                }
+            }
+        } else if (isArray(node)) {
+            String entryTag = key != null ? key : arrayEntryTag;
+            String childKey = arrayEntryTag.isEmpty() ? key : null;
+            for (int i = 0; i < getLength(node); i++) {
+                Object item = getItem(node, i);
+                int itemScope = enterScope(item, scope);
+                writeElement(entryTag, item, scope, itemScope, childKey, writer);
+            }
+        } else {
+            writer.writeText(toStringValue(node));
+        }
+    }
+
+    /**
+     * Writes an element and its children. Unlike the XML value, which is created after its children, the start tag
+     * is written first, so the attributes only see the namespaces declared by the element and its ancestors.
+     */
+    private void writeElement(String name, Object value, int scope, int childScope, String childKey,
+                              XmlWriter writer) throws Exception {
+        Map<String, String> attributes = getAttributes(value, scope);
+        int index = name.indexOf(':');
+        writer.startElement(getElementName(name, attributes), index >= 0 ? name.substring(0, index) : null,
+                attributes);
+        writeNode(value, childScope, childKey, writer);
+        writer.endElement();
+    }
+
+    private static boolean isSingleNode(Object node) {
+        Set<Map.Entry<BString, Object>> entries = getEntries(node);
+        if (entries != null && entries.size() > 1) {
+            return false;
+        }
+        return !isArray(node);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Set<Map.Entry<BString, Object>> getEntries(Object node) {
+        if (node instanceof BMap) {
+            return ((BMap<BString, Object>) node).entrySet();
+        } else if (node instanceof ObjectNode) {
+            return ((ObjectNode) node).getEntries().entrySet();
+        }
+        return null;
+    }
+
+    private static boolean isArray(Object node) {
+        return node instanceof BArray || node instanceof List;
+    }
+
+    private static int getLength(Object node) {
+        return node instanceof List ? ((List<?>) node).size() : ((BArray) node).getLength();
+    }
+
+    private static Object getItem(Object node, int index) {
+        return node instanceof List ? ((List<?>) node).get(index) : ((BArray) node).get(index);
+    }
+
+    /**
+     * Adds the namespace declarations of the given JSON value to the scope of its parent.
+     *
+     * @param node  JSON value of the element
+     * @param scope size of the scope of the parent element
+     * @return size of the scope of the element
+     */
+    private int enterScope(Object node, int scope) throws Exception {
+        if (namespaceScope.size() > scope) {
+            namespaceScope.subList(scope, namespaceScope.size()).clear();
+        }
+        Set<Map.Entry<BString, Object>> entries = getEntries(node);
+        if (entries != null) {
+            for (Map.Entry<BString, Object> entry : entries) {
+                String key = entry.getKey().getValue();
+                if (!key.startsWith(attributePrefix)) {
+                    continue;
+                }
+                Object value = entry.getValue();
+                if (getEntries(value) != null || isArray(value)) {
+                    throw new Exception(ATTRIBUTE_ERROR + ".");
+                }
+                if (key.startsWith(namespacePrefix)) {
+                    int index = key.indexOf(':');
+                    String declaration = index < 0 ? NAMESPACE_DECLARATION :
+                            NAMESPACE_DECLARATION + key.substring(index + 1);
+                    namespaceScope.add(new String[]{declaration, toStringValue(value)});
+                }
+            }
+        }
+        for (String[] namespace : namespaceScope) {
+            allNamespaces.put(namespace[0], namespace[1]);
+        }
+        return namespaceScope.size();
+    }
+
+    /**
+     * Returns the attributes of the element, which starts with the namespace declarations of its ancestors.
+     *
+     * @param node  JSON value of the element
+     * @param scope size of the scope of the parent element
+     * @return attributes of the element
+     */
+    private Map<String, String> getAttributes(Object node, int scope) throws Exception {
+        Map<String, String> attributes = new LinkedHashMap<>();
+        for (int i = 0; i < scope; i++) {
+            String[] namespace = namespaceScope.get(i);
+            attributes.put(namespace[0], namespace[1]);
+        }
+        Set<Map.Entry<BString, Object>> entries = getEntries(node);
+        if (entries == null) {
+            return attributes;
+        }
+        for (Map.Entry<BString, Object> entry : entries) {
+            String key = entry.getKey().getValue();
+            if (!key.startsWith(attributePrefix)) {
+                continue;
+            }
+            String value = toStringValue(entry.getValue());
+            int index = key.indexOf(':');
+            if (index >= 0) {
+                String suffix = key.substring(index + 1);
+                if (key.startsWith(namespacePrefix)) {
+                    attributes.put(NAMESPACE_DECLARATION + suffix, value);
+                } else {
+                    String prefix = key.substring(getStartIndex(key), index);
+                    String namespaceUrl = allNamespaces.get(NAMESPACE_DECLARATION + prefix);
+                    if (namespaceUrl == null) {
+                        throw new Exception("The namespace of the prefix '" + prefix + "' in the attribute '" + key +
+                                "' is not declared");
+                    }
+                    attributes.put("{" + namespaceUrl + "}" + suffix, value);
+                }
+            } else if (key.equals(namespacePrefix)) {
+                attributes.put(XMLNS, value);
+            } else {
+                attributes.put(key.substring(getStartIndex(key)), value);
+            }
+        }
+        return attributes;
+    }
+
+    private int getStartIndex(String key) {
+        if (attributePrefix.equals(TO_XML_ATTRIBUTE_PREFIX)) {
+            int location = key.indexOf('_');
+            if (location >= 0) {
+                return location + 1;
+            }
+        }
+        return key.offsetByCodePoints(0, 1);
+    }
+
+    private BXml getElement(String name, List<BXml> children, Map<String, String> attributes) throws Exception {
+        return createElement(getElementName(name, attributes), attributes, children, tracker);
+    }
+
+    /**
+     * Returns the expanded name of the element, which is `{uri}name` when the prefix of the name is declared. The
+     * namespace declarations of the attributes are updated to the ones used by the element.
+     */
+    private String getElementName(String name, Map<String, String> attributes) throws Exception {
+        int index = name.indexOf(':');
+        if (index >= 0) {
+            String prefix = name.substring(0, index);
+            String elementName = name.substring(index + 1);
+            String declaration = NAMESPACE_DECLARATION + prefix;
+            String namespaceUrl = attributes.getOrDefault(declaration, "");
+            if (namespaceUrl.isEmpty()) {
+                namespaceUrl = allNamespaces.getOrDefault(declaration, "");
+                if (!namespaceUrl.isEmpty()) {
+                    attributes.put(declaration, namespaceUrl);
+                }
+            }
+            if (namespaceUrl.isEmpty()) {
+                return elementName;
+            }
+            return "{" + namespaceUrl + "}" + elementName;
+        }
+        if (name.startsWith(attributePrefix)) {
+            throw new Exception(ATTRIBUTE_ERROR);
+        }
+        if (attributes.containsKey(NAMESPACE_DECLARATION)) {
+            attributes.put(XMLNS, attributes.remove(NAMESPACE_DECLARATION));
+        }
+        return name;
+    }
+
+    private static BXml createElement(String name, Map<String, String> attributes, List<BXml> children,
+                                      ConversionLimits.Tracker tracker) {
+        if (tracker != null) {
+            tracker.addElement(attributes.size());
+        }
+        BXml element = ValueCreator.createXmlItem(QName.valueOf(name), ValueCreator.createXmlSequence(children));
+        if (!attributes.isEmpty()) {
+            BMap<BString, BString> attributeMap = ValueCreator.createMapValue(ATTRIBUTE_MAP_TYPE);
+            for (Map.Entry<String, String> attribute : attributes.entrySet()) {
+                attributeMap.put(fromString(attribute.getKey()), fromString(attribute.getValue()));
+            }
+            element.setAttributes(attributeMap);
+        }
+        return element;
+    }
+
+    /**
+     * Adds a text node to the sequence. As in XML sequences, an empty text is not added and adjacent texts are
+     * merged.
+     */
+    private void addText(List<BXml> sequence, String text) {
+        if (text.isEmpty()) {
+            return;
+        }
+        int last = sequence.size() - 1;
+        if (last >= 0 && sequence.get(last).getNodeType() == XmlNodeType.TEXT) {
+            sequence.set(last, ValueCreator.createXmlText(sequence.get(last).getTextValue() + text));
+        } else {
+            sequence.add(createText(text));
+        }
+    }
+
+    private BXml createText(String text) {
+        if (text.isEmpty()) {
+            return ValueCreator.createXmlSequence();
+        }
+        if (tracker != null) {
+            tracker.addText();
+        }
+        return ValueCreator.createXmlText(text);
+    }
+
+    private static String toStringValue(Object value) {
+        return StringUtils.getStringValue(value, null);
+    }
+
+    /**
+     * A JSON object whose entries are computed when the object is converted.
+     */
+    interface ObjectNode {
+
+        Map<BString, Object> getEntries();
+    }
+}
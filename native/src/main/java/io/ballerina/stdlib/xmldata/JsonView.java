@@ -0,0 +1,243 @@
+/*
+ * Copyright (c) 2023 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.xmldata;
+
+import io.ballerina.runtime.api.creators.ValueCreator;
+import io.ballerina.runtime.api.types.XmlNodeType;
+import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.values.BArray;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BObject;
+import io.ballerina.runtime.api.values.BRefValue;
+import io.ballerina.runtime.api.values.BString;
+import io.ballerina.runtime.api.values.BXml;
+import io.ballerina.runtime.api.values.BXmlItem;
+import io.ballerina.runtime.api.values.BXmlSequence;
+import io.ballerina.stdlib.xmldata.utils.Constants;
+import io.ballerina.stdlib.xmldata.utils.ModuleUtils;
+import io.ballerina.stdlib.xmldata.utils.XmlDataUtils;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The native implementation of the `JsonView` class, which converts an XML value to JSON one subtree at a time. The
+ * view follows a path through the elements as long as each name of the path matches exactly one child element, and
+ * only the element at the end of the path is converted. Otherwise, the element reached so far is converted and the
+ * rest of the path is read from its JSON value. The converted values are cached, so they are the same as the
+ * corresponding values of the `toJson` API and each of them is converted once. The cached values are made read-only
+ * before they are returned, as they are shared by the strands which use the view.
+ *
+ * @since 2.5.0
+ */
+public class JsonView {
+
+    private static final String JSON_VIEW = "JsonView";
+    private static final String VIEW = "view";
+    private static final Object NO_ELEMENT = new Object();
+
+    private final BXml xml;
+    private final String attributePrefix;
+    private final boolean preserveNamespaces;
+    private final Node root;
+
+    private JsonView(BXml xml, String attributePrefix, boolean preserveNamespaces) {
+        this.xml = xml;
+        this.attributePrefix = attributePrefix;
+        this.preserveNamespaces = preserveNamespaces;
+        List<BXml> items = xml instanceof BXmlSequence ? ((BXmlSequence) xml).getChildrenList() :
+                Collections.singletonList(xml);
+        this.root = new Node(null, null, items, null, new NamespaceContext());
+    }
+
+    /**
+     * Creates a view of the given XML value.
+     *
+     * @param xml     XML value to convert
+     * @param options `XmlOptions` of the conversion
+     * @return the `JsonView` object
+     */
+    public static Object toJsonView(BXml xml, BMap<?, ?> options) {
+        String attributePrefix = ((BString) options.get(StringUtils.fromString(Constants.OPTIONS_ATTRIBUTE_PREFIX)))
+                .getValue();
+        boolean preserveNamespaces = ((Boolean) options.get(StringUtils.fromString(Constants.OPTIONS_PRESERVE_NS)));
+        BObject view = ValueCreator.createObjectValue(ModuleUtils.getModule(), JSON_VIEW);
+        view.addNativeData(VIEW, new JsonView(xml, attributePrefix, preserveNamespaces));
+        return view;
+    }
+
+    /**
+     * Returns the JSON value at the given path.
+     *
+     * @param view the `JsonView` object
+     * @param path keys of the objects and indices of the arrays from the root of the JSON value
+     * @return the JSON value, `null` if there is no value at the path, or an error if the XML cannot be converted
+     */
+    public static Object get(BObject view, BArray path) {
+        try {
+            return getView(view).get(path.getStringArray());
+        } catch (Exception e) {
+            return XmlDataUtils.getError(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Returns the JSON value of the whole XML value.
+     *
+     * @param view the `JsonView` object
+     * @return the JSON value, or an error if the XML cannot be converted
+     */
+    public static Object toJson(BObject view) {
+        try {
+            return getView(view).root.getValue();
+        } catch (Exception e) {
+            return XmlDataUtils.getError(e.getMessage(), e);
+        }
+    }
+
+    private static JsonView getView(BObject view) {
+        return (JsonView) view.getNativeData(VIEW);
+    }
+
+    private Object get(String[] path) throws Exception {
+        Node node = root;
+        int index = 0;
+        while (index < path.length) {
+            Node child = node.getChild(path[index]);
+            if (child == null) {
+                break;
+            }
+            node = child;
+            index++;
+        }
+        Object value = node.getValue();
+        for (; index < path.length && value != null; index++) {
+            value = getMember(value, path[index]);
+        }
+        return value;
+    }
+
+    private static Object getMember(Object value, String key) {
+        if (value instanceof BMap) {
+            return ((BMap<?, ?>) value).get(StringUtils.fromString(key));
+        } else if (value instanceof BArray) {
+            BArray array = (BArray) value;
+            try {
+                int index = Integer.parseInt(key);
+                return index >= 0 && index < array.size() ? array.get(index) : null;
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Whether the given key can only be the key of child elements. The keys of the attributes start with the
+     * attribute prefix, and the text of an element with attributes has the `#content` key.
+     */
+    private boolean isElementKey(String key) {
+        return !attributePrefix.isEmpty() && !key.startsWith(attributePrefix) && !key.startsWith("#");
+    }
+
+    /**
+     * An element of the view, or the root of the XML value. The children are found by their keys when they are first
+     * accessed, and the JSON value is converted when it is first needed.
+     */
+    private class Node {
+
+        private final BXmlItem element;
+        private final String key;
+        private final List<BXml> items;
+        private final BMap<BString, BString> parentAttributeMap;
+        // The namespaces in the scope of the parent of the element.
+        private final NamespaceContext parentScope;
+        private final Map<String, Object> children = new ConcurrentHashMap<>();
+        private Object value;
+        // The value is not enough to tell whether the element is converted, as it may be converted to nil.
+        private boolean converted = false;
+
+        Node(BXmlItem element, String key, List<BXml> items, BMap<BString, BString> parentAttributeMap,
+             NamespaceContext parentScope) {
+            this.element = element;
+            this.key = key;
+            this.items = items;
+            this.parentAttributeMap = parentAttributeMap;
+            this.parentScope = parentScope;
+        }
+
+        /**
+         * Returns the node of the only child element with the given key, or `null` if there is no such element or
+         * more than one of them.
+         */
+        Node getChild(String childKey) {
+            if (!isElementKey(childKey)) {
+                return null;
+            }
+            Object child = children.computeIfAbsent(childKey, this::findChild);
+            return child == NO_ELEMENT ? null : (Node) child;
+        }
+
+        private Object findChild(String childKey) {
+            BXmlItem match = null;
+            for (BXml item : items) {
+                if (item.getNodeType() != XmlNodeType.ELEMENT ||
+                        !childKey.equals(XmlToJson.getElementKey((BXmlItem) item, preserveNamespaces))) {
+                    continue;
+                }
+                if (match != null) {
+                    return NO_ELEMENT;
+                }
+                match = (BXmlItem) item;
+            }
+            if (match == null) {
+                return NO_ELEMENT;
+            }
+            NamespaceContext scope = parentScope.copy();
+            BMap<BString, BString> attributeMap = null;
+            if (element != null) {
+                attributeMap = element.getAttributesMap();
+                scope.enter(attributeMap);
+            }
+            return new Node(match, childKey, match.getChildrenSeq().getChildrenList(), attributeMap, scope);
+        }
+
+        synchronized Object getValue() throws Exception {
+            if (!converted) {
+                Object json;
+                if (element == null) {
+                    json = XmlToJson.convertToJSON(xml, attributePrefix, preserveNamespaces, null, null,
+                            new NamespaceContext());
+                } else {
+                    Object parent = XmlToJson.convertToJSON(element, attributePrefix, preserveNamespaces, null,
+                            parentAttributeMap, parentScope.copy());
+                    json = ((BMap<?, ?>) parent).get(StringUtils.fromString(key));
+                }
+                if (json instanceof BRefValue) {
+                    ((BRefValue) json).freezeDirect();
+                }
+                value = json;
+                converted = true;
+            }
+            return value;
+        }
+    }
+}
@@ -18,28 +18,35 @@
 
 package io.ballerina.stdlib.xmldata;
 
+import io.ballerina.runtime.api.Environment;
+import io.ballerina.runtime.api.Future;
 import io.ballerina.runtime.api.TypeTags;
 import io.ballerina.runtime.api.creators.TypeCreator;
 import io.ballerina.runtime.api.creators.ValueCreator;
 import io.ballerina.runtime.api.types.ArrayType;
 import io.ballerina.runtime.api.types.MapType;
+import io.ballerina.runtime.api.types.RecordType;
 import io.ballerina.runtime.api.types.TableType;
 import io.ballerina.runtime.api.types.Type;
 import io.ballerina.runtime.api.utils.StringUtils;
 import io.ballerina.runtime.api.utils.TypeUtils;
+import io.ballerina.runtime.api.values.BArray;
 import io.ballerina.runtime.api.values.BError;
 import io.ballerina.runtime.api.values.BMap;
 import io.ballerina.runtime.api.values.BString;
 import io.ballerina.runtime.api.values.BTable;
 import io.ballerina.runtime.api.values.BTypedesc;
 import io.ballerina.runtime.api.values.BXml;
+import io.ballerina.runtime.api.values.BXmlItem;
 import io.ballerina.runtime.api.values.BXmlSequence;
 import io.ballerina.stdlib.xmldata.utils.Constants;
+import io.ballerina.stdlib.xmldata.utils.ConversionException;
 import io.ballerina.stdlib.xmldata.utils.XmlDataUtils;
 import org.ballerinalang.langlib.value.CloneWithType;
 
 import java.util.List;
 import java.util.Map;
+import java.util.function.IntConsumer;
 
 /**
  * This class converts an XML to a Ballerina record type.
@@ -48,49 +55,82 @@ import java.util.Map;
  */
 public class MapFromXml {
 
+    public static Object fromXml(BXml xml, BTypedesc type, boolean ignoreUnknown) {
+        return fromXml(xml, type, true, ignoreUnknown);
+    }
+
+    /**
+     * Converts each XML value of the array to the given type. The type is validated once for the batch, and the
+     * values which fail to convert are returned as errors in the results. The values converted in parallel are
+     * converted on the pool of {@link ParallelConversion}, and the strand is completed when they are done, without
+     * blocking its thread.
+     *
+     * @param env       environment of the call
+     * @param xmlValues XML values to convert
+     * @param parallel  whether the values are converted in parallel
+     * @param type      record or map type to convert the values to
+     * @return an array of the converted values and the errors, in the order of the XML values, or an error if the
+     * type is not valid
+     */
+    public static Object fromXmlBatch(Environment env, BArray xmlValues, boolean parallel, BTypedesc type) {
+        Type describingType = type.getDescribingType();
+        try {
+            XmlToRecord.validateRecordType(describingType);
+        } catch (Exception e) {
+            return XmlDataUtils.getError(e.getMessage(), e);
+        }
+        int size = xmlValues.size();
+        Object[] results = new Object[size];
+        IntConsumer converter = index -> results[index] = fromXmlBatchItem((BXml) xmlValues.get(index), type);
+        if (!parallel) {
+            for (int i = 0; i < size; i++) {
+                converter.accept(i);
+            }
+            return createBatchResult(results, describingType);
+        }
+        Future future = env.markAsync();
+        ParallelConversion.forEachIndex(size, converter, failure -> future.complete(failure == null ?
+                createBatchResult(results, describingType) :
+                XmlDataUtils.getError("Failed to convert the XML values: " + failure)));
+        return null;
+    }
+
+    private static BArray createBatchResult(Object[] results, Type describingType) {
+        ArrayType resultType = TypeCreator.createArrayType(TypeCreator.createUnionType(describingType,
+                XmlDataUtils.getErrorType()));
+        return ValueCreator.createArrayValue(results, resultType);
+    }
+
+    private static Object fromXmlBatchItem(BXml xml, BTypedesc type) {
+        try {
+            return fromXml(xml, type, false, false);
+        } catch (Exception e) {
+            return XmlDataUtils.getError(e.getMessage(), e);
+        }
+    }
+
+    private static Object fromXml(BXml xml, BTypedesc type, boolean validate, boolean ignoreUnknown) {
+        if (ConversionMetrics.isEnabled()) {
+            long startTime = System.nanoTime();
+            ConversionLimits.Tracker tracker = ConversionLimits.newCountingTracker(null);
+            return ConversionMetrics.record(ConversionMetrics.FROM_XML, type.getDescribingType(), startTime, tracker,
+                    convertFromXml(xml, type, validate, ignoreUnknown, tracker));
+        }
+        return convertFromXml(xml, type, validate, ignoreUnknown, null);
+    }
+
     @SuppressWarnings("unchecked")
-    public static Object fromXml(BXml xml, BTypedesc type) {
+    private static Object convertFromXml(BXml xml, BTypedesc type, boolean validate, boolean ignoreUnknown,
+                                         ConversionLimits.Tracker tracker) {
         Type describingType = type.getDescribingType();
         if (describingType.getTag() == TypeTags.RECORD_TYPE_TAG) {
-            Object output;
-            try {
-                if (describingType.getFlags() != Constants.DEFAULT_TYPE_FLAG) {
-                    String recordName = describingType.getName();
-                    String elementName = getKey(xml);
-                    if (!recordName.equals(elementName)) {
-                        return XmlDataUtils.getError("The record type name: " + recordName +
-                                " mismatch with given XML name: " + elementName);
-                    }
-                    output = XmlToRecord.convertToJson(xml, true, Constants.ADD_IF_HAS_ANNOTATION,
-                            type);
-                } else {
-                    output =  XmlToRecord.convertToJson(xml, true, Constants.SKIP_ATTRIBUTE, type);
-                }
-                if (output instanceof BError) {
-                    return XmlDataUtils.getError("XML type mismatch with record type: " +
-                            ((BError) output).getErrorMessage());
-                }
-                BMap<BString, Object> record = (BMap<BString, Object>) output;
-                if (describingType.getFlags() == Constants.DEFAULT_TYPE_FLAG) {
-                    output = CloneWithType.cloneWithType(output, type);
-                } else {
-                    output = CloneWithType.cloneWithType(record.get(record.getKeys()[0]), type);
-                }
-                if (output instanceof BError) {
-                    return XmlDataUtils.getError("XML type mismatch with record type: " +
-                            ((Map) ((BError) output).getDetails()).get(StringUtils.fromString("message")).
-                                    toString());
-                }
-                return output;
-            } catch (Exception e) {
-                return XmlDataUtils.getError("Failed to convert xml to record type: " + e.getMessage());
-            }
+            return toRecord(xml, type, true, validate, ignoreUnknown, tracker);
         } else {
             try {
                 Type valueType = ((MapType) describingType).getConstrainedType();
                 isValidXmlWithOutputType(xml, valueType);
                 Object output = XmlToJson.toJson(xml, false, Constants.SKIP_ATTRIBUTE,
-                        type.getDescribingType());
+                        type.getDescribingType(), null, tracker);
                 if (valueType.getTag() == TypeTags.TABLE_TAG) {
                     TableType tableType = (TableType) valueType;
                     BMap<BString, Object> tableMap = ValueCreator.createMapValue(TypeCreator.createMapType(tableType));
@@ -109,8 +149,87 @@ public class MapFromXml {
                 }
                 return output;
             } catch (Exception e) {
-                return XmlDataUtils.getError(e.getMessage());
+                return XmlDataUtils.getError(e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Converts an XML element to the given record type.
+     *
+     * @param xml       XML element to convert
+     * @param type      record type to convert the XML to
+     * @param matchName whether the name of the XML element has to match the name of the record type
+     * @return the record value or an error
+     */
+    static Object toRecord(BXml xml, BTypedesc type, boolean matchName) {
+        return toRecord(xml, type, matchName, true, false, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object toRecord(BXml xml, BTypedesc type, boolean matchName, boolean validate,
+                                   boolean ignoreUnknown, ConversionLimits.Tracker tracker) {
+        Type describingType = type.getDescribingType();
+        Object output;
+        try {
+            if (describingType.getFlags() != Constants.DEFAULT_TYPE_FLAG) {
+                String recordName = describingType.getName();
+                String elementName = getKey(xml);
+                if (matchName && !recordName.equals(elementName)) {
+                    return XmlDataUtils.getError("The record type name: " + recordName +
+                            " mismatch with given XML name: " + elementName);
+                }
+                if (validate) {
+                    XmlToRecord.validateRecordType(describingType);
+                }
+                Object record;
+                try {
+                    record = XmlRecordBinder.bindRootElement(xml, (RecordType) describingType, ignoreUnknown,
+                            tracker);
+                } catch (ConversionException e) {
+                    return XmlDataUtils.getError("XML type mismatch with record type: " + e.getMessage(), e);
+                }
+                if (record != null) {
+                    return record;
+                }
+                output = XmlToRecord.convertToJson(xml, true, Constants.ADD_IF_HAS_ANNOTATION, type,
+                        ignoreUnknown ? RecordBindingPlan.of((RecordType) describingType).getRootFilter() : null,
+                        tracker);
+            } else {
+                if (validate) {
+                    XmlToRecord.validateRecordType(describingType);
+                }
+                Object record;
+                try {
+                    record = XmlRecordBinder.bindContent(xml, (RecordType) describingType,
+                            Constants.SKIP_ATTRIBUTE, true, ignoreUnknown, tracker);
+                } catch (ConversionException e) {
+                    return XmlDataUtils.getError("XML type mismatch with record type: " + e.getMessage(), e);
+                }
+                if (record != null) {
+                    return record;
+                }
+                output = XmlToRecord.convertToJson(xml, true, Constants.SKIP_ATTRIBUTE, type,
+                        ignoreUnknown ? RecordBindingPlan.of((RecordType) describingType) : null, tracker);
+            }
+            if (output instanceof BError) {
+                return XmlDataUtils.getError("XML type mismatch with record type: " +
+                        ((BError) output).getErrorMessage(), (BError) output);
+            }
+            BMap<BString, Object> record = (BMap<BString, Object>) output;
+            if (describingType.getFlags() == Constants.DEFAULT_TYPE_FLAG) {
+                output = CloneWithType.cloneWithType(output, type);
+            } else {
+                output = CloneWithType.cloneWithType(record.get(record.getKeys()[0]), type);
             }
+            if (output instanceof BError) {
+                return XmlDataUtils.getError("XML type mismatch with record type: " +
+                        ((Map) ((BError) output).getDetails()).get(StringUtils.fromString("message")).
+                                toString());
+            }
+            return output;
+        } catch (Exception e) {
+            return XmlDataUtils.getError("Failed to convert xml to record type: " + e.getMessage(), e);
         }
     }
 
@@ -123,7 +242,7 @@ public class MapFromXml {
         return elementKey.substring(startIndex);
     }
 
-    private static void isValidXmlWithOutputType(BXml xml, Type type) throws Exception {
+    private static void isValidXmlWithOutputType(BXml xml, Type type) throws ConversionException {
         int typeTag = type.getTag();
         if (typeTag == TypeTags.ARRAY_TAG) {
             typeTag = ((ArrayType) type).getElementType().getTag();
@@ -132,8 +251,15 @@ public class MapFromXml {
             BXml elements = xml.elements().children();
             if (elements instanceof BXmlSequence) {
                 if (isNotValidXml(((BXmlSequence) elements).getChildrenList())) {
-                    throw new Exception("Failed to convert the xml:" + xml.elements().children() + " to " +
-                            type  + " type.");
+                    // Only the beginning of the XML is written, as the whole document may be in the message.
+                    String snippet = XmlSnippet.of(elements);
+                    ConversionException exception = new ConversionException("Failed to convert the xml:" +
+                            snippet + " to " + type  + " type.", type);
+                    exception.setSnippet(snippet);
+                    if (xml instanceof BXmlItem) {
+                        exception.addPathSegment(XmlToJson.getElementKey((BXmlItem) xml, false));
+                    }
+                    throw exception;
                 }
             }
         }
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2023 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.xmldata;
+
+import io.ballerina.runtime.api.values.BString;
+import io.ballerina.stdlib.xmldata.utils.BoundedCache;
+
+import javax.xml.namespace.QName;
+
+import static io.ballerina.runtime.api.utils.StringUtils.fromString;
+
+/**
+ * Shares the `BString` keys of the element names, the attribute names and `#content` across the conversions. The
+ * documents usually repeat a small set of names, so the key of a name is created once instead of for every element.
+ * The caches are bounded, so documents with many distinct names do not hold on to the keys.
+ *
+ * @since 2.5.0
+ */
+class NameKeyCache {
+
+    static final BString CONTENT = fromString("#content");
+
+    private static final int MAX_CACHED_KEYS = 4096;
+    private static final int MAX_CACHED_PREFIXES = 16;
+    private static final String NO_PREFIX = "";
+    // The element keys by the local name and then by the prefix, so the key is found without building the name.
+    private static final BoundedCache<String, BoundedCache<String, BString>> ELEMENT_KEYS =
+            BoundedCache.byEquality(MAX_CACHED_KEYS);
+    private static final BoundedCache<String, BString> KEYS = BoundedCache.byEquality(MAX_CACHED_KEYS);
+
+    private NameKeyCache() {
+    }
+
+    /**
+     * Returns the key of an element, which is `prefix:name` when the namespaces are preserved and the element has a
+     * prefix, and the local name otherwise.
+     *
+     * @param name               name of the element
+     * @param preserveNamespaces whether the prefix is included in the key
+     * @return the key of the element
+     */
+    static BString getElementKey(QName name, boolean preserveNamespaces) {
+        return getElementKey(preserveNamespaces ? name.getPrefix() : null, name.getLocalPart());
+    }
+
+    /**
+     * Returns the key of an element with the given prefix and local name.
+     *
+     * @param prefix    prefix of the element, or `null` if the key has no prefix
+     * @param localName local name of the element
+     * @return the key of the element
+     */
+    static BString getElementKey(String prefix, String localName) {
+        String keyPrefix = prefix == null ? NO_PREFIX : prefix;
+        BoundedCache<String, BString> keys = ELEMENT_KEYS.get(localName,
+                name -> BoundedCache.byEquality(MAX_CACHED_PREFIXES));
+        return keys.get(keyPrefix, key -> fromString(key.isEmpty() ? localName : key + ":" + localName));
+    }
+
+    /**
+     * Returns the shared key of the given name.
+     *
+     * @param name name of the attribute or the field
+     * @return the key of the name
+     */
+    static BString getKey(String name) {
+        return KEYS.get(name, key -> fromString(key));
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2023 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.xmldata;
+
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BString;
+import io.ballerina.runtime.api.values.BXmlItem;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The namespace bindings in the scope of the element being converted. A scope is entered for each element and the
+ * bindings declared by the element are added to it. As the Ballerina XML parser adds the declarations in scope to
+ * the attributes of every element, an element usually declares the same bindings as its parent, and those are not
+ * added again.
+ *
+ * @since 2.5.0
+ */
+class NamespaceContext {
+
+    private static final int PREFIX_BEGIN_INDEX = BXmlItem.XMLNS_NS_URI_PREFIX.length();
+
+    // The declaration key, the prefix and the URI of the bindings in scope, in the order they were declared.
+    private final List<String[]> bindings = new ArrayList<>();
+    private int[] scopes = new int[16];
+    private int depth = 0;
+
+    /**
+     * Enters the scope of an element.
+     *
+     * @param attributeMap attributes of the element, including its namespace declarations
+     */
+    void enter(BMap<BString, BString> attributeMap) {
+        enter();
+        for (Map.Entry<BString, BString> entry : attributeMap.entrySet()) {
+            String key = entry.getKey().getValue();
+            if (key.startsWith(BXmlItem.XMLNS_NS_URI_PREFIX)) {
+                declare(key, entry.getValue().getValue());
+            }
+        }
+    }
+
+    /**
+     * Enters the scope of an element, to which the namespace declarations of the element are added with
+     * {@link #declarePrefix(String, String)}. This is used when the element is read from a parser instead of a
+     * `BXml`.
+     */
+    void enter() {
+        if (depth == scopes.length) {
+            scopes = Arrays.copyOf(scopes, depth * 2);
+        }
+        scopes[depth++] = bindings.size();
+    }
+
+    /**
+     * Adds a namespace declaration of the element entered last.
+     *
+     * @param prefix prefix of the namespace, which is `xmlns` for the default namespace
+     * @param uri    namespace URI
+     */
+    void declarePrefix(String prefix, String uri) {
+        declare(BXmlItem.XMLNS_NS_URI_PREFIX + prefix, uri);
+    }
+
+    /**
+     * Returns the namespace bound to the given prefix in the current scope.
+     *
+     * @param prefix prefix of the namespace, which is `xmlns` for the default namespace
+     * @return the namespace URI, or `null` if the prefix is not bound
+     */
+    String getNamespaceOfPrefix(String prefix) {
+        return getNamespace(BXmlItem.XMLNS_NS_URI_PREFIX + prefix);
+    }
+
+    private void declare(String declarationKey, String uri) {
+        if (!uri.equals(getNamespace(declarationKey))) {
+            bindings.add(new String[]{declarationKey, declarationKey.substring(PREFIX_BEGIN_INDEX), uri});
+        }
+    }
+
+    /**
+     * Returns a new context with the bindings and the scopes of the current element and its ancestors, so that the
+     * descendants of the current element can be converted on another thread.
+     *
+     * @return the copy of the context
+     */
+    NamespaceContext copy() {
+        NamespaceContext context = new NamespaceContext();
+        context.bindings.addAll(bindings);
+        context.scopes = Arrays.copyOf(scopes, scopes.length);
+        context.depth = depth;
+        return context;
+    }
+
+    /**
+     * Returns the number of the scopes entered, which is the depth of the element entered last.
+     *
+     * @return the depth of the current scope
+     */
+    int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Exits the scope of the element entered last.
+     */
+    void exit() {
+        int scope = scopes[--depth];
+        if (bindings.size() > scope) {
+            bindings.subList(scope, bindings.size()).clear();
+        }
+    }
+
+    /**
+     * Returns the prefix bound to the given namespace in the current scope. When more than one prefix is bound to
+     * the namespace, the one declared last is returned.
+     *
+     * @param uri namespace URI
+     * @return the prefix, which is `xmlns` for the default namespace, or `null` if the namespace is not bound
+     */
+    String getPrefix(String uri) {
+        for (int i = bindings.size() - 1; i >= 0; i--) {
+            String[] binding = bindings.get(i);
+            if (binding[2].equals(uri) && uri.equals(getNamespace(binding[0]))) {
+                return binding[1];
+            }
+        }
+        return null;
+    }
+
+    private String getNamespace(String declarationKey) {
+        for (int i = bindings.size() - 1; i >= 0; i--) {
+            String[] binding = bindings.get(i);
+            if (binding[0].equals(declarationKey)) {
+                return binding[2];
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,277 @@
+/*
+ * Copyright (c) 2023 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.xmldata;
+
+import java.math.BigDecimal;
+
+/**
+ * Parses the text of the XML values to numbers. The characters are read directly, and `null` is returned for a text
+ * which is not a number instead of throwing an exception, as the text of a value is often tried against more than one
+ * type. The texts accepted are the ones accepted by `Long.parseLong` for `int` and by `Double.parseDouble` for
+ * `float`. A `decimal` is created from the digits of the text, so it is exact.
+ *
+ * @since 2.5.0
+ */
+class NumberParser {
+
+    // The integers up to 15 digits and the powers of ten up to 22 are exact as doubles, so a number within those
+    // limits is converted to the nearest double with a single multiplication or division.
+    private static final int MAX_EXACT_DIGITS = 15;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final int MAX_LONG_DIGITS = 18;
+    private static final int MAX_EXPONENT_DIGITS = 9;
+    private static final String NAN = "NaN";
+    private static final String INFINITY = "Infinity";
+
+    private NumberParser() {
+    }
+
+    /**
+     * Parses an `int` value.
+     *
+     * @param text text of the value
+     * @return the value, or `null` if the text is not an integer within the range of `int`
+     */
+    static Long parseInt(String text) {
+        int length = text.length();
+        if (length == 0) {
+            return null;
+        }
+        int index = 0;
+        boolean negative = false;
+        char first = text.charAt(0);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            if (++index == length) {
+                return null;
+            }
+        }
+        // The value is accumulated as a negative number, which has a larger range than the positive numbers.
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long multiplicationLimit = limit / 10;
+        long result = 0;
+        for (; index < length; index++) {
+            int digit = text.charAt(index) - '0';
+            if (digit < 0 || digit > 9 || result < multiplicationLimit) {
+                return null;
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                return null;
+            }
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+
+    /**
+     * Parses a `float` value.
+     *
+     * @param text text of the value
+     * @return the value, or `null` if the text is not a floating point number
+     */
+    static Double parseFloat(String text) {
+        int start = skipWhitespace(text, 0);
+        int end = skipTrailingWhitespace(text, start);
+        if (start == end) {
+            return null;
+        }
+        int index = start;
+        boolean negative = false;
+        char first = text.charAt(index);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            index++;
+        }
+        if (text.startsWith(NAN, index) && index + NAN.length() == end) {
+            return Double.NaN;
+        } else if (text.startsWith(INFINITY, index) && index + INFINITY.length() == end) {
+            return negative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        } else if (isHexNumber(text, index, end)) {
+            return parseHexFloat(text);
+        }
+        Digits number = new Digits();
+        if (!number.read(text, index, end)) {
+            return null;
+        }
+        if (number.digits <= MAX_EXACT_DIGITS && Math.abs(number.exponent) < POWERS_OF_TEN.length &&
+                !number.isExponentTruncated) {
+            double value = number.exponent < 0 ? number.significand / POWERS_OF_TEN[-number.exponent] :
+                    number.significand * POWERS_OF_TEN[number.exponent];
+            return negative ? -value : value;
+        }
+        // The text is a valid number, so it is only left to be rounded by the JDK.
+        return Double.parseDouble(text);
+    }
+
+    /**
+     * Parses a `decimal` value, keeping all the digits of the text.
+     *
+     * @param text text of the value
+     * @return the value, or `null` if the text is not a decimal number
+     */
+    static BigDecimal parseDecimal(String text) {
+        int start = skipWhitespace(text, 0);
+        int end = skipTrailingWhitespace(text, start);
+        if (start == end) {
+            return null;
+        }
+        int index = start;
+        boolean negative = false;
+        char first = text.charAt(index);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            index++;
+        }
+        Digits number = new Digits();
+        if (!number.read(text, index, end)) {
+            return null;
+        }
+        if (number.isExponentTruncated) {
+            return number.digits == 0 ? BigDecimal.ZERO : null;
+        } else if (number.digits <= MAX_LONG_DIGITS) {
+            return BigDecimal.valueOf(negative ? -number.significand : number.significand, -number.exponent);
+        }
+        return new BigDecimal(text.substring(start, number.end));
+    }
+
+    private static int skipWhitespace(String text, int index) {
+        while (index < text.length() && text.charAt(index) <= ' ') {
+            index++;
+        }
+        return index;
+    }
+
+    private static int skipTrailingWhitespace(String text, int start) {
+        int end = text.length();
+        while (end > start && text.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return end;
+    }
+
+    private static boolean isHexNumber(String text, int index, int end) {
+        return index + 1 < end && text.charAt(index) == '0' &&
+                (text.charAt(index + 1) == 'x' || text.charAt(index + 1) == 'X');
+    }
+
+    private static Double parseHexFloat(String text) {
+        try {
+            return Double.parseDouble(text);
+        } catch (NumberFormatException e) {
+            // The hexadecimal numbers are rare, so they are left to the JDK to validate.
+            return null;
+        }
+    }
+
+    /**
+     * The digits and the exponent of a number, read as `significand * 10^exponent`.
+     */
+    private static class Digits {
+
+        // The value of the significant digits, which is only valid when there are at most 18 digits.
+        private long significand = 0;
+        private int digits = 0;
+        private int exponent = 0;
+        // Whether the exponent has more digits than read, in which case the number is zero or out of any range.
+        private boolean isExponentTruncated = false;
+        // The end of the number, before a type suffix.
+        private int end;
+
+        /**
+         * Reads the digits, an optional fraction and an optional exponent, followed by an optional `f` or `d` type
+         * suffix as accepted by `Double.parseDouble`.
+         *
+         * @return true if the text from the index to the end is a number
+         */
+        boolean read(String text, int index, int end) {
+            boolean hasDigits = false;
+            boolean inFraction = false;
+            for (; index < end; index++) {
+                char c = text.charAt(index);
+                if (c >= '0' && c <= '9') {
+                    hasDigits = true;
+                    addDigit(c - '0', inFraction);
+                } else if (c == '.' && !inFraction) {
+                    inFraction = true;
+                } else {
+                    break;
+                }
+            }
+            if (!hasDigits) {
+                return false;
+            }
+            if (index < end && (text.charAt(index) == 'e' || text.charAt(index) == 'E')) {
+                index = readExponent(text, index + 1, end);
+                if (index < 0) {
+                    return false;
+                }
+            }
+            this.end = index;
+            if (index + 1 == end && "fFdD".indexOf(text.charAt(index)) >= 0) {
+                return true;
+            }
+            return index == end;
+        }
+
+        private void addDigit(int digit, boolean inFraction) {
+            if (digit != 0 || digits > 0) {
+                digits++;
+                if (digits <= MAX_LONG_DIGITS) {
+                    significand = significand * 10 + digit;
+                } else if (!inFraction) {
+                    // The digits which do not fit are only counted for the magnitude of the number.
+                    exponent++;
+                }
+            }
+            if (inFraction && digits <= MAX_LONG_DIGITS) {
+                exponent--;
+            }
+        }
+
+        /**
+         * Reads the exponent after `e`.
+         *
+         * @return the index after the exponent, or -1 if there is no valid exponent
+         */
+        private int readExponent(String text, int index, int end) {
+            boolean negative = false;
+            if (index < end && (text.charAt(index) == '-' || text.charAt(index) == '+')) {
+                negative = text.charAt(index) == '-';
+                index++;
+            }
+            int start = index;
+            long value = 0;
+            for (; index < end && text.charAt(index) >= '0' && text.charAt(index) <= '9'; index++) {
+                if (index - start < MAX_EXPONENT_DIGITS) {
+                    value = value * 10 + (text.charAt(index) - '0');
+                }
+            }
+            if (index == start) {
+                return -1;
+            }
+            isExponentTruncated = index - start > MAX_EXPONENT_DIGITS;
+            exponent += negative ? -value : value;
+            return index;
+        }
+    }
+}
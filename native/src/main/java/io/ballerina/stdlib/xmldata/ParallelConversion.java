@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2023 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.xmldata;
+
+import io.ballerina.runtime.api.types.XmlNodeType;
+import io.ballerina.runtime.api.values.BXml;
+import io.ballerina.runtime.api.values.BXmlItem;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Converts the child elements of an element in parallel, when the element has at least the configured number of
+ * children. The subtrees of the children are converted in parallel, and the results are added to the parent in the
+ * document order by the caller, so the repeated names are promoted to arrays in the same way as when the children
+ * are converted one after another. The children with only a text value are left to the caller, as they are cheaper
+ * to convert than to hand over to another thread.
+ * <p>
+ * The conversions run on a fork/join pool of the module, with a thread for each processor, so they do not compete
+ * with the other users of the common pool. The values of a batch are also converted on this pool.
+ *
+ * @since 2.5.0
+ */
+public class ParallelConversion {
+
+    private static final int TASKS_PER_THREAD = 4;
+    private static final String THREAD_NAME_PREFIX = "xmldata-conversion-";
+
+    // The minimum number of the children converted in parallel, or zero if the children are not converted in
+    // parallel.
+    private static volatile int threshold = 0;
+
+    private ParallelConversion() {
+    }
+
+    /**
+     * Sets the minimum number of the children of an element for them to be converted in parallel.
+     *
+     * @param minChildren minimum number of the children, or zero to convert the children on the calling thread
+     */
+    public static void setThreshold(long minChildren) {
+        threshold = (int) Math.max(0, Math.min(minChildren, Integer.MAX_VALUE));
+    }
+
+    /**
+     * Checks whether a sequence of the given size is converted in parallel.
+     *
+     * @param size number of the items of the sequence
+     * @return true if the items are converted in parallel
+     */
+    static boolean isEnabledFor(int size) {
+        int minChildren = threshold;
+        return minChildren > 0 && size >= minChildren;
+    }
+
+    /**
+     * Converts the elements of the sequence which have child elements or attributes, in parallel.
+     *
+     * @param items      items of the sequence
+     * @param namespaces namespaces in the scope of the items, which are copied for each task
+     * @param converter  converts an element within the given namespaces
+     * @return the results by the index of the items, which are {@link Failure} for the elements which failed to
+     * convert, and `null` for the items which are not converted
+     */
+    static Object[] convert(List<BXml> items, NamespaceContext namespaces, ElementConverter converter) {
+        int[] indices = new int[items.size()];
+        int count = 0;
+        for (int i = 0; i < items.size(); i++) {
+            BXml item = items.get(i);
+            if (item.getNodeType() == XmlNodeType.ELEMENT && !XmlToJson.isTextElement((BXmlItem) item)) {
+                indices[count++] = i;
+            }
+        }
+        Object[] results = new Object[items.size()];
+        if (count > 1) {
+            PoolHolder.POOL.invoke(new ConversionTask(items, indices, 0, count, getLeafSize(count), namespaces,
+                    converter, results));
+        }
+        return results;
+    }
+
+    /**
+     * Runs the action for each index from zero to the given size in parallel, without waiting for them. The callback
+     * is called on a thread of the pool when all the actions are done.
+     *
+     * @param size     number of the indices
+     * @param action   action to run for an index
+     * @param callback called with `null` when the actions are done, or with the exception if an action failed
+     */
+    static void forEachIndex(int size, IntConsumer action, Consumer<Throwable> callback) {
+        PoolHolder.POOL.execute(() -> {
+            try {
+                new IndexTask(0, size, getLeafSize(size), action).invoke();
+            } catch (Throwable e) {
+                callback.accept(e);
+                return;
+            }
+            callback.accept(null);
+        });
+    }
+
+    private static int getLeafSize(int count) {
+        return Math.max(1, count / (PoolHolder.POOL.getParallelism() * TASKS_PER_THREAD));
+    }
+
+    /**
+     * Converts an element within the given namespaces.
+     */
+    interface ElementConverter {
+
+        Object convert(BXml element, NamespaceContext namespaces) throws Exception;
+    }
+
+    /**
+     * The exception of an element which failed to convert, which is thrown by the caller when it reaches the element,
+     * so the error of the first element in the document order is returned.
+     */
+    static class Failure {
+
+        private final Exception exception;
+
+        Failure(Exception exception) {
+            this.exception = exception;
+        }
+
+        Exception getException() {
+            return exception;
+        }
+    }
+
+    /**
+     * Converts the elements of a range of the indices, splitting the range until it is small enough.
+     */
+    private static class ConversionTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient List<BXml> items;
+        private final int[] indices;
+        private final int from;
+        private final int to;
+        private final int leafSize;
+        private final transient NamespaceContext namespaces;
+        private final transient ElementConverter converter;
+        private final Object[] results;
+
+        ConversionTask(List<BXml> items, int[] indices, int from, int to, int leafSize, NamespaceContext namespaces,
+                       ElementConverter converter, Object[] results) {
+            this.items = items;
+            this.indices = indices;
+            this.from = from;
+            this.to = to;
+            this.leafSize = leafSize;
+            this.namespaces = namespaces;
+            this.converter = converter;
+            this.results = results;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > leafSize) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new ConversionTask(items, indices, from, middle, leafSize, namespaces, converter, results),
+                        new ConversionTask(items, indices, middle, to, leafSize, namespaces, converter, results));
+                return;
+            }
+            // The namespace context is changed while converting, so each task converts with its own copy.
+            NamespaceContext scope = namespaces.copy();
+            for (int i = from; i < to; i++) {
+                int index = indices[i];
+                try {
+                    results[index] = converter.convert(items.get(index), scope);
+                } catch (Exception e) {
+                    results[index] = new Failure(e);
+                    // The scopes of the elements which failed are not exited.
+                    scope = namespaces.copy();
+                }
+            }
+        }
+    }
+
+    /**
+     * Holds the pool, so it is only created when a conversion is first run in parallel.
+     */
+    private static class PoolHolder {
+
+        private static final ForkJoinPool POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors(),
+                pool -> {
+                    ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                    thread.setName(THREAD_NAME_PREFIX + thread.getPoolIndex());
+                    return thread;
+                }, null, false);
+    }
+
+    /**
+     * Runs the action for a range of the indices, splitting the range until it is small enough.
+     */
+    private static class IndexTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final int leafSize;
+        private final transient IntConsumer action;
+
+        IndexTask(int from, int to, int leafSize, IntConsumer action) {
+            this.from = from;
+            this.to = to;
+            this.leafSize = leafSize;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > leafSize) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new IndexTask(from, middle, leafSize, action), new IndexTask(middle, to, leafSize, action));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                action.accept(i);
+            }
+        }
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2023 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.xmldata;
+
+import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.values.BArray;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.stdlib.xmldata.utils.Constants;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Selects the elements converted by the `toJson` and `toJsonFromBytes` APIs by the `includePaths` and
+ * `excludePaths` options. A path is the names of the elements from the root, separated by `/`, such as
+ * `/Envelope/Body/Result`. A `*` matches any name, and a name without a prefix matches the elements of any prefix.
+ * <p>
+ * A filter is the state of the elements at one level of the document. It is entered for each element, and the
+ * filter for the children of the element is returned, or `null` if the element is skipped. An element is skipped
+ * when it matches an excluded path, or when there are included paths and the element neither matches one of them,
+ * is inside a matching element, nor is on the way to one. The elements on the way to an included path are partial:
+ * only their child elements on the included paths are converted, without their attributes and text. The filters
+ * are immutable, so they are shared by the parallel conversions.
+ *
+ * @since 2.5.0
+ */
+class PathFilter implements ElementFilter {
+
+    private static final String PATH_SEPARATOR = "/";
+    private static final String WILDCARD = "*";
+    private static final char COLON = ':';
+
+    private final String[][] includes;
+    private final String[][] excludes;
+    private final int depth;
+    // Whether the elements at this level are inside an included element, or there are no included paths.
+    private final boolean included;
+    // The included and excluded paths which match the path of the parent element so far.
+    private final boolean[] activeIncludes;
+    private final boolean[] activeExcludes;
+
+    private PathFilter(String[][] includes, String[][] excludes, int depth, boolean included,
+                       boolean[] activeIncludes, boolean[] activeExcludes) {
+        this.includes = includes;
+        this.excludes = excludes;
+        this.depth = depth;
+        this.included = included;
+        this.activeIncludes = activeIncludes;
+        this.activeExcludes = activeExcludes;
+    }
+
+    /**
+     * Creates the filter for the root of the document from the `XmlOptions`.
+     *
+     * @param options `XmlOptions` of the conversion
+     * @return the filter, or `null` if all the elements are converted
+     * @throws Exception if a path is empty
+     */
+    static PathFilter of(BMap<?, ?> options) throws Exception {
+        String[][] includes = getPaths(options, Constants.OPTIONS_INCLUDE_PATHS);
+        String[][] excludes = getPaths(options, Constants.OPTIONS_EXCLUDE_PATHS);
+        if (includes.length == 0 && excludes.length == 0) {
+            return null;
+        }
+        return new PathFilter(includes, excludes, 0, includes.length == 0, allActive(includes.length),
+                allActive(excludes.length));
+    }
+
+    /**
+     * Enters an element at this level.
+     *
+     * @param key key of the element, which is its name with the prefix when namespaces are preserved
+     * @return the filter of the children of the element, or `null` if the element is skipped
+     */
+    @Override
+    public PathFilter enter(String key) {
+        boolean[] childExcludes = null;
+        for (int i = 0; i < excludes.length; i++) {
+            String[] path = excludes[i];
+            if (!activeExcludes[i] || !matches(path[depth], key)) {
+                continue;
+            }
+            if (path.length == depth + 1) {
+                return null;
+            }
+            if (childExcludes == null) {
+                childExcludes = new boolean[excludes.length];
+            }
+            childExcludes[i] = true;
+        }
+        if (included) {
+            // The filter is the same for all the levels below, unless an excluded path is still being matched.
+            return childExcludes == null && !hasActiveExcludes() ? this : new PathFilter(includes, excludes,
+                    depth + 1, true, activeIncludes, orNone(childExcludes, excludes.length));
+        }
+        boolean[] childIncludes = null;
+        boolean childIncluded = false;
+        for (int i = 0; i < includes.length; i++) {
+            String[] path = includes[i];
+            if (!activeIncludes[i] || !matches(path[depth], key)) {
+                continue;
+            }
+            if (path.length == depth + 1) {
+                childIncluded = true;
+            } else {
+                if (childIncludes == null) {
+                    childIncludes = new boolean[includes.length];
+                }
+                childIncludes[i] = true;
+            }
+        }
+        if (!childIncluded && childIncludes == null) {
+            return null;
+        }
+        return new PathFilter(includes, excludes, depth + 1, childIncluded,
+                orNone(childIncludes, includes.length), orNone(childExcludes, excludes.length));
+    }
+
+    /**
+     * Whether the element this filter was entered for is only on the way to an included path, so that only its
+     * child elements are converted.
+     *
+     * @return true if the attributes and the text of the element are skipped
+     */
+    @Override
+    public boolean isPartial() {
+        return !included;
+    }
+
+    private boolean hasActiveExcludes() {
+        for (boolean active : activeExcludes) {
+            if (active) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean matches(String name, String key) {
+        if (name.equals(WILDCARD) || name.equals(key)) {
+            return true;
+        }
+        // A name without a prefix matches the local name of a key with a prefix.
+        int localNameIndex = key.length() - name.length();
+        return name.indexOf(COLON) < 0 && localNameIndex > 0 && key.charAt(localNameIndex - 1) == COLON &&
+                key.startsWith(name, localNameIndex);
+    }
+
+    private static boolean[] orNone(boolean[] active, int count) {
+        return active == null ? new boolean[count] : active;
+    }
+
+    private static boolean[] allActive(int count) {
+        boolean[] active = new boolean[count];
+        for (int i = 0; i < count; i++) {
+            active[i] = true;
+        }
+        return active;
+    }
+
+    private static String[][] getPaths(BMap<?, ?> options, String option) throws Exception {
+        Object value = options.get(StringUtils.fromString(option));
+        if (!(value instanceof BArray)) {
+            return new String[0][];
+        }
+        String[] paths = ((BArray) value).getStringArray();
+        String[][] result = new String[paths.length][];
+        for (int i = 0; i < paths.length; i++) {
+            List<String> names = new ArrayList<>();
+            for (String name : paths[i].split(PATH_SEPARATOR)) {
+                String trimmedName = name.trim();
+                if (!trimmedName.isEmpty()) {
+                    names.add(trimmedName);
+                }
+            }
+            if (names.isEmpty()) {
+                throw new Exception("The path: '" + paths[i] + "' of the " + option +
+                        " option does not contain an element name");
+            }
+            result[i] = names.toArray(new String[0]);
+        }
+        return result;
+    }
+}
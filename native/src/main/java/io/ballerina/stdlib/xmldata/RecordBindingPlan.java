@@ -0,0 +1,386 @@
+/*
+ * Copyright (c) 2023 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.xmldata;
+
+import io.ballerina.runtime.api.TypeTags;
+import io.ballerina.runtime.api.flags.SymbolFlags;
+import io.ballerina.runtime.api.types.ArrayType;
+import io.ballerina.runtime.api.types.Field;
+import io.ballerina.runtime.api.types.RecordType;
+import io.ballerina.runtime.api.types.Type;
+import io.ballerina.runtime.api.types.UnionType;
+import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.utils.TypeUtils;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BString;
+import io.ballerina.stdlib.xmldata.utils.BoundedCache;
+import io.ballerina.stdlib.xmldata.utils.Constants;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Holds the information of a record type that is needed to convert an XML to it. The plan is created once for a
+ * record type and reused by the later conversions, so the fields, the annotations and the validation result of the
+ * record type are not looked up for every XML element. The plan also has a {@link FieldBinding} for each field, in
+ * which the types of the field are resolved once, so the binder of the record type does not resolve types while
+ * traversing the XML.
+ * <p>
+ * The plan is also the {@link ElementFilter} of the elements of the record type, which skips the elements that are
+ * not fields of the records when the unknown fields are ignored.
+ *
+ * @since 2.5.0
+ */
+class RecordBindingPlan implements ElementFilter {
+
+    private static final int MAX_CACHED_PLANS = 1024;
+    private static final String XMLNS = "xmlns";
+    private static final String CONTENT = "#content";
+    private static final BoundedCache<RecordType, RecordBindingPlan> PLANS = BoundedCache.byIdentity(MAX_CACHED_PLANS);
+
+    private final RecordType recordType;
+    private final Map<String, Field> fields;
+    private final Map<String, FieldBinding> fieldBindings;
+    private final List<BString> requiredFields;
+    private final Field contentField;
+    private final String validationError;
+    private final boolean hasAnnotations;
+    // Positions of the annotations in the annotation map of the record type. The position decides whether an
+    // attribute field or a namespace annotation takes effect when both are defined for the same key.
+    private final Map<String, Integer> attributeFields;
+    private final List<NamespaceAnnotation> namespaces;
+    private final ElementFilter rootFilter;
+
+    private RecordBindingPlan(RecordType recordType) {
+        this.recordType = recordType;
+        this.fields = recordType.getFields();
+        this.requiredFields = new ArrayList<>();
+        this.fieldBindings = new HashMap<>();
+        String error = null;
+        for (Field field : fields.values()) {
+            fieldBindings.put(field.getFieldName(), new FieldBinding(field));
+            if (SymbolFlags.isFlagOn(field.getFlags(), SymbolFlags.REQUIRED)) {
+                requiredFields.add(StringUtils.fromString(field.getFieldName()));
+            }
+            if (error == null && field.getFieldType().isNilable()) {
+                error = "The record field: " + field.getFieldName() + " does not support the optional value type: " +
+                        field.getFieldType();
+            }
+        }
+        this.contentField = fields.get(CONTENT);
+        this.validationError = error;
+
+        BMap<BString, Object> annotations = recordType.getAnnotations();
+        this.hasAnnotations = annotations.size() > 0;
+        this.attributeFields = new HashMap<>();
+        this.namespaces = new ArrayList<>();
+        int position = 0;
+        for (Map.Entry<BString, Object> entry : annotations.entrySet()) {
+            String annotationKey = entry.getKey().getValue();
+            if (annotationKey.contains(Constants.FIELD)) {
+                String key = getAttributeKey(annotationKey);
+                if (key != null && hasAttributeAnnotation(entry.getValue())) {
+                    attributeFields.put(key, position);
+                }
+            } else if (annotationKey.endsWith(Constants.NAME_SPACE)) {
+                namespaces.add(new NamespaceAnnotation((BMap<?, ?>) entry.getValue(), position));
+            }
+            position++;
+        }
+        this.rootFilter = new ElementFilter() {
+            @Override
+            public ElementFilter enter(String key) {
+                return RecordBindingPlan.this;
+            }
+
+            @Override
+            public boolean isPartial() {
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the plan of the given record type.
+     *
+     * @param recordType record type to convert the XML to
+     * @return the plan of the record type
+     */
+    static RecordBindingPlan of(RecordType recordType) {
+        return PLANS.get(recordType, RecordBindingPlan::new);
+    }
+
+    RecordType getRecordType() {
+        return recordType;
+    }
+
+    Field getField(String fieldName) {
+        return fields.get(fieldName);
+    }
+
+    /**
+     * Returns the binding of the field with the given name.
+     *
+     * @param fieldName name of the field, which is the key of the XML element
+     * @return the binding, or `null` if the record type does not have the field
+     */
+    FieldBinding getFieldBinding(String fieldName) {
+        return fieldBindings.get(fieldName);
+    }
+
+    /**
+     * Returns the filter of the XML whose root element is converted to the record type, which converts the root
+     * element and skips the elements that are not fields of the records below it.
+     *
+     * @return the filter of the root element
+     */
+    ElementFilter getRootFilter() {
+        return rootFilter;
+    }
+
+    @Override
+    public ElementFilter enter(String key) {
+        FieldBinding fieldBinding = fieldBindings.get(key);
+        return fieldBinding == null ? null : fieldBinding.getFilter();
+    }
+
+    @Override
+    public boolean isPartial() {
+        return false;
+    }
+
+    boolean hasField(String fieldName) {
+        return fields.containsKey(fieldName);
+    }
+
+    List<BString> getRequiredFields() {
+        return Collections.unmodifiableList(requiredFields);
+    }
+
+    Field getContentField() {
+        return contentField;
+    }
+
+    boolean hasAnnotations() {
+        return hasAnnotations;
+    }
+
+    /**
+     * Checks whether the record type can be used to convert an XML.
+     *
+     * @throws Exception if a field of the record type is optional
+     */
+    void validate() throws Exception {
+        if (validationError != null) {
+            throw new Exception(validationError);
+        }
+    }
+
+    /**
+     * Checks whether an attribute of the XML element is added to the record. The attribute is added when the
+     * corresponding field has the `Attribute` annotation. The namespace declarations are validated against the
+     * `Namespace` annotation of the record type.
+     *
+     * @param key   key of the attribute
+     * @param value value of the attribute
+     * @return true if the attribute needs to be added to the record
+     * @throws Exception if the URI of the namespace declaration differs from the annotation
+     */
+    boolean acceptsAttribute(String key, String value) throws Exception {
+        Integer attributePosition = attributeFields.get(key);
+        for (NamespaceAnnotation namespace : namespaces) {
+            if (namespace.isDeclaredBy(key)) {
+                if (!namespace.uri.equals(value.trim())) {
+                    throw new Exception("The URI['" +  namespace.uri + "'] of the namespace in the expected " +
+                            "record definition differs from the XML namespace's['" +  key + "'] URI['" +
+                            value + "']");
+                }
+                return attributePosition != null && attributePosition < namespace.position;
+            }
+        }
+        return attributePosition != null;
+    }
+
+    /**
+     * Returns the attribute key of a field annotation key, which is `$field$.` followed by the field name with the
+     * colons escaped.
+     */
+    private static String getAttributeKey(String annotationKey) {
+        if (!annotationKey.startsWith(Constants.FIELD)) {
+            return null;
+        }
+        String key = annotationKey.substring(Constants.FIELD.length()).replace("\\:", ":");
+        if (!(Constants.FIELD + key.replace(":", "\\:")).equals(annotationKey)) {
+            return null;
+        }
+        return key;
+    }
+
+    private static boolean hasAttributeAnnotation(Object fieldAnnotations) {
+        for (Object annotation : ((BMap<?, ?>) fieldAnnotations).getKeys()) {
+            if (annotation.toString().endsWith(Constants.ATTRIBUTE)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A field of the record type with its types resolved. The plan of a record typed field, or of the record element
+     * type of an array field, is looked up on the first use, as the record type may refer to itself.
+     * <p>
+     * Whether the binder binds the elements of the field itself is also decided here from the field type, so that
+     * the elements of the other fields are converted as in {@link XmlToJson} without being traversed first.
+     */
+    static class FieldBinding {
+
+        private final String name;
+        private final Type type;
+        private final Type referredType;
+        // The referred element type of an array field, or `null` for the other fields.
+        private final Type elementType;
+        private final boolean openArray;
+        private final boolean bound;
+        private volatile RecordBindingPlan recordPlan;
+
+        FieldBinding(Field field) {
+            this.name = field.getFieldName();
+            this.type = field.getFieldType();
+            this.referredType = TypeUtils.getReferredType(type);
+            if (referredType.getTag() == TypeTags.ARRAY_TAG) {
+                this.elementType = TypeUtils.getReferredType(((ArrayType) referredType).getElementType());
+                this.openArray = ((ArrayType) referredType).getSize() == -1;
+            } else {
+                this.elementType = null;
+                this.openArray = false;
+            }
+            this.bound = isBoundType(type, referredType, elementType, openArray);
+        }
+
+        private static boolean isBoundType(Type type, Type referredType, Type elementType, boolean openArray) {
+            switch (type.getTag()) {
+                case TypeTags.INT_TAG:
+                case TypeTags.FLOAT_TAG:
+                case TypeTags.DECIMAL_TAG:
+                case TypeTags.BOOLEAN_TAG:
+                case TypeTags.STRING_TAG:
+                case TypeTags.XML_TAG:
+                    return true;
+                case TypeTags.UNION_TAG:
+                    return UnionConversionPlan.of((UnionType) type).hasOnlyPrimitiveMembers();
+                case TypeTags.ARRAY_TAG:
+                    return openArray && (elementType.getTag() == TypeTags.RECORD_TYPE_TAG ||
+                            isPrimitiveType(elementType.getTag()));
+                default:
+                    return referredType.getTag() == TypeTags.RECORD_TYPE_TAG;
+            }
+        }
+
+        String getName() {
+            return name;
+        }
+
+        Type getType() {
+            return type;
+        }
+
+        Type getReferredType() {
+            return referredType;
+        }
+
+        Type getElementType() {
+            return elementType;
+        }
+
+        /**
+         * Whether the field is an array without a fixed size.
+         *
+         * @return true if the field is an open array
+         */
+        boolean isOpenArray() {
+            return openArray;
+        }
+
+        /**
+         * Whether the elements of the field are bound by the binder. The field types other than the record types,
+         * the basic types, `xml`, the unions of basic types and the open arrays of records or basic types are not
+         * bound.
+         *
+         * @return true if the elements of the field are bound
+         */
+        boolean isBound() {
+            return bound;
+        }
+
+        /**
+         * Returns the plan of the record type of the field, or of the element type of an array field.
+         *
+         * @return the plan of the record type
+         */
+        RecordBindingPlan getRecordPlan() {
+            RecordBindingPlan plan = recordPlan;
+            if (plan == null) {
+                Type recordType = elementType == null ? referredType : elementType;
+                plan = RecordBindingPlan.of((RecordType) recordType);
+                recordPlan = plan;
+            }
+            return plan;
+        }
+
+        /**
+         * Returns the filter of the children of the elements of the field, which skips the unknown fields of the
+         * record type of the field, or of the element type of an array field.
+         *
+         * @return the filter of the children of the elements
+         */
+        ElementFilter getFilter() {
+            Type recordType = elementType == null ? referredType : elementType;
+            return recordType.getTag() == TypeTags.RECORD_TYPE_TAG ? getRecordPlan() : ElementFilter.ALL;
+        }
+    }
+
+    static boolean isPrimitiveType(int typeTag) {
+        return typeTag == TypeTags.STRING_TAG || typeTag == TypeTags.BOOLEAN_TAG || typeTag == TypeTags.INT_TAG ||
+                typeTag == TypeTags.FLOAT_TAG || typeTag == TypeTags.DECIMAL_TAG;
+    }
+
+    /**
+     * The namespace of the record type, defined with the `Namespace` annotation.
+     */
+    private static class NamespaceAnnotation {
+
+        private final String declarationKey;
+        private final String uri;
+        private final int position;
+
+        NamespaceAnnotation(BMap<?, ?> annotation, int position) {
+            Object prefix = annotation.get(StringUtils.fromString(Constants.PREFIX));
+            this.declarationKey = prefix == null ? XMLNS : XMLNS + Constants.COLON + prefix;
+            this.uri = annotation.get(StringUtils.fromString(Constants.URI)).toString().trim();
+            this.position = position;
+        }
+
+        boolean isDeclaredBy(String key) {
+            return declarationKey.equals(key);
+        }
+    }
+}
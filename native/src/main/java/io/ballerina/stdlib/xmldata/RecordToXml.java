@@ -0,0 +1,367 @@
+/*
+ * Copyright (c) 2023 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.xmldata;
+
+import io.ballerina.runtime.api.TypeTags;
+import io.ballerina.runtime.api.types.ArrayType;
+import io.ballerina.runtime.api.types.Field;
+import io.ballerina.runtime.api.types.RecordType;
+import io.ballerina.runtime.api.types.Type;
+import io.ballerina.runtime.api.utils.TypeUtils;
+import io.ballerina.runtime.api.values.BArray;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BRefValue;
+import io.ballerina.runtime.api.values.BString;
+import io.ballerina.runtime.api.values.BTypedesc;
+import io.ballerina.stdlib.xmldata.utils.BoundedCache;
+import io.ballerina.stdlib.xmldata.utils.Constants;
+import io.ballerina.stdlib.xmldata.utils.XmlDataUtils;
+import org.ballerinalang.langlib.value.ToJson;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static io.ballerina.runtime.api.utils.StringUtils.fromString;
+
+/**
+ * Converts a record, or a map of record arrays, to the corresponding XML representation. The `Name`, `Namespace`
+ * and `Attribute` annotations of the record types are read once for each type and applied while the XML elements
+ * are created, so the record is not copied to an annotated JSON value before the conversion.
+ *
+ * @since 2.5.0
+ */
+public class RecordToXml {
+
+    private static final String ATTRIBUTE_PREFIX = "attribute_";
+    private static final String XMLNS = "xmlns";
+    private static final String NAME = "Name";
+    private static final String VALUE = "value";
+    private static final int MAX_CACHED_PLANS = 1024;
+    private static final BoundedCache<RecordType, WritingPlan> PLANS = BoundedCache.byIdentity(MAX_CACHED_PLANS);
+
+    /**
+     * Converts the given map to XML. The maps without a record type to apply are converted from their JSON
+     * representation, in the same way as the `fromJson` API.
+     *
+     * @param mapValue map or record to convert
+     * @param type     type of the map
+     * @return XML representation of the map or an error
+     */
+    public static Object toXml(BMap<BString, Object> mapValue, BTypedesc type) {
+        if (ConversionMetrics.isEnabled()) {
+            long startTime = System.nanoTime();
+            ConversionLimits.Tracker tracker = ConversionLimits.newCountingTracker(null);
+            return ConversionMetrics.record(ConversionMetrics.TO_XML, type.getDescribingType(), startTime, tracker,
+                    convertToXml(mapValue, type, tracker));
+        }
+        return convertToXml(mapValue, type, null);
+    }
+
+    private static Object convertToXml(BMap<BString, Object> mapValue, BTypedesc type,
+                                       ConversionLimits.Tracker tracker) {
+        try {
+            Root root = getRoot(mapValue, type.getDescribingType());
+            if (root == null) {
+                return JsonToXml.convert(ToJson.toJson(mapValue), ATTRIBUTE_PREFIX, "", null, tracker);
+            }
+            return JsonToXml.convert(root.node, ATTRIBUTE_PREFIX, "", root.tag, tracker);
+        } catch (Exception e) {
+            return XmlDataUtils.getError(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Writes the XML representation of the given map as UTF-8 encoded bytes. The maps without a record type to
+     * apply are written from their JSON representation, as done by the `toXml` API.
+     *
+     * @param mapValue map or record to convert
+     * @param type     type of the map
+     * @return XML representation of the map as bytes or an error
+     */
+    public static Object toXmlBytes(BMap<BString, Object> mapValue, BTypedesc type) {
+        try {
+            Root root = getRoot(mapValue, type.getDescribingType());
+            if (root == null) {
+                return JsonToXml.write(ToJson.toJson(mapValue), ATTRIBUTE_PREFIX, "", null);
+            }
+            return JsonToXml.write(root.node, ATTRIBUTE_PREFIX, "", root.tag);
+        } catch (Exception e) {
+            return XmlDataUtils.getError(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Returns the node to convert and the root tag of the XML, or `null` if the map has no record type to apply.
+     */
+    private static Root getRoot(BMap<BString, Object> mapValue, Type describingType) {
+        if (describingType.getTag() == TypeTags.RECORD_TYPE_TAG &&
+                describingType.getFlags() != Constants.DEFAULT_TYPE_FLAG) {
+            WritingPlan plan = getPlan((RecordType) describingType);
+            RecordNode record = new RecordNode(mapValue, plan, true, false);
+            return new Root(record, plan.getElementName(plan.type.getName()).getValue());
+        }
+        RecordType elementType = getRecordArrayElementType(mapValue, describingType);
+        if (elementType != null) {
+            WritingPlan plan = getPlan(elementType);
+            Map<BString, Object> entries = new LinkedHashMap<>();
+            for (Map.Entry<BString, Object> entry : mapValue.entrySet()) {
+                entries.put(entry.getKey(), getRecords(entry.getValue(), plan, true));
+            }
+            return new Root((JsonToXml.ObjectNode) () -> entries, null);
+        }
+        return null;
+    }
+
+    private static RecordType getRecordArrayElementType(BMap<BString, Object> mapValue, Type describingType) {
+        if (describingType.getTag() != TypeTags.MAP_TAG || mapValue.isEmpty()) {
+            return null;
+        }
+        Object value = mapValue.get(mapValue.getKeys()[0]);
+        if (!(value instanceof BArray) || !(((BArray) value).getType() instanceof ArrayType)) {
+            return null;
+        }
+        Type elementType = TypeUtils.getReferredType(((ArrayType) ((BArray) value).getType()).getElementType());
+        return elementType.getTag() == TypeTags.RECORD_TYPE_TAG ? (RecordType) elementType : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object getRecords(Object value, WritingPlan plan, boolean convertLeaves) {
+        if (!(value instanceof BArray)) {
+            return value;
+        }
+        BArray array = (BArray) value;
+        List<Object> records = new ArrayList<>(array.getLength());
+        for (int i = 0; i < array.getLength(); i++) {
+            records.add(new RecordNode((BMap<BString, Object>) array.get(i), plan, true, convertLeaves));
+        }
+        return records;
+    }
+
+    private static WritingPlan getPlan(RecordType recordType) {
+        return PLANS.get(recordType, WritingPlan::new);
+    }
+
+    /**
+     * The node to convert to XML, with the tag of its root element.
+     */
+    private static class Root {
+
+        private final Object node;
+        private final String tag;
+
+        Root(Object node, String tag) {
+            this.node = node;
+            this.tag = tag;
+        }
+    }
+
+    /**
+     * A record value whose entries are renamed as given by the annotations of its type when it is converted.
+     */
+    private static class RecordNode implements JsonToXml.ObjectNode {
+
+        private final BMap<BString, Object> value;
+        private final WritingPlan plan;
+        // Whether all the namespaces of the type are declared, or only the first one as for the referenced types.
+        private final boolean allNamespaces;
+        // Whether the values that are not records are converted to JSON, as the map of record arrays is.
+        private final boolean convertLeaves;
+        private Map<BString, Object> entries;
+
+        RecordNode(BMap<BString, Object> value, WritingPlan plan, boolean allNamespaces, boolean convertLeaves) {
+            this.value = value;
+            this.plan = plan;
+            this.allNamespaces = allNamespaces;
+            this.convertLeaves = convertLeaves;
+        }
+
+        @Override
+        public Map<BString, Object> getEntries() {
+            if (entries == null) {
+                entries = createEntries();
+            }
+            return entries;
+        }
+
+        @SuppressWarnings("unchecked")
+        private Map<BString, Object> createEntries() {
+            Map<BString, Object> recordEntries = new LinkedHashMap<>();
+            for (Map.Entry<BString, Object> entry : value.entrySet()) {
+                String key = entry.getKey().getValue();
+                Object fieldValue = entry.getValue();
+                Field field = plan.type.getFields().get(key);
+                if (field == null) {
+                    recordEntries.put(entry.getKey(), getLeafValue(fieldValue));
+                    continue;
+                }
+                Type fieldType = field.getFieldType();
+                if (fieldValue != null) {
+                    fieldType = XmlDataUtils.getTypeFromUnionType(fieldType, fieldValue);
+                }
+                Type referredType = TypeUtils.getReferredType(fieldType);
+                if (fieldType.getTag() == TypeTags.RECORD_TYPE_TAG) {
+                    WritingPlan childPlan = getPlan((RecordType) fieldType);
+                    recordEntries.put(childPlan.getElementName(key), new RecordNode(
+                            (BMap<BString, Object>) fieldValue, childPlan, true, convertLeaves));
+                    plan.putFirstNamespace(recordEntries);
+                } else if (fieldType.getTag() == TypeTags.TYPE_REFERENCED_TYPE_TAG &&
+                        referredType.getTag() == TypeTags.RECORD_TYPE_TAG) {
+                    WritingPlan childPlan = getPlan((RecordType) referredType);
+                    recordEntries.put(childPlan.getElementName(plan.getFieldKey(key).getValue()), new RecordNode(
+                            (BMap<BString, Object>) fieldValue, childPlan, false, convertLeaves));
+                } else if (fieldType.getTag() == TypeTags.ARRAY_TAG) {
+                    Type elementType = TypeUtils.getReferredType(((ArrayType) fieldType).getElementType());
+                    BString keyName = plan.getFieldKey(key);
+                    if (elementType.getTag() == TypeTags.RECORD_TYPE_TAG) {
+                        WritingPlan elementPlan = getPlan((RecordType) elementType);
+                        recordEntries.put(elementPlan.getElementName(keyName.getValue()),
+                                getRecords(fieldValue, elementPlan, convertLeaves));
+                    } else {
+                        recordEntries.put(keyName, getLeafValue(fieldValue));
+                    }
+                    plan.putFirstNamespace(recordEntries);
+                } else {
+                    recordEntries.put(plan.getFieldKey(key), getLeafValue(fieldValue));
+                }
+            }
+            if (allNamespaces) {
+                recordEntries.putAll(plan.namespaces);
+            } else {
+                plan.putFirstNamespace(recordEntries);
+            }
+            return recordEntries;
+        }
+
+        private Object getLeafValue(Object leafValue) {
+            if (convertLeaves && leafValue instanceof BRefValue) {
+                return ToJson.toJson(leafValue);
+            }
+            return leafValue;
+        }
+    }
+
+    /**
+     * Holds the names and the namespaces given by the annotations of a record type.
+     */
+    private static class WritingPlan {
+
+        private final RecordType type;
+        private final BMap<BString, Object> annotations;
+        // The namespace declarations of the type, as the attributes of the record.
+        private final Map<BString, Object> namespaces = new LinkedHashMap<>();
+        // The `Namespace` prefixes and `Name` values of the type, in the order of the annotations.
+        private final List<String[]> nameAnnotations = new ArrayList<>();
+        private final Map<String, BString> elementNames = new ConcurrentHashMap<>();
+        private final Map<String, BString> fieldKeys = new ConcurrentHashMap<>();
+
+        @SuppressWarnings("unchecked")
+        WritingPlan(RecordType type) {
+            this.type = type;
+            this.annotations = type.getAnnotations();
+            for (BString key : annotations.getKeys()) {
+                String annotationKey = key.getValue();
+                if (annotationKey.contains(Constants.FIELD)) {
+                    continue;
+                }
+                if (annotationKey.endsWith(NAME)) {
+                    BMap<BString, Object> name = (BMap<BString, Object>) annotations.get(key);
+                    nameAnnotations.add(new String[]{NAME, name.get(fromString(VALUE)).toString()});
+                } else if (annotationKey.endsWith(Constants.NAME_SPACE)) {
+                    BMap<BString, Object> namespace = (BMap<BString, Object>) annotations.get(key);
+                    Object prefix = namespace.get(fromString(Constants.PREFIX));
+                    Object uri = namespace.get(fromString(Constants.URI));
+                    if (prefix == null) {
+                        namespaces.put(fromString(ATTRIBUTE_PREFIX + XMLNS), uri);
+                    } else {
+                        namespaces.put(fromString(ATTRIBUTE_PREFIX + XMLNS + Constants.COLON + prefix), uri);
+                    }
+                    nameAnnotations.add(new String[]{Constants.NAME_SPACE, prefix == null ? null : prefix.toString()});
+                }
+            }
+        }
+
+        /**
+         * Returns the name of the element of this type, given by the `Namespace` and `Name` annotations.
+         */
+        BString getElementName(String key) {
+            return elementNames.computeIfAbsent(key, this::createElementName);
+        }
+
+        private BString createElementName(String key) {
+            boolean hasNamespaceAnnotation = false;
+            for (String[] annotation : nameAnnotations) {
+                if (annotation[0].equals(Constants.NAME_SPACE)) {
+                    hasNamespaceAnnotation = true;
+                    if (annotation[1] != null) {
+                        key = annotation[1] + Constants.COLON + key;
+                    }
+                } else if (hasNamespaceAnnotation) {
+                    key = key.substring(0, key.indexOf(Constants.COLON) + 1) + annotation[1];
+                } else {
+                    key = annotation[1];
+                }
+            }
+            return fromString(key);
+        }
+
+        /**
+         * Returns the key of a field, given by the `Name` and `Attribute` annotations of the field.
+         */
+        BString getFieldKey(String key) {
+            return fieldKeys.computeIfAbsent(key, this::createFieldKey);
+        }
+
+        @SuppressWarnings("unchecked")
+        private BString createFieldKey(String key) {
+            BString annotationKey = fromString((Constants.FIELD + key).replace(Constants.COLON, "\\:"));
+            if (!annotations.containsKey(annotationKey)) {
+                return fromString(key);
+            }
+            BMap<BString, Object> fieldAnnotations = (BMap<BString, Object>) annotations.get(annotationKey);
+            for (BString annotation : fieldAnnotations.getKeys()) {
+                String annotationName = annotation.getValue();
+                if (annotationName.endsWith(NAME)) {
+                    BMap<BString, Object> names = (BMap<BString, Object>) fieldAnnotations.get(annotation);
+                    String name = names.get(fromString(VALUE)).toString();
+                    if (key.contains(Constants.COLON)) {
+                        key = key.substring(0, key.indexOf(Constants.COLON) + 1) + name;
+                    } else if (key.contains(ATTRIBUTE_PREFIX)) {
+                        key = key.substring(0, key.indexOf(Constants.UNDERSCORE) + 1) + name;
+                    } else {
+                        key = name;
+                    }
+                }
+                if (annotationName.endsWith(Constants.ATTRIBUTE)) {
+                    key = ATTRIBUTE_PREFIX.concat(key);
+                }
+            }
+            return fromString(key);
+        }
+
+        void putFirstNamespace(Map<BString, Object> entries) {
+            if (!namespaces.isEmpty()) {
+                Map.Entry<BString, Object> namespace = namespaces.entrySet().iterator().next();
+                entries.put(namespace.getKey(), namespace.getValue());
+            }
+        }
+    }
+}
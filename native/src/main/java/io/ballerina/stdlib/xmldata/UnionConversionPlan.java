@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2023 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.xmldata;
+
+import io.ballerina.runtime.api.TypeTags;
+import io.ballerina.runtime.api.creators.ValueCreator;
+import io.ballerina.runtime.api.types.ArrayType;
+import io.ballerina.runtime.api.types.Type;
+import io.ballerina.runtime.api.types.UnionType;
+import io.ballerina.runtime.api.utils.TypeUtils;
+import io.ballerina.stdlib.xmldata.utils.BoundedCache;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.ballerina.runtime.api.utils.StringUtils.fromString;
+
+/**
+ * Converts the text of an XML value to a union type. The text is converted to the first member type it is a value
+ * of, in the order of the member types. The members after the first member which accepts any text, such as
+ * `string`, are never used, so the plan only keeps the members up to it. The plan is created once for a union type
+ * and reused by the later conversions.
+ *
+ * @since 2.5.0
+ */
+class UnionConversionPlan {
+
+    private static final int MAX_CACHED_PLANS = 1024;
+    private static final BoundedCache<UnionType, UnionConversionPlan> PLANS =
+            BoundedCache.byIdentity(MAX_CACHED_PLANS);
+
+    private final Type[] memberTypes;
+    private final boolean hasOnlyPrimitiveMembers;
+
+    private UnionConversionPlan(UnionType unionType) {
+        List<Type> members = new ArrayList<>();
+        for (Type memberType : unionType.getMemberTypes()) {
+            members.add(memberType);
+            if (acceptsAnyText(memberType)) {
+                break;
+            }
+        }
+        this.memberTypes = members.toArray(new Type[0]);
+        boolean onlyPrimitiveMembers = true;
+        for (Type memberType : memberTypes) {
+            int tag = memberType.getTag();
+            onlyPrimitiveMembers &= tag == TypeTags.INT_TAG || tag == TypeTags.FLOAT_TAG ||
+                    tag == TypeTags.DECIMAL_TAG || tag == TypeTags.BOOLEAN_TAG || tag == TypeTags.STRING_TAG;
+        }
+        this.hasOnlyPrimitiveMembers = onlyPrimitiveMembers;
+    }
+
+    /**
+     * Returns the plan of the given union type.
+     *
+     * @param unionType union type to convert the text to
+     * @return the plan of the union type
+     */
+    static UnionConversionPlan of(UnionType unionType) {
+        return PLANS.get(unionType, UnionConversionPlan::new);
+    }
+
+    /**
+     * Converts the text to the first member type it is a value of.
+     *
+     * @param value text of the value
+     * @return the converted value, or `null` if the text is not a value of any member type
+     */
+    Object convert(String value) {
+        for (Type memberType : memberTypes) {
+            Object result = convert(memberType, value);
+            if (result != null) {
+                return result;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Checks whether the members used for the conversion are all `int`, `float`, `decimal`, `boolean` or `string`,
+     * so that the converted value is always a value of the union type.
+     *
+     * @return true if the members used are all primitive types
+     */
+    boolean hasOnlyPrimitiveMembers() {
+        return hasOnlyPrimitiveMembers;
+    }
+
+    private static Object convert(Type memberType, String value) {
+        switch (memberType.getTag()) {
+            case TypeTags.INT_TAG:
+                return NumberParser.parseInt(value);
+            case TypeTags.FLOAT_TAG:
+                return NumberParser.parseFloat(value);
+            case TypeTags.DECIMAL_TAG:
+                BigDecimal decimal = NumberParser.parseDecimal(value);
+                return decimal == null ? null : ValueCreator.createDecimalValue(decimal);
+            case TypeTags.BOOLEAN_TAG:
+                return Boolean.parseBoolean(value);
+            case TypeTags.ARRAY_TAG:
+                return XmlToJson.createArray(memberType, value);
+            default:
+                return fromString(value);
+        }
+    }
+
+    private static boolean acceptsAnyText(Type memberType) {
+        switch (memberType.getTag()) {
+            case TypeTags.INT_TAG:
+            case TypeTags.FLOAT_TAG:
+            case TypeTags.DECIMAL_TAG:
+                return false;
+            case TypeTags.ARRAY_TAG:
+                int elementTag = TypeUtils.getReferredType(((ArrayType) memberType).getElementType()).getTag();
+                return elementTag != TypeTags.INT_TAG && elementTag != TypeTags.FLOAT_TAG &&
+                        elementTag != TypeTags.DECIMAL_TAG;
+            default:
+                return true;
+        }
+    }
+}
@@ -0,0 +1,477 @@
+/*
+ * Copyright (c) 2023 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.xmldata;
+
+import io.ballerina.runtime.api.Environment;
+import io.ballerina.runtime.api.creators.ValueCreator;
+import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.values.BArray;
+import io.ballerina.runtime.api.values.BError;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BObject;
+import io.ballerina.runtime.api.values.BString;
+import io.ballerina.stdlib.xmldata.utils.Constants;
+import io.ballerina.stdlib.xmldata.utils.LimitExceededException;
+import io.ballerina.stdlib.xmldata.utils.ModuleUtils;
+import io.ballerina.stdlib.xmldata.utils.XmlDataUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import static io.ballerina.runtime.api.utils.StringUtils.fromString;
+
+/**
+ * Converts an XML document given as bytes to the corresponding JSON representation without building a `BXml` tree.
+ * The conversion follows the same rules as {@link XmlToJson}, and shares its rules of the sequences, the text nodes,
+ * the element values and the limits, so only the reading of the document is specific to the bytes. A document given
+ * as a stream of byte chunks is parsed with a {@link ByteChunkParser}, which reads each chunk as it is pulled from
+ * the stream.
+ *
+ * @since 2.5.0
+ */
+public class XmlBytesToJson {
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = createInputFactory();
+    private static final String XMLNS = "xmlns";
+    private static final String EMPTY_STRING = "";
+    private static final String BYTE_STREAM_PARSER = "ByteStreamParser";
+    private static final String PARSER = "parser";
+    private static final String RESULT = "result";
+
+    private final XMLStreamReader reader;
+    private final String attributePrefix;
+    private final boolean preserveNamespaces;
+    private final PathFilter filter;
+    private final ConversionLimits.Tracker limits;
+    private final NamespaceContext namespaces = new NamespaceContext();
+
+    /**
+     * Converts the XML document given as bytes to the corresponding JSON representation.
+     *
+     * @param bytes   bytes of the XML document
+     * @param options option details
+     * @return JSON object that construct from XML
+     */
+    public static Object toJson(BArray bytes, BMap<?, ?> options) {
+        try {
+            return new Settings(options).convert(new ByteArrayInputStream(bytes.getBytes()));
+        } catch (Exception e) {
+            return XmlDataUtils.getError(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Creates the parser of an XML document given as a stream of byte chunks.
+     *
+     * @param options option details
+     * @return the `ByteStreamParser` object, or an error if the options are not valid
+     */
+    public static Object createByteStreamParser(BMap<?, ?> options) {
+        Settings settings;
+        try {
+            settings = new Settings(options);
+        } catch (Exception e) {
+            return XmlDataUtils.getError(e.getMessage(), e);
+        }
+        // The result is kept apart from the object, as the parser must not keep the object reachable.
+        AtomicReference<Object> converted = new AtomicReference<>();
+        ByteChunkParser parser = new ByteChunkParser("xmldata-bytes-to-json", inputStream -> () -> {
+            Object result = settings.convert(inputStream);
+            if (result instanceof BError) {
+                return result;
+            }
+            converted.set(result);
+            return Boolean.FALSE;
+        }, true);
+        BObject byteStreamParser = ValueCreator.createObjectValue(ModuleUtils.getModule(), BYTE_STREAM_PARSER);
+        byteStreamParser.addNativeData(PARSER, parser);
+        byteStreamParser.addNativeData(RESULT, converted);
+        parser.closeWith(byteStreamParser);
+        return byteStreamParser;
+    }
+
+    /**
+     * Parses the chunks added to the parser, until the next chunk is needed or the document is converted. The
+     * strand is suspended while the parser parses the chunks.
+     *
+     * @param env              environment of the call
+     * @param byteStreamParser the `ByteStreamParser` object
+     * @return `true` if the next chunk is needed, `false` if the document is converted, or an error
+     */
+    public static Object parseChunks(Environment env, BObject byteStreamParser) {
+        return getParser(byteStreamParser).next(env);
+    }
+
+    /**
+     * Adds the next byte chunk of the XML document.
+     *
+     * @param byteStreamParser the `ByteStreamParser` object
+     * @param chunk            the next byte chunk, or `null` if there are no more chunks
+     */
+    public static void addChunk(BObject byteStreamParser, Object chunk) {
+        getParser(byteStreamParser).addChunk(chunk == null ? null : ((BArray) chunk).getBytes());
+    }
+
+    /**
+     * Returns the JSON representation of the document, once {@link #parseChunks(BObject)} has returned `false`.
+     *
+     * @param byteStreamParser the `ByteStreamParser` object
+     * @return JSON object that construct from XML
+     */
+    @SuppressWarnings("unchecked")
+    public static Object getResult(BObject byteStreamParser) {
+        return ((AtomicReference<Object>) byteStreamParser.getNativeData(RESULT)).get();
+    }
+
+    public static void close(BObject byteStreamParser) {
+        getParser(byteStreamParser).close();
+    }
+
+    private static ByteChunkParser getParser(BObject byteStreamParser) {
+        return (ByteChunkParser) byteStreamParser.getNativeData(PARSER);
+    }
+
+    private XmlBytesToJson(XMLStreamReader reader, String attributePrefix, boolean preserveNamespaces,
+                           PathFilter filter, ConversionLimits.Tracker limits) {
+        this.reader = reader;
+        this.attributePrefix = attributePrefix;
+        this.preserveNamespaces = preserveNamespaces;
+        this.filter = filter;
+        this.limits = limits;
+    }
+
+    private Object convertDocument() throws XMLStreamException, LimitExceededException {
+        ChildSequence sequence = new ChildSequence();
+        while (reader.hasNext()) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    addElement(sequence, true, filter);
+                    break;
+                case XMLStreamConstants.COMMENT:
+                case XMLStreamConstants.PROCESSING_INSTRUCTION:
+                    if (filter == null || !filter.isPartial()) {
+                        sequence.addCommentOrPi();
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        Object result = sequence.getResult();
+        if (result == null) {
+            return XmlToJson.createNewJsonList();
+        }
+        return result;
+    }
+
+    /**
+     * Adds the element at the current `START_ELEMENT` event to the sequence, unless it is skipped by the path
+     * filter, and leaves the reader at its `END_ELEMENT` event.
+     */
+    private void addElement(ChildSequence sequence, boolean isRoot, PathFilter siblingFilter)
+            throws XMLStreamException, LimitExceededException {
+        BString key = getElementKey();
+        PathFilter childFilter = null;
+        if (siblingFilter != null) {
+            childFilter = siblingFilter.enter(key.getValue());
+            if (childFilter == null) {
+                skipElement();
+                return;
+            }
+        }
+        sequence.addElement(key, convertElement(isRoot, childFilter));
+    }
+
+    /**
+     * Reads the events of the element at the current `START_ELEMENT` event up to its `END_ELEMENT` event, without
+     * creating any values for them.
+     */
+    private void skipElement() throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    /**
+     * Converts the element at the current `START_ELEMENT` event and leaves the reader at its `END_ELEMENT` event.
+     * Only the child elements of a partial element are converted.
+     */
+    private Object convertElement(boolean isRoot, PathFilter childFilter)
+            throws XMLStreamException, LimitExceededException {
+        if (limits != null) {
+            // The attributes of the reader do not include the namespace declarations.
+            limits.enterElement(reader.getAttributeCount(), namespaces.getDepth() + 1);
+        }
+        BMap<BString, Object> childrenData = ValueCreator.createMapValue(Constants.JSON_MAP_TYPE);
+        boolean partial = childFilter != null && childFilter.isPartial();
+        boolean addAttributes = !attributePrefix.equals(Constants.SKIP_ATTRIBUTE) && !partial;
+        if (addAttributes && preserveNamespaces) {
+            addNamespaceDeclarations(childrenData, isRoot);
+        }
+        namespaces.enter();
+        for (int i = 0; i < reader.getNamespaceCount(); i++) {
+            namespaces.declarePrefix(getNamespacePrefix(i), getNamespaceUri(i));
+        }
+        if (addAttributes) {
+            addAttributes(childrenData);
+        }
+        ChildSequence sequence = new ChildSequence();
+        while (true) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    addElement(sequence, false, childFilter);
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    if (!partial) {
+                        String text = reader.getText();
+                        boolean converted = XmlToJson.isConvertedText(text);
+                        if (limits != null) {
+                            limits.checkText(text, converted);
+                        }
+                        if (converted) {
+                            sequence.addText(text);
+                        }
+                    }
+                    break;
+                case XMLStreamConstants.COMMENT:
+                case XMLStreamConstants.PROCESSING_INSTRUCTION:
+                    if (!partial) {
+                        sequence.addCommentOrPi();
+                    }
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    namespaces.exit();
+                    return XmlToJson.getElementValue(childrenData, sequence.getResult());
+                default:
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Adds the namespace declarations of the current element, before its scope is entered. As in
+     * {@link XmlToJson}, a declaration that is identical to the one in the parent scope is not repeated for the
+     * child elements.
+     */
+    private void addNamespaceDeclarations(BMap<BString, Object> childrenData, boolean isRoot) {
+        for (int i = 0; i < reader.getNamespaceCount(); i++) {
+            String prefix = getNamespacePrefix(i);
+            String uri = getNamespaceUri(i);
+            if (isRoot || !uri.equals(namespaces.getNamespaceOfPrefix(prefix))) {
+                String key = prefix.equals(XMLNS) ? XMLNS : XMLNS + Constants.COLON + prefix;
+                putAttribute(childrenData, key, uri);
+            }
+        }
+    }
+
+    /**
+     * Adds the attributes of the current element. As in {@link XmlToJson}, the prefix of a namespaced attribute is
+     * the prefix bound to its namespace in the scope of the element, rather than the prefix written in the
+     * document, and the attribute has no prefix when its namespace is not declared, as with `xml:lang`. The
+     * namespaced attributes are only kept when namespaces are preserved.
+     */
+    private void addAttributes(BMap<BString, Object> childrenData) {
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            String namespaceUri = reader.getAttributeNamespace(i);
+            String localName = reader.getAttributeLocalName(i);
+            if (namespaceUri == null || namespaceUri.isEmpty()) {
+                putAttribute(childrenData, localName, reader.getAttributeValue(i));
+            } else if (preserveNamespaces) {
+                String prefix = namespaces.getPrefix(namespaceUri);
+                String key;
+                if (prefix == null) {
+                    key = localName;
+                } else if (prefix.equals(XMLNS)) {
+                    key = XMLNS;
+                } else {
+                    key = prefix + Constants.COLON + localName;
+                }
+                putAttribute(childrenData, key, reader.getAttributeValue(i));
+            }
+        }
+    }
+
+    private void putAttribute(BMap<BString, Object> childrenData, String key, String value) {
+        if (!attributePrefix.equals(Constants.ADD_IF_HAS_ANNOTATION)) {
+            key = attributePrefix + key;
+        }
+        childrenData.put(NameKeyCache.getKey(key), fromString(value));
+    }
+
+    private String getNamespacePrefix(int index) {
+        String prefix = reader.getNamespacePrefix(index);
+        return prefix == null || prefix.isEmpty() ? XMLNS : prefix;
+    }
+
+    private String getNamespaceUri(int index) {
+        String uri = reader.getNamespaceURI(index);
+        return uri == null ? EMPTY_STRING : uri;
+    }
+
+    private BString getElementKey() {
+        return NameKeyCache.getElementKey(preserveNamespaces ? reader.getPrefix() : null, reader.getLocalName());
+    }
+
+    /**
+     * Collects the converted children of an element in the same way as `XmlToJson.convertBXmlSequence`. A single
+     * child is converted on its own, while two or more children are merged into a heterogeneous map. The text nodes
+     * which are not converted are not added.
+     */
+    private static class ChildSequence {
+
+        private static final int ELEMENT = 0;
+        private static final int TEXT = 1;
+        private static final int COMMENT_OR_PI = 2;
+
+        private int size = 0;
+        private int firstKind;
+        private BString firstKey;
+        private Object firstValue;
+        private BMap<BString, Object> mapJson;
+
+        void addElement(BString key, Object value) {
+            if (size++ == 0) {
+                firstKind = ELEMENT;
+                firstKey = key;
+                firstValue = value;
+                return;
+            }
+            XmlToJson.addElement(getMapJson(), key, value);
+        }
+
+        void addText(String text) {
+            if (size++ == 0) {
+                firstKind = TEXT;
+                firstValue = text;
+                return;
+            }
+            XmlToJson.addContent(getMapJson(), text);
+        }
+
+        void addCommentOrPi() {
+            if (size++ == 0) {
+                firstKind = COMMENT_OR_PI;
+            }
+        }
+
+        Object getResult() {
+            if (size == 0) {
+                return null;
+            } else if (size > 1) {
+                return mapJson;
+            }
+            switch (firstKind) {
+                case ELEMENT:
+                    BMap<BString, Object> element = ValueCreator.createMapValue(Constants.JSON_MAP_TYPE);
+                    element.put(firstKey, firstValue);
+                    return element;
+                case TEXT:
+                    return XmlToJson.convertText((String) firstValue);
+                default:
+                    return ValueCreator.createMapValue(Constants.JSON_MAP_TYPE);
+            }
+        }
+
+        private BMap<BString, Object> getMapJson() {
+            if (mapJson == null) {
+                mapJson = ValueCreator.createMapValue(Constants.JSON_MAP_TYPE);
+                if (firstKind == ELEMENT) {
+                    XmlToJson.addElement(mapJson, firstKey, firstValue);
+                } else if (firstKind == TEXT) {
+                    XmlToJson.addContent(mapJson, (String) firstValue);
+                }
+            }
+            return mapJson;
+        }
+    }
+
+    /**
+     * The options of a conversion, which are read before the document is parsed.
+     */
+    private static class Settings {
+
+        private final String attributePrefix;
+        private final boolean preserveNamespaces;
+        private final PathFilter filter;
+        private final ConversionLimits limits;
+
+        Settings(BMap<?, ?> options) throws Exception {
+            this.attributePrefix = ((BString) options.get(
+                    StringUtils.fromString(Constants.OPTIONS_ATTRIBUTE_PREFIX))).getValue();
+            this.preserveNamespaces = ((Boolean) options.get(StringUtils.fromString(Constants.OPTIONS_PRESERVE_NS)));
+            this.filter = PathFilter.of(options);
+            this.limits = ConversionLimits.of(options);
+        }
+
+        /**
+         * Converts the XML document read from the given input.
+         *
+         * @return JSON object that construct from XML, or an error
+         */
+        Object convert(InputStream inputStream) {
+            XMLStreamReader reader = null;
+            try {
+                reader = XML_INPUT_FACTORY.createXMLStreamReader(inputStream);
+                return new XmlBytesToJson(reader, attributePrefix, preserveNamespaces, filter,
+                        limits == null ? null : limits.newTracker()).convertDocument();
+            } catch (XMLStreamException e) {
+                return XmlDataUtils.getError("Failed to parse the XML: " + e.getMessage());
+            } catch (Exception e) {
+                return XmlDataUtils.getError(e.getMessage(), e);
+            } finally {
+                closeReader(reader);
+            }
+        }
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLConstants.ACCESS_EXTERNAL_DTD, EMPTY_STRING);
+        return factory;
+    }
+
+    private static void closeReader(XMLStreamReader reader) {
+        if (reader != null) {
+            try {
+                reader.close();
+            } catch (XMLStreamException e) {
+                // Ignored
+            }
+        }
+    }
+}
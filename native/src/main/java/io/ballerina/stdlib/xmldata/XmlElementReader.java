@@ -0,0 +1,475 @@
+/*
+ * Copyright (c) 2023 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.xmldata;
+
+import io.ballerina.runtime.api.PredefinedTypes;
+import io.ballerina.runtime.api.creators.TypeCreator;
+import io.ballerina.runtime.api.creators.ValueCreator;
+import io.ballerina.runtime.api.types.MapType;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BString;
+import io.ballerina.runtime.api.values.BXml;
+import io.ballerina.runtime.api.values.BXmlItem;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import javax.xml.XMLConstants;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import static io.ballerina.runtime.api.utils.StringUtils.fromString;
+
+/**
+ * Reads the elements at a path of an XML document one at a time. Only the element being read is kept in memory, so
+ * a document with any number of matching elements can be read. The input may contain more than one document, as the
+ * documents are read as the children of a single root.
+ *
+ * @since 2.5.0
+ */
+class XmlElementReader {
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = createInputFactory();
+    private static final MapType ATTRIBUTE_MAP_TYPE = TypeCreator.createMapType(PredefinedTypes.TYPE_STRING);
+    private static final String XMLNS = "xmlns";
+
+    private final InputStream inputStream;
+    private final XMLStreamReader reader;
+    private final String[] path;
+    // Depth of the current element, where the documents are at depth one.
+    private int depth = 0;
+    // Number of the open elements which match the path, starting from the document.
+    private int matchedDepth = 0;
+    // The prefix and the URI of the namespaces declared by the open elements.
+    private final List<String[]> namespaces = new ArrayList<>();
+    private final Deque<Integer> scopes = new ArrayDeque<>();
+
+    /**
+     * Creates a reader for the elements at the given path.
+     *
+     * @param inputStream XML documents encoded in UTF-8
+     * @param path        names of the elements from the root of the document to the elements to read
+     * @throws XMLStreamException if the input can not be read
+     */
+    XmlElementReader(InputStream inputStream, String[] path) throws XMLStreamException {
+        this.inputStream = new DocumentSequenceInputStream(inputStream);
+        this.reader = XML_INPUT_FACTORY.createXMLStreamReader(this.inputStream, StandardCharsets.UTF_8.name());
+        this.path = path.clone();
+        // Moves to the start of the root added around the documents.
+        reader.nextTag();
+    }
+
+    /**
+     * Returns the next element at the path.
+     *
+     * @return the next element, or `null` if there are no more elements
+     * @throws XMLStreamException if the input is not a well-formed XML
+     */
+    BXml next() throws XMLStreamException {
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+                enterScope();
+                if (matchedDepth == depth - 1 && depth <= path.length && isMatch(path[depth - 1])) {
+                    matchedDepth = depth;
+                    if (depth == path.length) {
+                        BXml element = readElement();
+                        exitElement();
+                        return element;
+                    }
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                exitElement();
+            }
+        }
+        return null;
+    }
+
+    void close() {
+        try {
+            reader.close();
+        } catch (XMLStreamException e) {
+            // Ignored
+        }
+        try {
+            inputStream.close();
+        } catch (IOException e) {
+            // Ignored
+        }
+    }
+
+    private boolean isMatch(String name) {
+        if (name.indexOf(':') < 0) {
+            return name.equals(reader.getLocalName());
+        }
+        String prefix = reader.getPrefix();
+        return name.equals((prefix == null ? "" : prefix) + ":" + reader.getLocalName());
+    }
+
+    private void enterScope() {
+        scopes.push(namespaces.size());
+        for (int i = 0; i < reader.getNamespaceCount(); i++) {
+            String prefix = reader.getNamespacePrefix(i);
+            String uri = reader.getNamespaceURI(i);
+            namespaces.add(new String[]{prefix == null || prefix.isEmpty() ? XMLNS : prefix, uri == null ? "" : uri});
+        }
+    }
+
+    private void exitElement() {
+        int scope = scopes.pop();
+        if (namespaces.size() > scope) {
+            namespaces.subList(scope, namespaces.size()).clear();
+        }
+        if (matchedDepth == depth) {
+            matchedDepth--;
+        }
+        depth--;
+    }
+
+    /**
+     * Creates the element at the current `START_ELEMENT` event and leaves the reader at its `END_ELEMENT` event. As
+     * done by the XML parser of Ballerina, the attributes of each element include the namespace declarations in its
+     * scope.
+     */
+    private BXml readElement() throws XMLStreamException {
+        String prefix = reader.getPrefix();
+        String uri = reader.getNamespaceURI();
+        QName name = new QName(uri == null ? "" : uri, reader.getLocalName(), prefix == null ? "" : prefix);
+        BMap<BString, BString> attributes = ValueCreator.createMapValue(ATTRIBUTE_MAP_TYPE);
+        for (String[] namespace : namespaces) {
+            attributes.put(fromString(BXmlItem.XMLNS_NS_URI_PREFIX + namespace[0]), fromString(namespace[1]));
+        }
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            String attributeUri = reader.getAttributeNamespace(i);
+            String localName = reader.getAttributeLocalName(i);
+            String key = attributeUri == null || attributeUri.isEmpty() ? localName :
+                    "{" + attributeUri + "}" + localName;
+            attributes.put(fromString(key), fromString(reader.getAttributeValue(i)));
+        }
+
+        List<BXml> children = new ArrayList<>();
+        StringBuilder text = null;
+        while (true) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA ||
+                    event == XMLStreamConstants.SPACE) {
+                if (text == null) {
+                    text = new StringBuilder();
+                }
+                text.append(reader.getText());
+                continue;
+            }
+            if (text != null) {
+                children.add(ValueCreator.createXmlText(text.toString()));
+                text = null;
+            }
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+                enterScope();
+                children.add(readElement());
+                exitElement();
+            } else if (event == XMLStreamConstants.COMMENT) {
+                children.add(ValueCreator.createXmlComment(reader.getText()));
+            } else if (event == XMLStreamConstants.PROCESSING_INSTRUCTION) {
+                children.add(ValueCreator.createXmlProcessingInstruction(reader.getPITarget(), reader.getPIData()));
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                break;
+            }
+        }
+        BXml element = ValueCreator.createXmlItem(name, ValueCreator.createXmlSequence(children));
+        if (!attributes.isEmpty()) {
+            element.setAttributes(attributes);
+        }
+        return element;
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+        return factory;
+    }
+
+    /**
+     * Reads a sequence of XML documents as the children of a single root element. The XML declarations of the
+     * documents are left out, as they are only allowed at the start of a document. The markup is scanned to find the
+     * places where a document can start, so that a declaration is only left out between the documents and never from
+     * a comment, a CDATA section or the content of an element.
+     */
+    private static class DocumentSequenceInputStream extends InputStream {
+
+        private static final byte[] ROOT_START = "<documents>".getBytes(StandardCharsets.US_ASCII);
+        private static final byte[] ROOT_END = "</documents>".getBytes(StandardCharsets.US_ASCII);
+        private static final byte[] DECLARATION_START = "<?xml".getBytes(StandardCharsets.US_ASCII);
+        private static final byte[] DECLARATION_END = "?>".getBytes(StandardCharsets.US_ASCII);
+        private static final byte[] COMMENT_START = "<!--".getBytes(StandardCharsets.US_ASCII);
+        private static final byte[] COMMENT_END = "-->".getBytes(StandardCharsets.US_ASCII);
+        private static final byte[] CDATA_START = "<![CDATA[".getBytes(StandardCharsets.US_ASCII);
+        private static final byte[] CDATA_END = "]]>".getBytes(StandardCharsets.US_ASCII);
+        private static final int LOOKAHEAD = CDATA_START.length;
+
+        // The kinds of markup the next byte belongs to.
+        private static final int CONTENT = 0;
+        private static final int TAG = 1;
+        private static final int COMMENT = 2;
+        private static final int CDATA = 3;
+        private static final int INSTRUCTION = 4;
+        private static final int DOCTYPE = 5;
+        private static final int DECLARATION = 6;
+
+        private final InputStream inputStream;
+        private final byte[] buffer = new byte[8192];
+        private int position = 0;
+        private int limit = 0;
+        private boolean endOfInput = false;
+        private int rootStartIndex = 0;
+        private int rootEndIndex = 0;
+        private int state = CONTENT;
+        // Number of the following bytes which belong to the markup already scanned.
+        private int pending = 0;
+        // Depth of the element being read, where the content between the documents is at depth zero.
+        private int depth = 0;
+        private boolean endTag = false;
+        private byte quote = 0;
+        private byte previous = 0;
+        private int brackets = 0;
+
+        DocumentSequenceInputStream(InputStream inputStream) {
+            this.inputStream = inputStream;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (rootStartIndex < ROOT_START.length) {
+                return ROOT_START[rootStartIndex++];
+            }
+            while (true) {
+                if (!fill(LOOKAHEAD)) {
+                    return rootEndIndex < ROOT_END.length ? ROOT_END[rootEndIndex++] : -1;
+                }
+                if (state == DECLARATION) {
+                    if (startsWith(DECLARATION_END)) {
+                        state = CONTENT;
+                        position += DECLARATION_END.length;
+                    } else {
+                        position++;
+                    }
+                } else if (pending == 0 && state == CONTENT && depth == 0 && isDeclarationStart()) {
+                    state = DECLARATION;
+                    position += DECLARATION_START.length;
+                } else {
+                    scan();
+                    return buffer[position++] & 0xFF;
+                }
+            }
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            int count = 0;
+            while (count < length) {
+                if (rootStartIndex == ROOT_START.length && position < limit && isPlainContent(buffer[position])) {
+                    bytes[offset + count++] = buffer[position++];
+                    continue;
+                }
+                // Returns the bytes read so far instead of waiting for the input needed to scan the markup.
+                if (count > 0 && limit - position <= LOOKAHEAD && !endOfInput) {
+                    break;
+                }
+                int value = read();
+                if (value < 0) {
+                    break;
+                }
+                bytes[offset + count++] = (byte) value;
+            }
+            return count == 0 ? -1 : count;
+        }
+
+        @Override
+        public void close() throws IOException {
+            inputStream.close();
+        }
+
+        /**
+         * Returns whether the given byte can be passed on without scanning it, as it can not start or end markup.
+         */
+        private boolean isPlainContent(byte value) {
+            if (pending > 0) {
+                return false;
+            }
+            switch (state) {
+                case CONTENT:
+                    return depth > 0 && value != '<';
+                case COMMENT:
+                    return value != '-';
+                case CDATA:
+                    return value != ']';
+                default:
+                    return false;
+            }
+        }
+
+        /**
+         * Updates the kind of markup with the byte at the current position, which is passed on.
+         */
+        private void scan() {
+            byte value = buffer[position];
+            if (pending > 0) {
+                pending--;
+                return;
+            }
+            switch (state) {
+                case CONTENT:
+                    if (value == '<') {
+                        startMarkup();
+                    }
+                    break;
+                case TAG:
+                    scanTag(value);
+                    break;
+                case COMMENT:
+                    endMarkup(COMMENT_END);
+                    break;
+                case CDATA:
+                    endMarkup(CDATA_END);
+                    break;
+                case INSTRUCTION:
+                    endMarkup(DECLARATION_END);
+                    break;
+                case DOCTYPE:
+                    if (value == '[') {
+                        brackets++;
+                    } else if (value == ']') {
+                        brackets--;
+                    } else if (value == '>' && brackets == 0) {
+                        state = CONTENT;
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        private void startMarkup() {
+            if (startsWith(COMMENT_START)) {
+                state = COMMENT;
+                pending = COMMENT_START.length - 1;
+            } else if (startsWith(CDATA_START)) {
+                state = CDATA;
+                pending = CDATA_START.length - 1;
+            } else if (position + 1 < limit && buffer[position + 1] == '?') {
+                state = INSTRUCTION;
+                pending = 1;
+            } else if (position + 1 < limit && buffer[position + 1] == '!') {
+                state = DOCTYPE;
+                brackets = 0;
+            } else {
+                state = TAG;
+                endTag = position + 1 < limit && buffer[position + 1] == '/';
+                quote = 0;
+                previous = 0;
+            }
+        }
+
+        private void scanTag(byte value) {
+            if (quote != 0) {
+                if (value == quote) {
+                    quote = 0;
+                }
+            } else if (value == '"' || value == '\'') {
+                quote = value;
+            } else if (value == '>') {
+                if (endTag) {
+                    depth--;
+                } else if (previous != '/') {
+                    depth++;
+                }
+                state = CONTENT;
+            }
+            previous = value;
+        }
+
+        private void endMarkup(byte[] end) {
+            if (startsWith(end)) {
+                state = CONTENT;
+                pending = end.length - 1;
+            }
+        }
+
+        private boolean startsWith(byte[] bytes) {
+            if (limit - position < bytes.length) {
+                return false;
+            }
+            for (int i = 0; i < bytes.length; i++) {
+                if (buffer[position + i] != bytes[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean isDeclarationStart() {
+            if (limit - position <= DECLARATION_START.length || !startsWith(DECLARATION_START)) {
+                return false;
+            }
+            byte next = buffer[position + DECLARATION_START.length];
+            return next == ' ' || next == '\t' || next == '\r' || next == '\n' || next == '?';
+        }
+
+        /**
+         * Reads until the given number of bytes are available in the buffer, or the input ends.
+         *
+         * @return true if there is at least one byte in the buffer
+         */
+        private boolean fill(int length) throws IOException {
+            if (limit - position >= length || endOfInput) {
+                return position < limit;
+            }
+            if (position > 0) {
+                System.arraycopy(buffer, position, buffer, 0, limit - position);
+                limit -= position;
+                position = 0;
+            }
+            while (limit < length && !endOfInput) {
+                int count = inputStream.read(buffer, limit, buffer.length - limit);
+                if (count < 0) {
+                    endOfInput = true;
+                } else {
+                    limit += count;
+                }
+            }
+            return position < limit;
+        }
+    }
+}
@@ -0,0 +1,693 @@
+/*
+ * Copyright (c) 2023 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.xmldata;
+
+import io.ballerina.runtime.api.TypeTags;
+import io.ballerina.runtime.api.creators.ValueCreator;
+import io.ballerina.runtime.api.types.ArrayType;
+import io.ballerina.runtime.api.types.Field;
+import io.ballerina.runtime.api.types.RecordType;
+import io.ballerina.runtime.api.types.ReferenceType;
+import io.ballerina.runtime.api.types.Type;
+import io.ballerina.runtime.api.types.UnionType;
+import io.ballerina.runtime.api.types.XmlNodeType;
+import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.values.BArray;
+import io.ballerina.runtime.api.values.BDecimal;
+import io.ballerina.runtime.api.values.BError;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BString;
+import io.ballerina.runtime.api.values.BXml;
+import io.ballerina.runtime.api.values.BXmlItem;
+import io.ballerina.runtime.api.values.BXmlSequence;
+import io.ballerina.stdlib.xmldata.RecordBindingPlan.FieldBinding;
+import io.ballerina.stdlib.xmldata.utils.Constants;
+import io.ballerina.stdlib.xmldata.utils.ConversionException;
+import io.ballerina.stdlib.xmldata.utils.LimitExceededException;
+import org.ballerinalang.langlib.value.CloneWithType;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static io.ballerina.runtime.api.utils.StringUtils.fromString;
+
+/**
+ * Binds an XML value to a record type in a single pass. The record values are created while the XML is traversed,
+ * so neither the intermediate JSON value nor the `CloneWithType` conversion of it is needed. The result is the same
+ * as converting the XML with {@link XmlToJson} and cloning the JSON to the record type.
+ * <p>
+ * The elements of the fields which the binder does not bind, as decided by the {@link RecordBindingPlan} from the
+ * field types, and the elements which are not declared in the record are converted with {@link XmlToJson} and
+ * cloned to their field type one at a time, so the XML is still traversed once. So are the elements that do not
+ * have the shape of their field type, such as an element with only a text for a record field. A value which is not
+ * of its field type and a missing required field are reported with a {@link ConversionException}, which has the
+ * message of the type conversion of the generic conversion.
+ *
+ * @since 2.5.0
+ */
+public class XmlRecordBinder {
+
+    private static final String CONTENT = "#content";
+    private static final String JSON_CONVERSION_ERROR = "'map<json>' value cannot be converted to '";
+
+    private final String attributePrefix;
+    private final boolean preserveNamespaces;
+    private final boolean ignoreUnknown;
+    private final RecordType rootType;
+    private final ConversionLimits.Tracker tracker;
+    private final NamespaceContext namespaces = new NamespaceContext();
+    // Names of the fields from the root record to the record being bound, which name the fields in the errors.
+    private final List<String> fieldPath = new ArrayList<>();
+
+    private XmlRecordBinder(String attributePrefix, boolean preserveNamespaces, boolean ignoreUnknown,
+                            RecordType rootType, ConversionLimits.Tracker tracker) {
+        this.attributePrefix = attributePrefix;
+        this.preserveNamespaces = preserveNamespaces;
+        this.ignoreUnknown = ignoreUnknown;
+        this.rootType = rootType;
+        this.tracker = tracker;
+    }
+
+    /**
+     * Binds the root element of the given XML to the record type. The attributes of the elements are bound only
+     * when the corresponding record fields have the `xmldata:Attribute` annotation.
+     *
+     * @param xml        XML value that has a single root element
+     * @param recordType the record type of the root element
+     * @return the record value, or `null` if the XML can not be bound directly
+     * @throws ConversionException if a value of the XML does not match its field type
+     */
+    public static Object bindRootElement(BXml xml, RecordType recordType) throws ConversionException {
+        return bindRootElement(xml, recordType, false, null);
+    }
+
+    /**
+     * Binds the root element of the given XML to the record type, optionally skipping the elements which are not
+     * declared as fields of the records. The skipped elements are not traversed.
+     *
+     * @param xml           XML value that has a single root element
+     * @param recordType    the record type of the root element
+     * @param ignoreUnknown whether the elements which are not fields of the records are skipped
+     * @param tracker       tracker which counts the XML for the metrics, or `null` if the XML is not counted
+     * @return the record value, or `null` if the XML can not be bound directly
+     * @throws ConversionException if a value of the XML does not match its field type
+     */
+    static Object bindRootElement(BXml xml, RecordType recordType, boolean ignoreUnknown,
+                                  ConversionLimits.Tracker tracker) throws ConversionException {
+        BXmlItem root = getRootElement(xml);
+        if (root == null) {
+            return null;
+        }
+        String key = XmlToJson.getElementKey(root, true);
+        RecordBindingPlan plan = RecordBindingPlan.of(recordType);
+        if (plan.hasField(key)) {
+            return null;
+        }
+        XmlRecordBinder binder = new XmlRecordBinder(Constants.ADD_IF_HAS_ANNOTATION, true, ignoreUnknown,
+                recordType, tracker);
+        try {
+            binder.namespaces.enter(root.getAttributesMap());
+            binder.countElement(root);
+            BMap<BString, Object> attributes = binder.getAttributes(root, recordType, null);
+            List<BXml> children = filterWhitespace(root.getChildrenSeq().getChildrenList());
+            if (attributes.isEmpty() && (children.isEmpty() || isText(children))) {
+                // The generic conversion converts such a root element to a string.
+                throw new ConversionException("'string' value cannot be converted to '" + recordType + "'");
+            }
+            return binder.bindRecord(plan, root, attributes, children);
+        } catch (Exception e) {
+            throw XmlToJson.addElementToError(e, root, key);
+        }
+    }
+
+    /**
+     * Binds the items of the given XML to the fields of the record type, in the same way the JSON object of the
+     * XML is cloned to the record type.
+     *
+     * @param xml                XML value to bind
+     * @param recordType         the record type
+     * @param attributePrefix    prefix to use in attributes
+     * @param preserveNamespaces preserve the namespaces when converting
+     * @return the record value, or `null` if the XML can not be bound directly
+     * @throws ConversionException if a value of the XML does not match its field type
+     */
+    public static Object bindContent(BXml xml, RecordType recordType, String attributePrefix,
+                                     boolean preserveNamespaces) throws ConversionException {
+        return bindContent(xml, recordType, attributePrefix, preserveNamespaces, false, null);
+    }
+
+    static Object bindContent(BXml xml, RecordType recordType, String attributePrefix, boolean preserveNamespaces,
+                              boolean ignoreUnknown, ConversionLimits.Tracker tracker) throws ConversionException {
+        List<BXml> items;
+        if (xml instanceof BXmlItem) {
+            items = List.of(xml);
+        } else if (xml instanceof BXmlSequence) {
+            items = ((BXmlSequence) xml).getChildrenList();
+        } else {
+            return null;
+        }
+        items = filterWhitespace(items);
+        if (items.isEmpty() || isText(items)) {
+            return null;
+        }
+        XmlRecordBinder binder = new XmlRecordBinder(attributePrefix, preserveNamespaces, ignoreUnknown, recordType,
+                tracker);
+        RecordBindingPlan plan = RecordBindingPlan.of(recordType);
+        Map<String, Object> values = new LinkedHashMap<>();
+        try {
+            binder.bindChildren(values, plan, items, null);
+            return binder.createRecord(plan, values);
+        } catch (ConversionException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ConversionException(e.getMessage());
+        }
+    }
+
+    private BMap<BString, Object> bindRecord(RecordBindingPlan plan, BXmlItem element,
+                                             BMap<BString, Object> attributes, List<BXml> children)
+            throws Exception {
+        Map<String, Object> values = new LinkedHashMap<>();
+        bindChildren(values, plan, children, element.getAttributesMap());
+        for (Map.Entry<BString, Object> entry : attributes.entrySet()) {
+            values.put(entry.getKey().getValue(), new JsonValue(entry.getValue()));
+        }
+        return createRecord(plan, values);
+    }
+
+    private void bindChildren(Map<String, Object> values, RecordBindingPlan plan, List<BXml> children,
+                              BMap<BString, BString> attributeMap) throws Exception {
+        if (isText(children)) {
+            // The callers do not bind the elements which only have a text, so this is the text of an element which
+            // has attributes.
+            values.put(CONTENT, new JsonValue(fromString(readText(children.get(0)).trim())));
+            return;
+        }
+        for (int i = 0; i < children.size(); i++) {
+            BXml child = children.get(i);
+            XmlNodeType nodeType = child.getNodeType();
+            if (nodeType == XmlNodeType.COMMENT || nodeType == XmlNodeType.PI) {
+                continue;
+            } else if (nodeType == XmlNodeType.TEXT) {
+                addContent(values, readText(child));
+                continue;
+            }
+            BXmlItem element = (BXmlItem) child;
+            String key = XmlToJson.getElementKey(element, preserveNamespaces);
+            FieldBinding field = plan.getFieldBinding(key);
+            if (field == null && ignoreUnknown) {
+                continue;
+            }
+            try {
+                if (field == null || !field.isBound()) {
+                    addValue(values, plan, key, convertElement(plan, element, attributeMap));
+                    continue;
+                }
+                int count = bindTextElements(values, field, children, i);
+                if (count > 0) {
+                    i += count - 1;
+                    continue;
+                }
+                bindField(values, plan, field, element, key, attributeMap);
+            } catch (ConversionException e) {
+                XmlToJson.setPosition(e, children, i,
+                        NameKeyCache.getElementKey(element.getQName(), preserveNamespaces), preserveNamespaces);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Binds an element to its field. As in {@link XmlToJson}, an element which a conversion error is thrown
+     * through is added to the path of the error. An element which does not have the shape of its field type is
+     * converted as in {@link XmlToJson} instead.
+     */
+    private void bindField(Map<String, Object> values, RecordBindingPlan plan, FieldBinding field,
+                           BXmlItem element, String key, BMap<BString, BString> parentAttributeMap)
+            throws Exception {
+        boolean bound;
+        // The scope is not exited when the binding fails, as the binder is not used after that.
+        try {
+            namespaces.enter(element.getAttributesMap());
+            countElement(element);
+            bound = bindElement(values, field, element, parentAttributeMap);
+        } catch (Exception e) {
+            throw XmlToJson.addElementToError(e, element, key);
+        }
+        namespaces.exit();
+        if (bound) {
+            return;
+        }
+        Object value = convertElement(plan, element, parentAttributeMap);
+        if (field.getType().getTag() == TypeTags.ARRAY_TAG) {
+            addArrayItem(values, plan, field, value);
+        } else {
+            addValue(values, plan, key, value);
+        }
+    }
+
+    /**
+     * Binds an element to its field.
+     *
+     * @return true if the element is bound, or false if it needs to be converted as in {@link XmlToJson}
+     */
+    private boolean bindElement(Map<String, Object> values, FieldBinding field, BXmlItem element,
+                                BMap<BString, BString> parentAttributeMap) throws Exception {
+        String name = field.getName();
+        Type fieldType = field.getType();
+        if (fieldType.getTag() == TypeTags.ARRAY_TAG) {
+            return bindArrayItem(values, field, element, parentAttributeMap);
+        }
+        if (values.containsKey(name)) {
+            return false;
+        }
+        List<BXml> children = filterWhitespace(element.getChildrenSeq().getChildrenList());
+        if (fieldType.getTag() == TypeTags.XML_TAG) {
+            // The attributes of the element of an `xml` field are not converted.
+            if (children.isEmpty()) {
+                return false;
+            }
+            values.put(name, children.size() == 1 ? children.get(0) : element.getChildrenSeq().elements());
+            return true;
+        }
+        BMap<BString, Object> attributes = getAttributes(element, fieldType, parentAttributeMap);
+        if (field.getReferredType().getTag() == TypeTags.RECORD_TYPE_TAG) {
+            // An empty element is converted to an empty map only for the referenced record types, and an element
+            // which only has a text is converted to a string.
+            if (attributes.isEmpty() &&
+                    (children.isEmpty() ? !(fieldType instanceof ReferenceType) : isText(children))) {
+                return false;
+            }
+            fieldPath.add(name);
+            values.put(name, bindRecord(field.getRecordPlan(), element, attributes, children));
+            fieldPath.remove(fieldPath.size() - 1);
+            return true;
+        }
+        if (!attributes.isEmpty()) {
+            return false;
+        }
+        Object value;
+        if (children.isEmpty()) {
+            value = getEmptyValue(fieldType);
+        } else if (isText(children)) {
+            value = convertValue(fieldType, readText(children.get(0)).trim());
+        } else {
+            value = null;
+        }
+        if (value == null) {
+            return false;
+        }
+        values.put(name, value);
+        return true;
+    }
+
+    /**
+     * Binds the repeated elements from the given index together, when they are the text values of an `int`,
+     * `float` or `boolean` array field that is not bound yet.
+     *
+     * @return the number of the elements bound, or zero if the elements need to be bound one at a time
+     */
+    private int bindTextElements(Map<String, Object> values, FieldBinding field, List<BXml> children, int start)
+            throws LimitExceededException {
+        Type fieldType = field.getType();
+        if (fieldType.getTag() != TypeTags.ARRAY_TAG || values.containsKey(field.getName())) {
+            return 0;
+        }
+        BString name = NameKeyCache.getElementKey(((BXmlItem) children.get(start)).getQName(), preserveNamespaces);
+        int count = XmlToJson.countTextElements(children, start, name, preserveNamespaces);
+        if (count < 2) {
+            return 0;
+        }
+        // The element type is not referred, as the array is created with the element type itself.
+        BArray array = XmlToJson.convertTextElements(children, start, count,
+                ((ArrayType) fieldType).getElementType());
+        if (array == null) {
+            return 0;
+        }
+        values.put(field.getName(), array);
+        if (tracker != null) {
+            for (int i = start; i < start + count; i++) {
+                BXmlItem element = (BXmlItem) children.get(i);
+                tracker.enterElement(element, namespaces.getDepth() + 1);
+                tracker.checkText(element.getChildrenSeq().getChildrenList().get(0).toString(), true);
+            }
+        }
+        return count;
+    }
+
+    private boolean bindArrayItem(Map<String, Object> values, FieldBinding field, BXmlItem element,
+                                  BMap<BString, BString> parentAttributeMap) throws Exception {
+        Type elementType = field.getElementType();
+        BMap<BString, Object> attributes = getAttributes(element, field.getType(), parentAttributeMap);
+        List<BXml> children = filterWhitespace(element.getChildrenSeq().getChildrenList());
+        if (elementType.getTag() == TypeTags.RECORD_TYPE_TAG) {
+            if (attributes.isEmpty()) {
+                // An empty element adds an empty array, and an element which only has a text is converted to a
+                // string.
+                if (children.isEmpty()) {
+                    getArray(values, field);
+                    return true;
+                } else if (isText(children)) {
+                    return false;
+                }
+            }
+            BArray array = getArray(values, field);
+            fieldPath.add(field.getName() + "[" + array.size() + "]");
+            array.append(bindRecord(field.getRecordPlan(), element, attributes, children));
+            fieldPath.remove(fieldPath.size() - 1);
+            return true;
+        }
+        if (!attributes.isEmpty()) {
+            return false;
+        } else if (children.isEmpty()) {
+            getArray(values, field);
+            return true;
+        } else if (!isText(children)) {
+            return false;
+        }
+        // The array items are converted from the text without trimming it, as in `XmlToJson.convertToArray`.
+        String text = readText(children.get(0));
+        getArray(values, field).append(convertValue(elementType, text));
+        return true;
+    }
+
+    private static BArray getArray(Map<String, Object> values, FieldBinding field) {
+        BArray array = (BArray) values.get(field.getName());
+        if (array == null) {
+            array = ValueCreator.createArrayValue((ArrayType) field.getType());
+            values.put(field.getName(), array);
+        }
+        return array;
+    }
+
+    private BMap<BString, Object> getAttributes(BXmlItem element, Type fieldType,
+                                                BMap<BString, BString> parentAttributeMap) throws Exception {
+        BMap<BString, Object> attributes = ValueCreator.createMapValue(Constants.JSON_MAP_TYPE);
+        BMap<BString, BString> attributeMap = element.getAttributesMap();
+        if (!attributeMap.isEmpty()) {
+            XmlToJson.processAttributeWithAnnotation(element, attributePrefix, preserveNamespaces, attributes,
+                    fieldType, attributeMap, parentAttributeMap, namespaces);
+        }
+        return attributes;
+    }
+
+    /**
+     * Converts an element of the record as in {@link XmlToJson}, for the fields which are not bound directly.
+     */
+    private Object convertElement(RecordBindingPlan plan, BXmlItem element, BMap<BString, BString> attributeMap)
+            throws Exception {
+        return XmlToJson.convertSequenceElement(element, attributePrefix, preserveNamespaces, plan.getRecordType(),
+                attributeMap, namespaces, tracker);
+    }
+
+    /**
+     * Adds the converted value of an element, which is cloned to its field type when the record is created. The
+     * values of the repeated elements are merged as in {@link XmlToJson}.
+     */
+    private void addValue(Map<String, Object> values, RecordBindingPlan plan, String key, Object value)
+            throws ConversionException {
+        Object earlier = values.get(key);
+        if (earlier == null) {
+            values.put(key, new JsonValue(value));
+        } else if (earlier instanceof JsonValue) {
+            JsonValue jsonValue = (JsonValue) earlier;
+            jsonValue.value = XmlToJson.mergeElement(jsonValue.value, value);
+        } else {
+            // A repeated element of a field that is bound is not a value of the field type, as the field types of
+            // the bound fields other than the arrays do not accept a list.
+            throw getTypeError(key, plan.getField(key).getFieldType(), plan.getRecordType(),
+                    "[" + StringUtils.getExpressionStringValue(earlier) + "," +
+                            StringUtils.getExpressionStringValue(value) + "]");
+        }
+    }
+
+    private void addArrayItem(Map<String, Object> values, RecordBindingPlan plan, FieldBinding field, Object value)
+            throws ConversionException {
+        Object item = value;
+        if (value instanceof BArray) {
+            // The value of an array item is the first member of its list, as in `XmlToJson.mergeElement`.
+            BArray list = (BArray) value;
+            if (list.isEmpty()) {
+                return;
+            }
+            item = list.get(0);
+        }
+        BArray array = getArray(values, field);
+        Type elementType = ((ArrayType) field.getType()).getElementType();
+        Object convertedItem = CloneWithType.convert(elementType, item);
+        if (convertedItem instanceof BError) {
+            String key = field.getName() + "[" + array.size() + "]";
+            throw getTypeError(key, elementType, plan.getRecordType(),
+                    StringUtils.getExpressionStringValue(item));
+        }
+        array.append(convertedItem);
+    }
+
+    private static void addContent(Map<String, Object> values, String text) {
+        BString content = fromString(text.trim());
+        JsonValue earlier = (JsonValue) values.get(CONTENT);
+        if (earlier == null) {
+            values.put(CONTENT, new JsonValue(content));
+        } else if (earlier.value instanceof BArray) {
+            ((BArray) earlier.value).append(content);
+        } else {
+            BArray contents = XmlToJson.createNewJsonList();
+            contents.append(earlier.value);
+            contents.append(content);
+            earlier.value = contents;
+        }
+    }
+
+    private BMap<BString, Object> createRecord(RecordBindingPlan plan, Map<String, Object> values)
+            throws ConversionException {
+        RecordType recordType = plan.getRecordType();
+        BMap<BString, Object> record = ValueCreator.createRecordValue(recordType.getPackage(), recordType.getName());
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            String key = entry.getKey();
+            Object value = entry.getValue();
+            if (value instanceof JsonValue) {
+                value = cloneToFieldType(key, ((JsonValue) value).value, recordType, plan.getField(key));
+            }
+            record.put(NameKeyCache.getKey(key), value);
+        }
+        for (BString field : plan.getRequiredFields()) {
+            if (!record.containsKey(field)) {
+                String key = field.getValue();
+                throw getTypeError("missing required field '" + getFieldPath(key) + "' of type '" +
+                        plan.getField(key).getFieldType() + "' in record '" + recordType + "'");
+            }
+        }
+        return record;
+    }
+
+    /**
+     * Clones a value converted as in {@link XmlToJson} to its field type, or to the rest field type of the record
+     * when the record does not have the field.
+     */
+    private Object cloneToFieldType(String key, Object value, RecordType recordType, Field field)
+            throws ConversionException {
+        Type type;
+        if (field != null) {
+            type = field.getFieldType();
+        } else if (recordType.isSealed()) {
+            throw getTypeError("field '" + getFieldPath(key) + "' cannot be added to the closed record '" +
+                    recordType + "'");
+        } else {
+            type = recordType.getRestFieldType();
+        }
+        if (isValueOfType(value, type)) {
+            return value;
+        }
+        Object convertedValue = CloneWithType.convert(type, value);
+        if (convertedValue instanceof BError) {
+            throw getTypeError(key, type, recordType, StringUtils.getExpressionStringValue(value));
+        }
+        return convertedValue;
+    }
+
+    private ConversionException getTypeError(String key, Type type, RecordType recordType, String value) {
+        return getTypeError("field '" + getFieldPath(key) + "' in record '" + recordType + "' should be of type '" +
+                type + "', found '" + value + "'");
+    }
+
+    /**
+     * Returns the error of the type conversion of the generic conversion, which names the field with its path from
+     * the record being converted.
+     */
+    private ConversionException getTypeError(String detail) {
+        return new ConversionException(JSON_CONVERSION_ERROR + rootType + "': \n\t\t" + detail);
+    }
+
+    private String getFieldPath(String key) {
+        if (fieldPath.isEmpty()) {
+            return key;
+        }
+        return String.join(".", fieldPath) + "." + key;
+    }
+
+    /**
+     * Returns the value of an empty element, or `null` if the generic conversion fails to convert the empty text to
+     * the field type.
+     */
+    private static Object getEmptyValue(Type fieldType) {
+        switch (fieldType.getTag()) {
+            case TypeTags.STRING_TAG:
+                return fromString("");
+            case TypeTags.BOOLEAN_TAG:
+                return Boolean.FALSE;
+            default:
+                return null;
+        }
+    }
+
+    private static Object convertValue(Type type, String value) throws ConversionException {
+        switch (type.getTag()) {
+            case TypeTags.INT_TAG:
+                return checkValue(NumberParser.parseInt(value), value, type);
+            case TypeTags.FLOAT_TAG:
+                return checkValue(NumberParser.parseFloat(value), value, type);
+            case TypeTags.DECIMAL_TAG:
+                return ValueCreator.createDecimalValue(checkValue(NumberParser.parseDecimal(value), value, type));
+            case TypeTags.BOOLEAN_TAG:
+                return Boolean.parseBoolean(value);
+            case TypeTags.STRING_TAG:
+                return fromString(value);
+            default:
+                // The bound unions only have basic types as members.
+                Object convertedValue = UnionConversionPlan.of((UnionType) type).convert(value);
+                if (convertedValue == null) {
+                    throw new ConversionException("Couldn't convert value: " + value + " to " + type, type);
+                }
+                return convertedValue;
+        }
+    }
+
+    /**
+     * Returns the value parsed from the text, or throws the error of {@link XmlToJson} for a text which is not a
+     * value of the type.
+     */
+    private static <T> T checkValue(T value, String text, Type type) throws ConversionException {
+        if (value == null) {
+            throw new ConversionException("Error occurred when converting value: " + text + " to " + type, type);
+        }
+        return value;
+    }
+
+    private static boolean isValueOfType(Object value, Type type) {
+        switch (type.getTag()) {
+            case TypeTags.INT_TAG:
+                return value instanceof Long;
+            case TypeTags.FLOAT_TAG:
+                return value instanceof Double;
+            case TypeTags.DECIMAL_TAG:
+                return value instanceof BDecimal;
+            case TypeTags.BOOLEAN_TAG:
+                return value instanceof Boolean;
+            case TypeTags.STRING_TAG:
+                return value instanceof BString;
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isText(List<BXml> items) {
+        return items.size() == 1 && items.get(0).getNodeType() == XmlNodeType.TEXT;
+    }
+
+    private void countElement(BXmlItem element) throws LimitExceededException {
+        if (tracker != null) {
+            tracker.enterElement(element, namespaces.getDepth());
+        }
+    }
+
+    /**
+     * Reads the value of a text node, which is the only way the binder reads a text.
+     */
+    private String readText(BXml text) throws LimitExceededException {
+        String value = getTextValue(text);
+        if (tracker != null) {
+            tracker.checkText(value, true);
+        }
+        return value;
+    }
+
+    /**
+     * Returns the value of a text node in the same way `XmlToJson.convertValue` reads it as a JSON string. Only the
+     * text that has an escape character or a control character needs to be parsed as JSON.
+     */
+    private static String getTextValue(BXml text) {
+        String value = text.stringValue(null);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' || c < ' ') {
+                return XmlToJson.convertText(value).toString();
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Returns the root element of the XML, or `null` if the XML has other items than the root element and the
+     * comments and processing instructions around it.
+     */
+    private static BXmlItem getRootElement(BXml xml) {
+        if (xml instanceof BXmlItem) {
+            return (BXmlItem) xml;
+        }
+        BXmlItem root = null;
+        for (BXml item : filterWhitespace(((BXmlSequence) xml).getChildrenList())) {
+            XmlNodeType nodeType = item.getNodeType();
+            if (nodeType == XmlNodeType.ELEMENT && root == null) {
+                root = (BXmlItem) item;
+            } else if (nodeType != XmlNodeType.COMMENT && nodeType != XmlNodeType.PI) {
+                return null;
+            }
+        }
+        return root;
+    }
+
+    private static List<BXml> filterWhitespace(List<BXml> items) {
+        List<BXml> filteredItems = new ArrayList<>(items.size());
+        for (BXml item : items) {
+            if (item.getNodeType() != XmlNodeType.TEXT) {
+                filteredItems.add(item);
+                continue;
+            }
+            String text = item.toString();
+            if (text.isEmpty() || !XmlToJson.isWhitespace(text)) {
+                filteredItems.add(item);
+            }
+        }
+        return filteredItems;
+    }
+
+    /**
+     * A value converted as in {@link XmlToJson}, which is cloned to its field type when the record is created.
+     */
+    private static class JsonValue {
+
+        private Object value;
+
+        JsonValue(Object value) {
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,263 @@
+/*
+ * Copyright (c) 2023 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.xmldata;
+
+import io.ballerina.runtime.api.Environment;
+import io.ballerina.runtime.api.PredefinedTypes;
+import io.ballerina.runtime.api.creators.TypeCreator;
+import io.ballerina.runtime.api.creators.ValueCreator;
+import io.ballerina.runtime.api.types.Type;
+import io.ballerina.runtime.api.values.BArray;
+import io.ballerina.runtime.api.values.BError;
+import io.ballerina.runtime.api.values.BObject;
+import io.ballerina.runtime.api.values.BString;
+import io.ballerina.runtime.api.values.BTypedesc;
+import io.ballerina.runtime.api.values.BXml;
+import io.ballerina.stdlib.xmldata.utils.ModuleUtils;
+import io.ballerina.stdlib.xmldata.utils.XmlDataUtils;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.stream.XMLStreamException;
+
+/**
+ * Converts the elements at a path of an XML document to records one at a time, as a Ballerina stream. The document
+ * is read from a file, or from a stream of byte chunks which are pulled by the `RecordStream` class as the parser
+ * needs them. A stream which is neither read to the end nor closed is closed when the `RecordStream` object is
+ * garbage collected, so the file or the parser thread of the stream is released.
+ *
+ * @since 2.5.0
+ */
+public class XmlRecordStream {
+
+    private static final String RECORD_STREAM = "RecordStream";
+    private static final String READER = "reader";
+    private static final String PATH_SEPARATOR = "/";
+
+    /**
+     * Creates a stream of the records converted from the elements at the given path.
+     *
+     * @param source      path of the XML file, or a stream of byte chunks of the XML document
+     * @param elementPath names of the elements from the root of the document to the elements to convert, separated
+     *                    by `/`
+     * @param returnType  record type to convert the elements to
+     * @return a stream of records or an error
+     */
+    public static Object fromXmlStream(Object source, BString elementPath, BTypedesc returnType) {
+        Type describingType = returnType.getDescribingType();
+        try {
+            XmlToRecord.validateRecordType(describingType);
+            String[] path = getPath(elementPath.getValue());
+            RecordReader reader;
+            BObject recordStream;
+            if (source instanceof BString) {
+                InputStream inputStream;
+                try {
+                    inputStream = new FileInputStream(((BString) source).getValue());
+                } catch (IOException e) {
+                    return XmlDataUtils.getError("Failed to open the XML file: " + e.getMessage());
+                }
+                try {
+                    reader = new FileRecordReader(new XmlElementReader(inputStream, path), returnType);
+                } catch (XMLStreamException e) {
+                    inputStream.close();
+                    throw e;
+                }
+                recordStream = ValueCreator.createObjectValue(ModuleUtils.getModule(), RECORD_STREAM,
+                        (Object) null);
+            } else {
+                reader = new ByteStreamRecordReader(path, returnType);
+                recordStream = ValueCreator.createObjectValue(ModuleUtils.getModule(), RECORD_STREAM, source);
+            }
+            recordStream.addNativeData(READER, reader);
+            reader.closeWith(recordStream);
+            Type completionType = TypeCreator.createUnionType(PredefinedTypes.TYPE_ERROR, PredefinedTypes.TYPE_NULL);
+            return ValueCreator.createStreamValue(TypeCreator.createStreamType(describingType, completionType),
+                    recordStream);
+        } catch (XMLStreamException e) {
+            return XmlDataUtils.getError("Failed to parse the XML: " + e.getMessage());
+        } catch (Exception e) {
+            return XmlDataUtils.getError(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Returns the next record of the stream. The strand is suspended while the parser of a byte stream reads the
+     * record.
+     *
+     * @param env          environment of the call
+     * @param recordStream the `RecordStream` object
+     * @return the next record, `true` if the next byte chunk is needed to read the record, an error, or `null` if
+     * there are no more records
+     */
+    public static Object next(Environment env, BObject recordStream) {
+        return getReader(recordStream).next(env);
+    }
+
+    /**
+     * Adds the next byte chunk of the XML document.
+     *
+     * @param recordStream the `RecordStream` object
+     * @param chunk        the next byte chunk, or `null` if there are no more chunks
+     */
+    public static void addChunk(BObject recordStream, Object chunk) {
+        getReader(recordStream).addChunk(chunk == null ? null : ((BArray) chunk).getBytes());
+    }
+
+    public static void close(BObject recordStream) {
+        getReader(recordStream).close();
+    }
+
+    private static RecordReader getReader(BObject recordStream) {
+        return (RecordReader) recordStream.getNativeData(READER);
+    }
+
+    private static String[] getPath(String elementPath) throws Exception {
+        List<String> names = new ArrayList<>();
+        for (String name : elementPath.split(PATH_SEPARATOR)) {
+            String trimmedName = name.trim();
+            if (!trimmedName.isEmpty()) {
+                names.add(trimmedName);
+            }
+        }
+        if (names.isEmpty()) {
+            throw new Exception("The element path: '" + elementPath + "' does not contain an element name");
+        }
+        return names.toArray(new String[0]);
+    }
+
+    /**
+     * Reads the next element and converts it to the record type, in the same way as the `fromXml` API. As the
+     * element is selected by the path, its name does not have to match the name of the record type.
+     *
+     * @return the record, an error, or `null` if there are no more elements
+     */
+    private static Object readRecord(XmlElementReader reader, BTypedesc type) {
+        try {
+            BXml element = reader.next();
+            if (element == null) {
+                return null;
+            }
+            return MapFromXml.toRecord(element, type, false);
+        } catch (XMLStreamException e) {
+            return XmlDataUtils.getError("Failed to parse the XML: " + e.getMessage());
+        }
+    }
+
+    private interface RecordReader {
+
+        Object next(Environment env);
+
+        void addChunk(byte[] chunk);
+
+        void close();
+
+        /**
+         * Closes the reader when the given object is garbage collected, if it is not closed before.
+         */
+        default void closeWith(Object owner) {
+            // The action refers to the reader only, as it would keep the object reachable otherwise.
+            ByteChunkParser.closeWith(owner, this::close);
+        }
+    }
+
+    /**
+     * Reads the records of a file on the thread that iterates the stream.
+     */
+    private static class FileRecordReader implements RecordReader {
+
+        private final XmlElementReader reader;
+        private final BTypedesc type;
+        private boolean closed = false;
+
+        FileRecordReader(XmlElementReader reader, BTypedesc type) {
+            this.reader = reader;
+            this.type = type;
+        }
+
+        @Override
+        public Object next(Environment env) {
+            if (closed) {
+                return null;
+            }
+            Object record = readRecord(reader, type);
+            if (record == null || record instanceof BError) {
+                close();
+            }
+            return record;
+        }
+
+        @Override
+        public void addChunk(byte[] chunk) {
+            // The file is read directly.
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                reader.close();
+            }
+        }
+    }
+
+    /**
+     * Reads the records of a stream of byte chunks with a {@link ByteChunkParser}.
+     */
+    private static class ByteStreamRecordReader implements RecordReader {
+
+        private final ByteChunkParser parser;
+
+        ByteStreamRecordReader(String[] path, BTypedesc type) {
+            this.parser = new ByteChunkParser("xmldata-record-stream", inputStream -> {
+                XmlElementReader reader = new XmlElementReader(inputStream, path);
+                return new ByteChunkParser.Parser() {
+                    @Override
+                    public Object next() {
+                        return readRecord(reader, type);
+                    }
+
+                    @Override
+                    public void close() {
+                        reader.close();
+                    }
+                };
+            }, false);
+        }
+
+        @Override
+        public Object next(Environment env) {
+            return parser.next(env);
+        }
+
+        @Override
+        public void addChunk(byte[] chunk) {
+            parser.addChunk(chunk);
+        }
+
+        @Override
+        public void close() {
+            parser.close();
+        }
+    }
+}
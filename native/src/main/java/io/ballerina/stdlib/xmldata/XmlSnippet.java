@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2023 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.xmldata;
+
+import io.ballerina.runtime.api.types.XmlNodeType;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BString;
+import io.ballerina.runtime.api.values.BXml;
+import io.ballerina.runtime.api.values.BXmlItem;
+import io.ballerina.runtime.api.values.BXmlSequence;
+
+import java.util.Map;
+
+import javax.xml.namespace.QName;
+
+/**
+ * Writes the beginning of an XML value for the error messages. Only the nodes up to the length limit are visited,
+ * so a large document is not serialized to report an error in it. A value within the limit is written in the same
+ * way as `toString()`.
+ *
+ * @since 2.5.0
+ */
+class XmlSnippet {
+
+    static final int MAX_LENGTH = 200;
+    private static final String TRUNCATED = "...";
+    private static final String XMLNS = "xmlns";
+
+    private XmlSnippet() {
+    }
+
+    /**
+     * Returns the XML value as a string, truncated to {@link #MAX_LENGTH} characters.
+     *
+     * @param xml XML value
+     * @return the snippet of the value
+     */
+    static String of(BXml xml) {
+        StringBuilder snippet = new StringBuilder();
+        if (!write(xml, snippet) || snippet.length() > MAX_LENGTH) {
+            snippet.setLength(MAX_LENGTH);
+            snippet.append(TRUNCATED);
+        }
+        return snippet.toString();
+    }
+
+    /**
+     * Writes the value until the limit is exceeded.
+     *
+     * @return true if the whole value is written
+     */
+    private static boolean write(BXml xml, StringBuilder snippet) {
+        if (snippet.length() > MAX_LENGTH) {
+            return false;
+        }
+        if (xml instanceof BXmlSequence) {
+            for (BXml child : ((BXmlSequence) xml).getChildrenList()) {
+                if (!write(child, snippet)) {
+                    return false;
+                }
+            }
+            return true;
+        } else if (xml.getNodeType() != XmlNodeType.ELEMENT) {
+            snippet.append(xml.toString());
+            return true;
+        }
+        BXmlItem element = (BXmlItem) xml;
+        String name = getName(element.getQName());
+        snippet.append('<').append(name);
+        BMap<BString, BString> attributeMap = element.getAttributesMap();
+        for (Map.Entry<BString, BString> entry : attributeMap.entrySet()) {
+            snippet.append(' ').append(getAttributeName(entry.getKey().getValue(), attributeMap)).append("=\"");
+            appendEscaped(entry.getValue().getValue(), snippet);
+            snippet.append('"');
+        }
+        BXmlSequence children = element.getChildrenSeq();
+        if (children.isEmpty()) {
+            snippet.append("/>");
+            return true;
+        }
+        snippet.append('>');
+        if (!write(children, snippet)) {
+            return false;
+        }
+        snippet.append("</").append(name).append('>');
+        return true;
+    }
+
+    private static String getName(QName name) {
+        String prefix = name.getPrefix();
+        return prefix == null || prefix.isEmpty() ? name.getLocalPart() : prefix + ":" + name.getLocalPart();
+    }
+
+    /**
+     * Returns the name of an attribute, which is kept as `{uri}localName` in the attribute map.
+     */
+    private static String getAttributeName(String key, BMap<BString, BString> attributeMap) {
+        int end = key.indexOf('}');
+        if (key.isEmpty() || key.charAt(0) != '{' || end < 0) {
+            return key;
+        }
+        String localName = key.substring(end + 1);
+        if (key.startsWith(BXmlItem.XMLNS_NS_URI_PREFIX)) {
+            return localName.equals(XMLNS) ? XMLNS : XMLNS + ":" + localName;
+        }
+        String uri = key.substring(1, end);
+        for (Map.Entry<BString, BString> entry : attributeMap.entrySet()) {
+            String declaration = entry.getKey().getValue();
+            if (declaration.startsWith(BXmlItem.XMLNS_NS_URI_PREFIX) && entry.getValue().getValue().equals(uri)) {
+                return declaration.substring(BXmlItem.XMLNS_NS_URI_PREFIX.length()) + ":" + localName;
+            }
+        }
+        return localName;
+    }
+
+    private static void appendEscaped(String value, StringBuilder snippet) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '&':
+                    snippet.append("&amp;");
+                    break;
+                case '<':
+                    snippet.append("&lt;");
+                    break;
+                case '"':
+                    snippet.append("&quot;");
+                    break;
+                default:
+                    snippet.append(c);
+            }
+        }
+    }
+}
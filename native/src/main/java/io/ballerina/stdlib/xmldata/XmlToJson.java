@@ -34,22 +34,20 @@ import io.ballerina.runtime.api.utils.JsonUtils;
 import io.ballerina.runtime.api.utils.StringUtils;
 import io.ballerina.runtime.api.utils.TypeUtils;
 import io.ballerina.runtime.api.values.BArray;
+import io.ballerina.runtime.api.values.BDecimal;
 import io.ballerina.runtime.api.values.BMap;
 import io.ballerina.runtime.api.values.BString;
 import io.ballerina.runtime.api.values.BXml;
 import io.ballerina.runtime.api.values.BXmlItem;
 import io.ballerina.runtime.api.values.BXmlSequence;
 import io.ballerina.stdlib.xmldata.utils.Constants;
+import io.ballerina.stdlib.xmldata.utils.ConversionException;
 import io.ballerina.stdlib.xmldata.utils.XmlDataUtils;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.regex.Pattern;
-
-import javax.xml.namespace.QName;
 
 import static io.ballerina.runtime.api.utils.StringUtils.fromString;
 
@@ -80,21 +78,43 @@ public class XmlToJson {
      * @return JSON object that construct from XML
      */
     public static Object toJson(BXml xml, BMap<?, ?> options) {
+        ConversionLimits limits = ConversionLimits.of(options);
+        if (ConversionMetrics.isEnabled()) {
+            long startTime = System.nanoTime();
+            ConversionLimits.Tracker tracker = ConversionLimits.newCountingTracker(limits);
+            return ConversionMetrics.record(ConversionMetrics.TO_JSON, null, startTime, tracker,
+                    convertToJson(xml, options, tracker));
+        }
+        return convertToJson(xml, options, limits == null ? null : limits.newTracker());
+    }
+
+    private static Object convertToJson(BXml xml, BMap<?, ?> options, ConversionLimits.Tracker tracker) {
         try {
             String attributePrefix = ((BString) options.get(StringUtils.fromString(Constants.OPTIONS_ATTRIBUTE_PREFIX)))
                     .getValue();
             boolean preserveNamespaces = ((Boolean) options.get(StringUtils.fromString(Constants.OPTIONS_PRESERVE_NS)));
-            return convertToJSON(xml, attributePrefix, preserveNamespaces, null, null);
+            // The text nodes of the sequences are checked with the sequences, as they may be whitespace.
+            if (tracker != null && xml.getNodeType() == XmlNodeType.TEXT) {
+                tracker.checkText(xml.toString(), true);
+            }
+            return convertToJSON(xml, attributePrefix, preserveNamespaces, null, null, new NamespaceContext(),
+                    PathFilter.of(options), tracker);
         } catch (Exception e) {
-            return XmlDataUtils.getError(e.getMessage());
+            return XmlDataUtils.getError(e.getMessage(), e);
         }
     }
 
     public static Object toJson(BXml xml, boolean preserveNamespaces, String attributePrefix, Type type) {
+        return toJson(xml, preserveNamespaces, attributePrefix, type, null, null);
+    }
+
+    static Object toJson(BXml xml, boolean preserveNamespaces, String attributePrefix, Type type,
+                         ElementFilter filter, ConversionLimits.Tracker tracker) {
         try {
-            return convertToJSON(xml, attributePrefix, preserveNamespaces, type, null);
+            return convertToJSON(xml, attributePrefix, preserveNamespaces, type, null, new NamespaceContext(), filter,
+                    tracker);
         } catch (Exception e) {
-            return XmlDataUtils.getError(e.getMessage());
+            return XmlDataUtils.getError(e.getMessage(), e);
         }
     }
 
@@ -108,23 +128,38 @@ public class XmlToJson {
      */
     public static Object convertToJSON(BXml xml, String attributePrefix, boolean preserveNamespaces, Type type,
                                        BMap<BString, BString> parentAttributeMap) throws Exception {
+        return convertToJSON(xml, attributePrefix, preserveNamespaces, type, parentAttributeMap,
+                new NamespaceContext());
+    }
+
+    static Object convertToJSON(BXml xml, String attributePrefix, boolean preserveNamespaces, Type type,
+                                BMap<BString, BString> parentAttributeMap, NamespaceContext namespaces)
+            throws Exception {
+        return convertToJSON(xml, attributePrefix, preserveNamespaces, type, parentAttributeMap, namespaces, null,
+                null);
+    }
+
+    private static Object convertToJSON(BXml xml, String attributePrefix, boolean preserveNamespaces, Type type,
+                                        BMap<BString, BString> parentAttributeMap, NamespaceContext namespaces,
+                                        ElementFilter filter, ConversionLimits.Tracker limits) throws Exception {
         if (type instanceof MapType) {
             MapType mapType = (MapType) type;
             if (mapType.getConstrainedType().getTag() == TypeTags.XML_TAG) {
                 BMap<BString, Object> map = createMapValue(type);
-                map.put(fromString(CONTENT), xml);
+                map.put(NameKeyCache.CONTENT, xml);
                 return map;
             }
         }
         if (xml instanceof BXmlItem) {
-            return convertElement((BXmlItem) xml, attributePrefix, preserveNamespaces, type, parentAttributeMap);
+            return convertElement((BXmlItem) xml, attributePrefix, preserveNamespaces, type, parentAttributeMap,
+                    namespaces, filter, limits);
         } else if (xml instanceof BXmlSequence) {
             BXmlSequence xmlSequence = (BXmlSequence) xml;
             if (xmlSequence.isEmpty()) {
                 return StringUtils.fromString(EMPTY_STRING);
             }
             Object seq = convertBXmlSequence(xmlSequence, attributePrefix, preserveNamespaces, type,
-                    parentAttributeMap);
+                    parentAttributeMap, namespaces, filter, limits);
             if (seq == null) {
                 return createNewJsonList();
             }
@@ -141,20 +176,30 @@ public class XmlToJson {
             if (type.getTag() == TypeTags.ARRAY_TAG) {
                 return convertToArray(type, xml);
             } else if (type.getTag() == TypeTags.MAP_TAG) {
-                switch (((MapType) type).getConstrainedType().getTag()) {
+                Type constrainedType = ((MapType) type).getConstrainedType();
+                switch (constrainedType.getTag()) {
                     case TypeTags.INT_TAG:
-                        return Long.parseLong(xml.toString());
+                        return parseInt(xml.toString(), constrainedType);
                     case TypeTags.BOOLEAN_TAG:
                         return Boolean.parseBoolean(xml.toString());
                     case TypeTags.DECIMAL_TAG:
-                        return ValueCreator.createDecimalValue(BigDecimal.valueOf(Double.parseDouble(xml.toString())));
+                        return parseDecimal(xml.toString(), constrainedType);
                     case TypeTags.FLOAT_TAG:
-                        return Double.parseDouble(xml.toString());
+                        return parseFloat(xml.toString(), constrainedType);
                 }
             }
         }
-        return JsonUtils.parse(DOUBLE_QUOTES + xml.stringValue(null).replace(DOUBLE_QUOTES,
-                "\\\"") + DOUBLE_QUOTES);
+        return convertText(xml.stringValue(null));
+    }
+
+    /**
+     * Converts the value of a text node to the corresponding JSON string.
+     *
+     * @param text value of the text node
+     * @return JSON string of the given text
+     */
+    static Object convertText(String text) {
+        return JsonUtils.parse(DOUBLE_QUOTES + text.replace(DOUBLE_QUOTES, "\\\"") + DOUBLE_QUOTES);
     }
 
     /**
@@ -163,37 +208,73 @@ public class XmlToJson {
      * @param xmlItem XML element to traverse
      * @param attributePrefix Prefix to use in attributes
      * @param preserveNamespaces preserve the namespaces when converting
+     * @param filter filter of the element and its siblings, or `null` if all the elements are converted
+     * @param limits tracker of the limits of the conversion, or `null` if there are no limits
      * @return ObjectNode Json object node corresponding to the given xml element
      */
     @SuppressWarnings("unchecked")
     private static Object convertElement(BXmlItem xmlItem, String attributePrefix,
                                          boolean preserveNamespaces, Type type,
-                                         BMap<BString, BString> parentAttributeMap) throws Exception {
+                                         BMap<BString, BString> parentAttributeMap, NamespaceContext namespaces,
+                                         ElementFilter filter, ConversionLimits.Tracker limits) throws Exception {
+        String keyValue = getElementKey(xmlItem, preserveNamespaces);
+        ElementFilter childFilter = null;
+        if (filter != null) {
+            childFilter = filter.enter(keyValue);
+            if (childFilter == null) {
+                return createMapValue(type);
+            }
+        }
         BMap<BString, Object> childrenData = createMapValue(type);
         BMap<BString, BString> attributeMap = xmlItem.getAttributesMap();
-        String keyValue = getElementKey(xmlItem, preserveNamespaces);
         Type fieldType = getFieldType(keyValue, type);
-        processAttributeWithAnnotation(xmlItem, attributePrefix, preserveNamespaces, childrenData, fieldType,
-                attributeMap, parentAttributeMap);
-        Object children = convertBXmlSequence(xmlItem.getChildrenSeq(), attributePrefix, preserveNamespaces,
-                fieldType,  attributeMap);
-        BMap<BString, Object> rootNode = createMapValue(type);
-        if (type != null && fieldType instanceof ArrayType && children instanceof BMap &&
-                TypeUtils.getReferredType(((ArrayType) fieldType).getElementType()) instanceof RecordType) {
-            for (Map.Entry<BString, Object> entry: childrenData.entrySet()) {
-                ((BMap<BString, Object>) children).put(entry.getKey(), entry.getValue());
+        try {
+            namespaces.enter(attributeMap);
+            if (limits != null) {
+                limits.enterElement(xmlItem, namespaces.getDepth());
+            }
+            if (childFilter == null || !childFilter.isPartial()) {
+                processAttributeWithAnnotation(xmlItem, attributePrefix, preserveNamespaces, childrenData,
+                        fieldType, attributeMap, parentAttributeMap, namespaces);
             }
-            children = convertToArray(fieldType, children);
+            Object children = convertBXmlSequence(xmlItem.getChildrenSeq(), attributePrefix, preserveNamespaces,
+                    fieldType,  attributeMap, namespaces, childFilter, limits);
+            namespaces.exit();
+            BMap<BString, Object> rootNode = createMapValue(type);
+            if (type != null && fieldType instanceof ArrayType && children instanceof BMap &&
+                    TypeUtils.getReferredType(((ArrayType) fieldType).getElementType()) instanceof RecordType) {
+                for (Map.Entry<BString, Object> entry: childrenData.entrySet()) {
+                    ((BMap<BString, Object>) children).put(entry.getKey(), entry.getValue());
+                }
+                children = convertToArray(fieldType, children);
+            }
+            return insertDataToMap(childrenData, children, rootNode,  keyValue, fieldType);
+        } catch (Exception e) {
+            throw addElementToError(e, xmlItem, keyValue);
         }
-        return insertDataToMap(childrenData, children, rootNode,  keyValue, fieldType);
     }
 
-    private static void processAttributeWithAnnotation(BXmlItem xmlItem, String attributePrefix,
-                                                        boolean preserveNamespaces, BMap<BString, Object> childrenData,
-                                                        Type fieldType, BMap<BString, BString> attributeMap,
-                                                        BMap<BString, BString> parentAttributeMap) throws Exception {
+    /**
+     * Adds the element which an error is thrown through to the path of the error. The innermost element is also
+     * the snippet of the error.
+     */
+    static ConversionException addElementToError(Exception e, BXmlItem xmlItem, String keyValue) {
+        ConversionException exception = e instanceof ConversionException ? (ConversionException) e :
+                new ConversionException(e.getMessage());
+        if (exception.getSnippet() == null) {
+            exception.setSnippet(XmlSnippet.of(xmlItem));
+        }
+        exception.addPathSegment(keyValue);
+        return exception;
+    }
+
+    static void processAttributeWithAnnotation(BXmlItem xmlItem, String attributePrefix,
+                                               boolean preserveNamespaces, BMap<BString, Object> childrenData,
+                                               Type fieldType, BMap<BString, BString> attributeMap,
+                                               BMap<BString, BString> parentAttributeMap,
+                                               NamespaceContext namespaces) throws Exception {
         if (!attributePrefix.equals(Constants.SKIP_ATTRIBUTE)) {
-            BMap<BString, Object> annotations = null;
+            RecordBindingPlan plan = null;
             if (attributePrefix.equals(Constants.ADD_IF_HAS_ANNOTATION))  {
                 Type annotationType = TypeUtils.getReferredType(fieldType);
                 if (fieldType.getTag() == TypeTags.ARRAY_TAG) {
@@ -208,11 +289,11 @@ public class XmlToJson {
                     }
                 }
                 if (annotationType.getTag() == TypeTags.RECORD_TYPE_TAG) {
-                    annotations = ((RecordType) annotationType).getAnnotations();
+                    plan = RecordBindingPlan.of((RecordType) annotationType);
                 }
             }
             processAttributes(attributeMap, attributePrefix, childrenData, fieldType,
-                    parentAttributeMap, xmlItem.getQName().getPrefix(), preserveNamespaces, annotations);
+                    parentAttributeMap, xmlItem.getQName().getPrefix(), preserveNamespaces, plan, namespaces);
         }
     }
 
@@ -220,6 +301,10 @@ public class XmlToJson {
     private static BMap<BString, Object> insertDataToMap(BMap<BString, Object> childrenData, Object children,
                                                          BMap<BString, Object> rootNode, String keyValue,
                                                          Type fieldType) throws Exception {
+        if (fieldType == null) {
+            put(rootNode, keyValue, getElementValue(childrenData, children));
+            return rootNode;
+        }
         if (childrenData.size() > 0) {
             if (children instanceof BMap) {
                 BMap<BString, Object> data = (BMap<BString, Object>) children;
@@ -232,7 +317,7 @@ public class XmlToJson {
             } else if (children instanceof BArray) {
                 put(rootNode, keyValue, children);
             } else if (children instanceof BString) {
-                putAsFieldTypes(childrenData, CONTENT, children.toString().trim(), fieldType);
+                putText(childrenData, CONTENT, (BString) children, fieldType);
                 put(rootNode, keyValue, childrenData);
                 return rootNode;
             } else {
@@ -250,7 +335,7 @@ public class XmlToJson {
             } else if (children instanceof BArray) {
                 put(rootNode, keyValue, children);
             } else if (children instanceof BString) {
-                putAsFieldTypes(rootNode, keyValue, children.toString().trim(), fieldType);
+                putText(rootNode, keyValue, (BString) children, fieldType);
             } else {
                 put(rootNode, keyValue, children);
             }
@@ -258,6 +343,39 @@ public class XmlToJson {
         return rootNode;
     }
 
+    /**
+     * Returns the value of an element converted without a type, from its attributes and the converted value of its
+     * children. The text of an element with attributes is its `#content`.
+     *
+     * @param childrenData attributes of the element
+     * @param children     converted value of the children, or `null` if the element is empty
+     * @return the value of the element
+     */
+    @SuppressWarnings("unchecked")
+    static Object getElementValue(BMap<BString, Object> childrenData, Object children) {
+        if (childrenData.size() > 0) {
+            if (children instanceof BMap) {
+                BMap<BString, Object> data = (BMap<BString, Object>) children;
+                for (Map.Entry<BString, Object> entry : childrenData.entrySet()) {
+                    data.put(entry.getKey(), entry.getValue());
+                }
+                return data;
+            } else if (children == null) {
+                return childrenData;
+            } else if (children instanceof BString) {
+                childrenData.put(NameKeyCache.CONTENT, fromString(children.toString().trim()));
+                return childrenData;
+            }
+            return children;
+        }
+        if (children == null) {
+            return fromString(EMPTY_STRING);
+        } else if (children instanceof BString) {
+            return fromString(children.toString().trim());
+        }
+        return children;
+    }
+
     private static Type getFieldType(String fieldName, Type type) {
         if (type != null) {
             if (type.getTag() == TypeTags.RECORD_TYPE_TAG) {
@@ -285,10 +403,9 @@ public class XmlToJson {
     }
 
     private static Type getRecordFieldType(Type type, String fieldName) {
-        RecordType recordType = (RecordType) type;
-        Map<String, Field> fields = recordType.getFields();
-        if (fields.get(fieldName) != null) {
-            return fields.get(fieldName).getFieldType();
+        Field field = ((RecordType) type).getFields().get(fieldName);
+        if (field != null) {
+            return field.getFieldType();
         }
         return type;
     }
@@ -296,25 +413,24 @@ public class XmlToJson {
     private static void processAttributes(BMap<BString, BString> attributeMap, String attributePrefix,
                                           BMap<BString, Object> mapData, Type type,
                                           BMap<BString, BString> parentAttributeMap, String prefix,
-                                          boolean preserveNamespaces, BMap<BString, Object> annotations)
-            throws Exception {
-        Map<String, String> nsPrefixMap = getNamespacePrefixes(attributeMap);
+                                          boolean preserveNamespaces, RecordBindingPlan plan,
+                                          NamespaceContext namespaces) throws Exception {
         if (prefix != null && preserveNamespaces && parentAttributeMap != null) {
             for (Map.Entry<BString, BString> entry : attributeMap.entrySet()) {
                 BString value = entry.getValue();
                 if (!isNamespacePrefixEntry(entry) ||
                         !isBelongingToElement(parentAttributeMap, entry.getKey(), value)) {
-                    String key = getAttributeKey(attributePrefix, getKey(entry, nsPrefixMap, preserveNamespaces));
-                    checkAnnotationAndAddAttributes(annotations, mapData, getFieldType(key, type), key,
+                    String key = getAttributeKey(attributePrefix, getKey(entry, namespaces, preserveNamespaces));
+                    checkAnnotationAndAddAttributes(plan, mapData, getFieldType(key, type), key,
                             value.getValue(), attributePrefix);
                 }
             }
         } else {
             for (Map.Entry<BString, BString> entry : attributeMap.entrySet()) {
-                String key = getKey(entry, nsPrefixMap, preserveNamespaces);
+                String key = getKey(entry, namespaces, preserveNamespaces);
                 if (key != null) {
                     key = getAttributeKey(attributePrefix, key);
-                    checkAnnotationAndAddAttributes(annotations, mapData, getFieldType(key, type), key,
+                    checkAnnotationAndAddAttributes(plan, mapData, getFieldType(key, type), key,
                             entry.getValue().getValue(), attributePrefix);
                 }
             }
@@ -329,42 +445,13 @@ public class XmlToJson {
         }
     }
 
-    @SuppressWarnings("unchecked")
-    private static void checkAnnotationAndAddAttributes(BMap<BString, Object> annotations,
-                                                        BMap<BString, Object> mapData, Type type, String key,
-                                                        String value, String attributePrefix) throws Exception {
+    private static void checkAnnotationAndAddAttributes(RecordBindingPlan plan, BMap<BString, Object> mapData,
+                                                        Type type, String key, String value, String attributePrefix)
+            throws Exception {
         if (!attributePrefix.equals(Constants.ADD_IF_HAS_ANNOTATION)) {
             putAsFieldTypes(mapData, key, value, type);
-        } else if (annotations.size() > 0) {
-            BString annotationKey = StringUtils.fromString((Constants.FIELD + key).replace(":",
-                    "\\:"));
-            for (BString annotationsKey : annotations.getKeys()) {
-                if (annotationsKey.getValue().contains(Constants.FIELD) &&
-                        annotationsKey.getValue().equals(annotationKey.getValue())) {
-                    BMap<BString, Object> annotationsForField = (BMap<BString, Object>) annotations.get(annotationsKey);
-                    for (BString annotationForField : annotationsForField.getKeys()) {
-                        if (annotationForField.getValue().endsWith(Constants.ATTRIBUTE)) {
-                            putAsFieldTypes(mapData, key, value, getFieldType(key, type));
-                            break;
-                        }
-                    }
-                } else if (!annotationsKey.getValue().contains(Constants.FIELD) &&
-                        annotationsKey.getValue().endsWith(Constants.NAME_SPACE)) {
-                    BMap<BString, Object> namespaceAnnotation = (BMap<BString, Object>) annotations.get(annotationsKey);
-                    BString prefix = (BString) namespaceAnnotation.get(StringUtils.fromString(Constants.PREFIX));
-                    BString uri = (BString) namespaceAnnotation.get(StringUtils.fromString(Constants.URI));
-                    if ((prefix == null && key.equals(XMLNS)) || (prefix != null && key.equals(XMLNS + ":" +
-                            prefix.getValue()))) {
-                        String uriValue = uri.getValue().trim();
-                        if (!uriValue.equals(value.trim())) {
-                            throw new Exception("The URI['" +  uriValue + "'] of the namespace in the expected " +
-                                    "record definition differs from the XML namespace's['" +  key + "'] URI['" +
-                                    value + "']");
-                        }
-                        break;
-                    }
-                }
-            }
+        } else if (plan != null && plan.hasAnnotations() && plan.acceptsAttribute(key, value)) {
+            putAsFieldTypes(mapData, key, value, getFieldType(key, type));
         }
     }
 
@@ -373,6 +460,20 @@ public class XmlToJson {
         return parentAttributeMap.containsKey(key) && parentAttributeMap.get(key).getValue().equals(value.getValue());
     }
 
+    /**
+     * Puts the text content of an element without its leading and trailing whitespace. When the text has no such
+     * whitespace and there is no type to convert it to, the given string value is put as it is.
+     */
+    private static void putText(BMap<BString, Object> map, String key, BString text, Type type) throws Exception {
+        String value = text.getValue();
+        String trimmedValue = value.trim();
+        if (type == null && trimmedValue.length() == value.length()) {
+            put(map, key, text);
+        } else {
+            putAsFieldTypes(map, key, trimmedValue, type);
+        }
+    }
+
     private static void putAsFieldTypes(BMap<BString, Object> map, String key, String value, Type type)
             throws Exception {
         if (type != null) {
@@ -386,112 +487,132 @@ public class XmlToJson {
             }
             if (type instanceof UnionType) {
                 UnionType bUnionType = (UnionType) type;
-                boolean isSuccessfullyCast = false;
-                for (Type memberType : bUnionType.getMemberTypes()) {
-                    try {
-                        convertToRecordType(map, memberType, key, value);
-                        isSuccessfullyCast = true;
-                        break;
-                    } catch (NumberFormatException e) {
-                        // Ignored
-                    }
-                }
-                if (!isSuccessfullyCast) {
-                    throw new Exception("Couldn't convert value: " + value + " to " + bUnionType);
+                Object convertedValue = UnionConversionPlan.of(bUnionType).convert(value);
+                if (convertedValue == null) {
+                    throw new ConversionException("Couldn't convert value: " + value + " to " + bUnionType,
+                            bUnionType);
                 }
+                map.put(NameKeyCache.getKey(key), convertedValue);
             } else {
                 convertToRecordType(map, type, key, value);
             }
         } else {
-            map.put(fromString(key), fromString(value));
+            map.put(NameKeyCache.getKey(key), fromString(value));
         }
     }
 
     private static void put(BMap<BString, Object> map, String key, Object value) {
-        map.put(fromString(key), value);
+        map.put(NameKeyCache.getKey(key), value);
     }
 
     private static void convertToRecordType(BMap<BString, Object> map, Type valueType, String key, String value)
             throws Exception {
+        BString fieldName = NameKeyCache.getKey(key);
         try {
             switch (valueType.getTag()) {
                 case TypeTags.INT_TAG:
-                    map.put(fromString(key), Long.parseLong(value));
+                    map.put(fieldName, parseInt(value, valueType));
                     break;
                 case TypeTags.FLOAT_TAG:
-                    map.put(fromString(key), Double.parseDouble(value));
+                    map.put(fieldName, parseFloat(value, valueType));
                     break;
                 case TypeTags.DECIMAL_TAG:
-                    map.put(fromString(key), ValueCreator.createDecimalValue(
-                            BigDecimal.valueOf(Double.parseDouble(value))));
+                    map.put(fieldName, parseDecimal(value, valueType));
                     break;
                 case TypeTags.BOOLEAN_TAG:
-                    map.put(fromString(key), Boolean.parseBoolean(value));
+                    map.put(fieldName, Boolean.parseBoolean(value));
                     break;
                 case TypeTags.ARRAY_TAG:
                     BArray array = convertToArray(valueType, value);
-                    map.put(fromString(key), array);
+                    map.put(fieldName, array);
                     break;
                 case TypeTags.STRING_TAG:
                 default:
-                    map.put(fromString(key), fromString(value));
+                    map.put(fieldName, fromString(value));
                     break;
             }
-        } catch (NumberFormatException e) {
-            throw new NumberFormatException("Error occurred when converting value: " + value + " to " + valueType);
+        } catch (ConversionException e) {
+            throw new ConversionException("Error occurred when converting value: " + value + " to " + valueType,
+                    valueType);
         } catch (Exception e) {
-            throw new Exception("Error occurred when converting value. " + e.getMessage());
+            throw new ConversionException("Error occurred when converting value. " + e.getMessage(), valueType);
         }
     }
 
-    private static BArray convertToArray(Type valueType, Object value) throws Exception {
+    private static BArray convertToArray(Type valueType, Object value) throws ConversionException {
+        BArray arr;
+        try {
+            arr = createArray(valueType, value);
+        } catch (Exception e) {
+            throw new ConversionException("Error occurred when converting value:" + e.getMessage(), valueType);
+        }
+        if (arr == null) {
+            throw new ConversionException("Error occurred when converting value:" + value + " to " + valueType,
+                    valueType);
+        }
+        return arr;
+    }
+
+    /**
+     * Creates an array of the given type with the value as its only member, or an empty array if the value is empty.
+     *
+     * @param valueType array type
+     * @param value     text of the value, or an XML text
+     * @return the array, or `null` if the value is not a number when the array is of a numeric type
+     */
+    static BArray createArray(Type valueType, Object value) {
         Type elementType = TypeUtils.getReferredType(((ArrayType) valueType).getElementType());
         BArray arr;
         String valueString = value.toString();
-        try {
-            switch (elementType.getTag()) {
-                case TypeTags.INT_TAG:
-                    arr = ValueCreator.createArrayValue(INT_ARRAY_TYPE);
-                    if (!valueString.isEmpty()) {
-                        arr.append(Long.parseLong(valueString));
-                    }
-                    return arr;
-                case TypeTags.FLOAT_TAG:
-                    arr = ValueCreator.createArrayValue(FLOAT_ARRAY_TYPE);
-                    if (!valueString.isEmpty()) {
-                        arr.append(Double.parseDouble(valueString));
-                    }
-                    return arr;
-                case TypeTags.DECIMAL_TAG:
-                    arr = ValueCreator.createArrayValue(DECIMAL_ARRAY_TYPE);
-                    if (!valueString.isEmpty()) {
-                        arr.append(ValueCreator.createDecimalValue(
-                                BigDecimal.valueOf(Double.parseDouble(valueString))));
+        switch (elementType.getTag()) {
+            case TypeTags.INT_TAG:
+                arr = ValueCreator.createArrayValue(INT_ARRAY_TYPE);
+                if (!valueString.isEmpty()) {
+                    Long number = NumberParser.parseInt(valueString);
+                    if (number == null) {
+                        return null;
                     }
-                    return arr;
-                case TypeTags.BOOLEAN_TAG:
-                    arr = ValueCreator.createArrayValue(BOOLEAN_ARRAY_TYPE);
-                    if (!valueString.isEmpty()) {
-                        arr.append(Boolean.parseBoolean(valueString));
-                    }
-                    return arr;
-                case TypeTags.STRING_TAG:
-                    arr = ValueCreator.createArrayValue(STRING_ARRAY_TYPE);
-                    if (!valueString.isEmpty()) {
-                        arr.append(fromString(valueString));
+                    arr.append(number);
+                }
+                return arr;
+            case TypeTags.FLOAT_TAG:
+                arr = ValueCreator.createArrayValue(FLOAT_ARRAY_TYPE);
+                if (!valueString.isEmpty()) {
+                    Double number = NumberParser.parseFloat(valueString);
+                    if (number == null) {
+                        return null;
                     }
-                    return arr;
-                default:
-                    arr = createNewJsonList();
-                    if (!valueString.isEmpty()) {
-                        arr.append(value);
+                    arr.append(number);
+                }
+                return arr;
+            case TypeTags.DECIMAL_TAG:
+                arr = ValueCreator.createArrayValue(DECIMAL_ARRAY_TYPE);
+                if (!valueString.isEmpty()) {
+                    BigDecimal number = NumberParser.parseDecimal(valueString);
+                    if (number == null) {
+                        return null;
                     }
-                    return arr;
-            }
-        } catch (NumberFormatException e) {
-            throw new NumberFormatException("Error occurred when converting value:" + value + " to " + valueType);
-        } catch (Exception e) {
-            throw new Exception("Error occurred when converting value:" + e.getMessage());
+                    arr.append(ValueCreator.createDecimalValue(number));
+                }
+                return arr;
+            case TypeTags.BOOLEAN_TAG:
+                arr = ValueCreator.createArrayValue(BOOLEAN_ARRAY_TYPE);
+                if (!valueString.isEmpty()) {
+                    arr.append(Boolean.parseBoolean(valueString));
+                }
+                return arr;
+            case TypeTags.STRING_TAG:
+                arr = ValueCreator.createArrayValue(STRING_ARRAY_TYPE);
+                if (!valueString.isEmpty()) {
+                    arr.append(fromString(valueString));
+                }
+                return arr;
+            default:
+                arr = createNewJsonList();
+                if (!valueString.isEmpty()) {
+                    arr.append(value);
+                }
+                return arr;
         }
     }
 
@@ -501,16 +622,31 @@ public class XmlToJson {
      * @param xmlSequence XML sequence to traverse
      * @param attributePrefix Prefix to use in attributes
      * @param preserveNamespaces preserve the namespaces when converting
+     * @param filter filter of the items of the sequence, or `null` if all the elements are converted
      * @return JsonNode Json node corresponding to the given xml sequence
      */
     private static Object convertBXmlSequence(BXmlSequence xmlSequence, String attributePrefix,
                                               boolean preserveNamespaces, Type type,
-                                              BMap<BString, BString> parentAttributeMap) throws Exception {
+                                              BMap<BString, BString> parentAttributeMap,
+                                              NamespaceContext namespaces, ElementFilter filter,
+                                              ConversionLimits.Tracker limits) throws Exception {
         List<BXml> sequence = xmlSequence.getChildrenList();
-        List<BXml> newSequence = new ArrayList<>();
+        List<BXml> newSequence = new ArrayList<>(sequence.size());
         for (BXml value: sequence) {
+            if (filter != null && isSkipped(value, filter, preserveNamespaces)) {
+                continue;
+            }
+            // Only the text nodes are checked, as serializing an element to check it would traverse its children.
+            if (value.getNodeType() != XmlNodeType.TEXT) {
+                newSequence.add(value);
+                continue;
+            }
             String textValue = value.toString();
-            if (textValue.isEmpty() || !textValue.trim().isEmpty()) {
+            boolean converted = isConvertedText(textValue);
+            if (limits != null) {
+                limits.checkText(textValue, converted);
+            }
+            if (converted) {
                 newSequence.add(value);
             }
         }
@@ -524,75 +660,354 @@ public class XmlToJson {
             return xmlSequence.elements();
         }
         return convertHeterogeneousSequence(attributePrefix, preserveNamespaces, newSequence, type,
-                parentAttributeMap);
+                parentAttributeMap, namespaces, filter, limits);
+    }
+
+    /**
+     * Checks whether an item is skipped by the path filter. Only the elements are kept for the partial elements, as
+     * their text is not converted.
+     */
+    private static boolean isSkipped(BXml item, ElementFilter filter, boolean preserveNamespaces) {
+        if (item.getNodeType() != XmlNodeType.ELEMENT) {
+            return filter.isPartial();
+        }
+        return filter.enter(getElementKey((BXmlItem) item, preserveNamespaces)) == null;
     }
 
     private static Object convertHeterogeneousSequence(String attributePrefix, boolean preserveNamespaces,
                                                        List<BXml> sequence, Type type,
-                                                       BMap<BString, BString> parentAttributeMap) throws Exception {
+                                                       BMap<BString, BString> parentAttributeMap,
+                                                       NamespaceContext namespaces, ElementFilter filter,
+                                                       ConversionLimits.Tracker limits) throws Exception {
         if (sequence.size() == 1) {
-            return convertToJSON(sequence.get(0), attributePrefix, preserveNamespaces, type, parentAttributeMap);
+            return convertToJSON(sequence.get(0), attributePrefix, preserveNamespaces, type, parentAttributeMap,
+                    namespaces, filter, limits);
         }
         BMap<BString, Object> mapJson = createMapValue(type);
-        for (BXml bxml : sequence) {
+        Object[] converted = null;
+        if (ParallelConversion.isEnabledFor(sequence.size())) {
+            converted = ParallelConversion.convert(sequence, namespaces, (element, scope) -> convertToJSON(element,
+                    attributePrefix, preserveNamespaces, type, parentAttributeMap, scope, filter, limits));
+        }
+        for (int i = 0; i < sequence.size(); i++) {
+            BXml bxml = sequence.get(i);
             if (isCommentOrPi(bxml)) {
                 continue;
             } else if (bxml.getNodeType() == XmlNodeType.TEXT) {
-                if (mapJson.containsKey(fromString(CONTENT))) {
-                    if (mapJson.get(fromString(CONTENT)) instanceof BString) {
-                        BArray jsonList = createNewJsonList();
-                        jsonList.append(mapJson.get(fromString(CONTENT)));
-                        jsonList.append(fromString(bxml.toString().trim()));
-                        mapJson.put(fromString(CONTENT), jsonList);
-                    } else {
-                        BArray jsonList = mapJson.getArrayValue(fromString(CONTENT));
-                        jsonList.append(fromString(bxml.toString().trim()));
-                        mapJson.put(fromString(CONTENT), jsonList);
-                    }
-                } else {
-                    mapJson.put(fromString(CONTENT), fromString(bxml.toString().trim()));
-                }
+                addContent(mapJson, bxml.toString());
             } else {
-                BString elementName = fromString(getElementKey((BXmlItem) bxml, preserveNamespaces));
-                Object result = convertToJSON(bxml, attributePrefix, preserveNamespaces, type, parentAttributeMap);
-                result = validateResult(result, elementName);
-                Object value = mapJson.get(elementName);
-                if (value == null) {
-                    mapJson.put(elementName, result);
-                } else if (value instanceof BArray) {
-                    if (result instanceof BArray) {
-                        BArray array = (BArray) result;
-                        if (!array.isEmpty()) {
-                            ((BArray) value).append(array.get(0));
-                        }
-                    } else {
-                        ((BArray) value).append(result);
+                BString elementName = NameKeyCache.getElementKey(((BXmlItem) bxml).getQName(), preserveNamespaces);
+                if (type != null && !mapJson.containsKey(elementName)) {
+                    int count = addTextElements(mapJson, elementName, sequence, i, preserveNamespaces, type);
+                    if (count > 0) {
+                        i += count - 1;
+                        continue;
                     }
-                    mapJson.put(elementName, value);
-                } else {
-                    BArray arr;
-                    if (value instanceof Long) {
-                        arr = ValueCreator.createArrayValue(INT_ARRAY_TYPE);
-                    } else if (value instanceof Boolean) {
-                        arr = ValueCreator.createArrayValue(BOOLEAN_ARRAY_TYPE);
-                    } else if (value instanceof Double) {
-                        arr = ValueCreator.createArrayValue(FLOAT_ARRAY_TYPE);
-                    } else if (value.getClass().getCanonicalName().contains("DecimalValue")) {
-                        arr = ValueCreator.createArrayValue(DECIMAL_ARRAY_TYPE);
-                    } else if (value instanceof BString) {
-                        arr = ValueCreator.createArrayValue(STRING_ARRAY_TYPE);
-                    } else {
-                        arr = createNewJsonList();
+                }
+                Object result = converted == null ? null : converted[i];
+                try {
+                    if (result == null) {
+                        result = convertToJSON(bxml, attributePrefix, preserveNamespaces, type, parentAttributeMap,
+                                namespaces, filter, limits);
+                    } else if (result instanceof ParallelConversion.Failure) {
+                        throw ((ParallelConversion.Failure) result).getException();
                     }
-                    arr.append(value);
-                    arr.append(result);
-                    mapJson.put(elementName, arr);
+                } catch (ConversionException e) {
+                    setPosition(e, sequence, i, elementName, preserveNamespaces);
+                    throw e;
                 }
+                addElement(mapJson, elementName, validateResult(result, elementName));
             }
         }
         return mapJson;
     }
 
+    /**
+     * Sets the position of an element which failed to convert among the elements of the same name in the sequence,
+     * when there is more than one of them.
+     */
+    static void setPosition(ConversionException e, List<BXml> sequence, int index, BString elementName,
+                                    boolean preserveNamespaces) {
+        int position = 1;
+        int count = 0;
+        for (int i = 0; i < sequence.size(); i++) {
+            BXml item = sequence.get(i);
+            if (item.getNodeType() == XmlNodeType.ELEMENT &&
+                    NameKeyCache.getElementKey(((BXmlItem) item).getQName(), preserveNamespaces).equals(elementName)) {
+                count++;
+                if (i < index) {
+                    position++;
+                }
+            }
+        }
+        if (count > 1) {
+            e.setPosition(position);
+        }
+    }
+
+    /**
+     * Checks whether a text node of a sequence is converted. The text nodes with only whitespace, such as the
+     * indentation between the elements, are not converted, and are not counted in the output size.
+     *
+     * @param text value of the text node
+     * @return true if the text is converted
+     */
+    static boolean isConvertedText(String text) {
+        return text.isEmpty() || !isWhitespace(text);
+    }
+
+    /**
+     * Checks whether the text has only whitespace, in the same way as checking whether `trim()` returns an empty
+     * string.
+     *
+     * @param text text to check
+     * @return true if the text has no characters other than whitespace
+     */
+    static boolean isWhitespace(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Converts the repeated elements from the given index together, when they are the text values of an `int`,
+     * `float` or `boolean` array field. The array is created with the number of the elements, instead of being
+     * promoted from the first value and grown by appending the values of the rest one at a time.
+     *
+     * @return the number of the elements converted, or zero if the elements need to be converted one at a time
+     */
+    private static int addTextElements(BMap<BString, Object> mapJson, BString elementName, List<BXml> sequence,
+                                       int start, boolean preserveNamespaces, Type type) {
+        Type fieldType = getFieldType(elementName.getValue(), type);
+        if (fieldType == null || fieldType.getTag() != TypeTags.ARRAY_TAG) {
+            return 0;
+        }
+        int count = countTextElements(sequence, start, elementName, preserveNamespaces);
+        if (count < 2) {
+            return 0;
+        }
+        Type elementType = TypeUtils.getReferredType(((ArrayType) fieldType).getElementType());
+        BArray array = convertTextElements(sequence, start, count, elementType);
+        if (array == null) {
+            return 0;
+        }
+        mapJson.put(elementName, array);
+        return count;
+    }
+
+    /**
+     * Returns the number of the consecutive elements from the given index which have the given name, no attributes
+     * and a single text child.
+     *
+     * @param items              items of a sequence
+     * @param start              index of the first element
+     * @param name               key of the elements
+     * @param preserveNamespaces whether the key of an element includes its prefix
+     * @return the number of the elements
+     */
+    static int countTextElements(List<BXml> items, int start, BString name, boolean preserveNamespaces) {
+        int index = start;
+        while (index < items.size() && items.get(index).getNodeType() == XmlNodeType.ELEMENT) {
+            BXmlItem element = (BXmlItem) items.get(index);
+            if (!isTextElement(element) ||
+                    !name.equals(NameKeyCache.getElementKey(element.getQName(), preserveNamespaces))) {
+                break;
+            }
+            index++;
+        }
+        return index - start;
+    }
+
+    /**
+     * Checks whether the element has no attributes and a single text child.
+     *
+     * @param element XML element
+     * @return true if the element only has a text value
+     */
+    static boolean isTextElement(BXmlItem element) {
+        List<BXml> children = element.getChildrenSeq().getChildrenList();
+        return element.getAttributesMap().isEmpty() && children.size() == 1 &&
+                children.get(0).getNodeType() == XmlNodeType.TEXT;
+    }
+
+    /**
+     * Converts the text of the given elements to an array which is backed by a primitive array of the exact size.
+     * The values are parsed in the same way as `convertToArray` parses them.
+     *
+     * @param items       items of a sequence
+     * @param start       index of the first element
+     * @param count       number of the elements, as returned by `countTextElements`
+     * @param elementType element type of the array
+     * @return the array, or `null` if the element type is not `int`, `float` or `boolean`, or a text is not a valid
+     * value
+     */
+    static BArray convertTextElements(List<BXml> items, int start, int count, Type elementType) {
+        switch (elementType.getTag()) {
+            case TypeTags.INT_TAG:
+                long[] ints = new long[count];
+                for (int i = 0; i < count; i++) {
+                    Long value = NumberParser.parseInt(getElementText(items.get(start + i)));
+                    if (value == null) {
+                        return null;
+                    }
+                    ints[i] = value;
+                }
+                return ValueCreator.createArrayValue(ints);
+            case TypeTags.FLOAT_TAG:
+                double[] floats = new double[count];
+                for (int i = 0; i < count; i++) {
+                    Double value = NumberParser.parseFloat(getElementText(items.get(start + i)));
+                    if (value == null) {
+                        return null;
+                    }
+                    floats[i] = value;
+                }
+                return ValueCreator.createArrayValue(floats);
+            case TypeTags.BOOLEAN_TAG:
+                boolean[] booleans = new boolean[count];
+                for (int i = 0; i < count; i++) {
+                    String text = getElementText(items.get(start + i));
+                    // A whitespace text is left out of the array rather than converted to `false`.
+                    if (isWhitespace(text)) {
+                        return null;
+                    }
+                    // The text is trimmed, as the text of a single element is trimmed before it is converted.
+                    booleans[i] = Boolean.parseBoolean(text.trim());
+                }
+                return ValueCreator.createArrayValue(booleans);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Parses an `int` value. As with the parse methods of the JDK, a text which is not a number is an error.
+     */
+    private static long parseInt(String value, Type type) throws ConversionException {
+        Long number = NumberParser.parseInt(value);
+        if (number == null) {
+            throw new ConversionException("For input string: \"" + value + "\"", type);
+        }
+        return number;
+    }
+
+    private static double parseFloat(String value, Type type) throws ConversionException {
+        Double number = NumberParser.parseFloat(value);
+        if (number == null) {
+            throw new ConversionException("For input string: \"" + value + "\"", type);
+        }
+        return number;
+    }
+
+    private static BDecimal parseDecimal(String value, Type type) throws ConversionException {
+        BigDecimal number = NumberParser.parseDecimal(value);
+        if (number == null) {
+            throw new ConversionException("For input string: \"" + value + "\"", type);
+        }
+        return ValueCreator.createDecimalValue(number);
+    }
+
+    private static String getElementText(BXml element) {
+        return ((BXmlItem) element).getChildrenSeq().getChildrenList().get(0).toString();
+    }
+
+    /**
+     * Adds a text node of a heterogeneous sequence to the `#content` entry of the given map.
+     *
+     * @param mapJson map that holds the converted sequence
+     * @param text    value of the text node
+     */
+    static void addContent(BMap<BString, Object> mapJson, String text) {
+        Object content = mapJson.get(NameKeyCache.CONTENT);
+        if (content == null) {
+            mapJson.put(NameKeyCache.CONTENT, fromString(text.trim()));
+        } else if (content instanceof BString) {
+            BArray jsonList = createNewJsonList();
+            jsonList.append(content);
+            jsonList.append(fromString(text.trim()));
+            mapJson.put(NameKeyCache.CONTENT, jsonList);
+        } else {
+            ((BArray) content).append(fromString(text.trim()));
+        }
+    }
+
+    /**
+     * Adds a converted element of a heterogeneous sequence to the given map. Repeated element names are
+     * promoted to an array.
+     *
+     * @param mapJson     map that holds the converted sequence
+     * @param elementName key of the element
+     * @param result      converted value of the element
+     */
+    static void addElement(BMap<BString, Object> mapJson, BString elementName, Object result) {
+        mapJson.put(elementName, mergeElement(mapJson.get(elementName), result));
+    }
+
+    /**
+     * Merges a converted element into the value converted from the earlier elements of the same name.
+     *
+     * @param value  value of the earlier elements, or `null` if there is none
+     * @param result converted value of the element
+     * @return the merged value
+     */
+    static Object mergeElement(Object value, Object result) {
+        if (value == null) {
+            return result;
+        } else if (value instanceof BArray) {
+            if (result instanceof BArray) {
+                BArray array = (BArray) result;
+                if (!array.isEmpty()) {
+                    ((BArray) value).append(array.get(0));
+                }
+            } else {
+                ((BArray) value).append(result);
+            }
+            return value;
+        }
+        BArray arr;
+        if (value instanceof Long) {
+            arr = ValueCreator.createArrayValue(INT_ARRAY_TYPE);
+        } else if (value instanceof Boolean) {
+            arr = ValueCreator.createArrayValue(BOOLEAN_ARRAY_TYPE);
+        } else if (value instanceof Double) {
+            arr = ValueCreator.createArrayValue(FLOAT_ARRAY_TYPE);
+        } else if (value instanceof BDecimal) {
+            arr = ValueCreator.createArrayValue(DECIMAL_ARRAY_TYPE);
+        } else if (value instanceof BString) {
+            arr = ValueCreator.createArrayValue(STRING_ARRAY_TYPE);
+        } else {
+            arr = createNewJsonList();
+        }
+        arr.append(value);
+        arr.append(result);
+        return arr;
+    }
+
+    /**
+     * Converts an element of a heterogeneous sequence in the same way as the sequence does, and returns the value
+     * which is added to the map of the sequence.
+     *
+     * @param element            element to convert
+     * @param attributePrefix    prefix to use in attributes
+     * @param preserveNamespaces preserve the namespaces when converting
+     * @param type               type of the parent of the element
+     * @param parentAttributeMap attributes of the parent of the element
+     * @param namespaces         namespaces in the scope of the parent of the element
+     * @param tracker            tracker of the conversion, or `null` if the XML is not counted
+     * @return the converted value of the element
+     */
+    static Object convertSequenceElement(BXmlItem element, String attributePrefix, boolean preserveNamespaces,
+                                         Type type, BMap<BString, BString> parentAttributeMap,
+                                         NamespaceContext namespaces, ConversionLimits.Tracker tracker)
+            throws Exception {
+        BString elementName = NameKeyCache.getElementKey(element.getQName(), preserveNamespaces);
+        return validateResult(convertToJSON(element, attributePrefix, preserveNamespaces, type, parentAttributeMap,
+                namespaces, null, tracker), elementName);
+    }
+
     private static Object validateResult(Object result, BString elementName) {
         Object validateResult;
         if (result == null) {
@@ -609,7 +1024,7 @@ public class XmlToJson {
         return bxml.getNodeType() == XmlNodeType.COMMENT || bxml.getNodeType() == XmlNodeType.PI;
     }
 
-    private static BArray createNewJsonList() {
+    static BArray createNewJsonList() {
         return ValueCreator.createArrayValue(Constants.JSON_ARRAY_TYPE);
     }
 
@@ -625,25 +1040,25 @@ public class XmlToJson {
     /**
      * Extract attributes and namespaces from the XML element.
      */
-    private static String getKey(Map.Entry<BString, BString> entry, Map<String, String> nsPrefixMap,
+    private static String getKey(Map.Entry<BString, BString> entry, NamespaceContext namespaces,
                                  boolean preserveNamespaces) {
         if (preserveNamespaces) {
             if (isNamespacePrefixEntry(entry)) {
                 return getNamespacePrefixAttribute(entry.getKey().getValue());
             } else {
-                return getAttributePreservingNamespace(nsPrefixMap, entry.getKey().getValue());
+                return getAttributePreservingNamespace(namespaces, entry.getKey().getValue());
             }
         } else {
             if (isNonNamespaceAttribute(entry.getKey().getValue())) {
-                return getAttributePreservingNamespace(nsPrefixMap, entry.getKey().getValue());
+                return getAttributePreservingNamespace(namespaces, entry.getKey().getValue());
             }
         }
         return null;
     }
 
-    private static Boolean isNonNamespaceAttribute(String attributeKey) {
+    private static boolean isNonNamespaceAttribute(String attributeKey) {
         // The namespace-related key will contain the pattern as `{link}suffix`
-        return !Pattern.matches("\\{.*\\}.*", attributeKey);
+        return attributeKey.isEmpty() || attributeKey.charAt(0) != '{' || attributeKey.indexOf('}') < 0;
     }
 
     private static String getNamespacePrefixAttribute(String attributeKey) {
@@ -655,12 +1070,12 @@ public class XmlToJson {
         }
     }
 
-    private static String getAttributePreservingNamespace(Map<String, String> nsPrefixMap, String attributeKey) {
+    private static String getAttributePreservingNamespace(NamespaceContext namespaces, String attributeKey) {
         int nsEndIndex = attributeKey.lastIndexOf('}');
         if (nsEndIndex > 0) {
             String ns = attributeKey.substring(1, nsEndIndex);
             String local = attributeKey.substring(nsEndIndex + 1);
-            String nsPrefix = nsPrefixMap.get(ns);
+            String nsPrefix = namespaces.getPrefix(ns);
             // `!nsPrefix.equals("xmlns")` because attributes does not belong to default namespace.
             if (nsPrefix == null) {
                 return local;
@@ -674,19 +1089,6 @@ public class XmlToJson {
         }
     }
 
-    private static ConcurrentHashMap<String, String> getNamespacePrefixes(BMap<BString,
-            BString> xmlAttributeMap) {
-        ConcurrentHashMap<String, String> nsPrefixMap = new ConcurrentHashMap<>();
-        for (Map.Entry<BString, BString> entry : xmlAttributeMap.entrySet()) {
-            if (isNamespacePrefixEntry(entry)) {
-                String prefix = entry.getKey().getValue().substring(NS_PREFIX_BEGIN_INDEX);
-                String ns = entry.getValue().getValue();
-                nsPrefixMap.put(ns, prefix);
-            }
-        }
-        return nsPrefixMap;
-    }
-
     private static boolean isNamespacePrefixEntry(Map.Entry<BString, BString> entry) {
         return entry.getKey().getValue().startsWith(BXmlItem.XMLNS_NS_URI_PREFIX);
     }
@@ -699,17 +1101,7 @@ public class XmlToJson {
      * @return String Element key with the namespace information
      */
     public static String getElementKey(BXmlItem xmlItem, boolean preserveNamespaces) {
-        // Construct the element key based on the namespaces
-        StringBuilder elementKey = new StringBuilder();
-        QName qName = xmlItem.getQName();
-        if (preserveNamespaces) {
-            String prefix = qName.getPrefix();
-            if (prefix != null && !prefix.isEmpty()) {
-                elementKey.append(prefix).append(':');
-            }
-        }
-        elementKey.append(qName.getLocalPart());
-        return elementKey.toString();
+        return NameKeyCache.getElementKey(xmlItem.getQName(), preserveNamespaces).getValue();
     }
 
     private XmlToJson() {
@@ -19,7 +19,6 @@
 package io.ballerina.stdlib.xmldata;
 
 import io.ballerina.runtime.api.types.ArrayType;
-import io.ballerina.runtime.api.types.Field;
 import io.ballerina.runtime.api.types.RecordType;
 import io.ballerina.runtime.api.types.Type;
 import io.ballerina.runtime.api.utils.StringUtils;
@@ -27,6 +26,7 @@ import io.ballerina.runtime.api.values.BError;
 import io.ballerina.runtime.api.values.BTypedesc;
 import io.ballerina.runtime.api.values.BXml;
 import io.ballerina.stdlib.xmldata.utils.Constants;
+import io.ballerina.stdlib.xmldata.utils.ConversionException;
 import io.ballerina.stdlib.xmldata.utils.XmlDataUtils;
 import org.ballerinalang.langlib.value.CloneWithType;
 
@@ -42,15 +42,40 @@ import static io.ballerina.stdlib.xmldata.XmlToJson.toJson;
 public class XmlToRecord {
 
     public static Object toRecord(BXml xml, boolean preserveNamespaces, BTypedesc type) {
+        if (ConversionMetrics.isEnabled()) {
+            long startTime = System.nanoTime();
+            ConversionLimits.Tracker tracker = ConversionLimits.newCountingTracker(null);
+            return ConversionMetrics.record(ConversionMetrics.TO_RECORD, type.getDescribingType(), startTime,
+                    tracker, toRecord(xml, preserveNamespaces, Constants.UNDERSCORE, type, tracker));
+        }
         return toRecord(xml, preserveNamespaces, Constants.UNDERSCORE, type);
     }
 
     public static Object toRecord(BXml xml, boolean preserveNamespaces, String attributePrefix, BTypedesc type) {
+        return toRecord(xml, preserveNamespaces, attributePrefix, type, null);
+    }
+
+    private static Object toRecord(BXml xml, boolean preserveNamespaces, String attributePrefix, BTypedesc type,
+                                   ConversionLimits.Tracker tracker) {
         try {
-            Object jsonObject = convertToJson(xml, preserveNamespaces, attributePrefix, type);
+            Type describingType = type.getDescribingType();
+            if (describingType instanceof RecordType) {
+                validateRecordType(describingType);
+                Object record;
+                try {
+                    record = XmlRecordBinder.bindContent(xml, (RecordType) describingType, attributePrefix,
+                            preserveNamespaces, false, tracker);
+                } catch (ConversionException e) {
+                    return XmlDataUtils.getError("XML type mismatch with record type: " + e.getMessage(), e);
+                }
+                if (record != null) {
+                    return record;
+                }
+            }
+            Object jsonObject = convertToJson(xml, preserveNamespaces, attributePrefix, type, null, tracker);
             if (jsonObject instanceof BError) {
                 return XmlDataUtils.getError("XML type mismatch with record type: " +
-                        ((BError) jsonObject).getErrorMessage());
+                        ((BError) jsonObject).getErrorMessage(), (BError) jsonObject);
             }
             jsonObject = CloneWithType.cloneWithType(jsonObject, type);
             if (jsonObject instanceof BError) {
@@ -59,28 +84,25 @@ public class XmlToRecord {
             }
             return jsonObject;
         } catch (Exception e) {
-            return XmlDataUtils.getError("Failed to convert xml to record type: " + e.getMessage());
+            return XmlDataUtils.getError("Failed to convert xml to record type: " + e.getMessage(), e);
         }
     }
 
     public static Object convertToJson(BXml xml, boolean preserveNamespaces, String attributePrefix, BTypedesc type)
             throws Exception {
+        return convertToJson(xml, preserveNamespaces, attributePrefix, type, null, null);
+    }
+
+    static Object convertToJson(BXml xml, boolean preserveNamespaces, String attributePrefix, BTypedesc type,
+                                ElementFilter filter, ConversionLimits.Tracker tracker) throws Exception {
         Type describingType = type.getDescribingType();
         validateRecordType(describingType);
-        return toJson(xml, preserveNamespaces, attributePrefix, describingType);
+        return toJson(xml, preserveNamespaces, attributePrefix, describingType, filter, tracker);
     }
 
-    private static void validateRecordType(Type type) throws Exception {
+    static void validateRecordType(Type type) throws Exception {
         if (type instanceof RecordType) {
-            Map<String, Field> fields = ((RecordType) type).getFields();
-            for (Map.Entry<String, Field> entry : fields.entrySet()) {
-                Field field = entry.getValue();
-                Type fieldType = field.getFieldType();
-                if (field.getFieldType().isNilable()) {
-                    throw new Exception("The record field: " + field.getFieldName() +
-                            " does not support the optional value type: " + fieldType);
-                }
-            }
+            RecordBindingPlan.of((RecordType) type).validate();
         } else if (type instanceof ArrayType) {
             Type fieldType = ((ArrayType) type).getElementType();
             if (fieldType instanceof RecordType) {
@@ -0,0 +1,321 @@
+/*
+ * Copyright (c) 2023 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.xmldata;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes XML elements and text as UTF-8 encoded bytes. The bytes are written to a buffer which is kept for the
+ * thread once the writing is done, so the later conversions on the thread do not allocate a new buffer.
+ *
+ * @since 2.5.0
+ */
+class XmlWriter {
+
+    private static final int INITIAL_BUFFER_SIZE = 8192;
+    private static final int MAX_RETAINED_BUFFER_SIZE = 1024 * 1024;
+    private static final ThreadLocal<byte[]> BUFFERS = ThreadLocal.withInitial(() -> new byte[INITIAL_BUFFER_SIZE]);
+    private static final String NAMESPACE_DECLARATION = "{http://www.w3.org/2000/xmlns/}";
+    private static final String XMLNS = "xmlns";
+    private static final String GENERATED_PREFIX = "ns";
+
+    private byte[] buffer;
+    private int position;
+    private boolean startTagOpen;
+    // The prefix and the URI of the namespaces declared by the open elements. The default namespace has an empty
+    // prefix.
+    private final List<String[]> namespaces = new ArrayList<>();
+    private final Deque<OpenElement> openElements = new ArrayDeque<>();
+
+    XmlWriter() {
+        // The buffer is taken from the thread until the writing is done, so it is never shared by two writers.
+        this.buffer = BUFFERS.get();
+        BUFFERS.remove();
+    }
+
+    /**
+     * Writes the start tag of an element. The namespace declarations which are already in the scope of the element
+     * are not written again.
+     *
+     * @param name       expanded name of the element, which is `{uri}name` when the element has a namespace
+     * @param prefix     prefix to use for the namespace of the element, or `null` if it has no prefix
+     * @param attributes attributes of the element, keyed by their expanded names
+     */
+    void startElement(String name, String prefix, Map<String, String> attributes) {
+        closeStartTag();
+        int scope = namespaces.size();
+        Map<String, String> declarations = new LinkedHashMap<>();
+        List<String[]> otherAttributes = new ArrayList<>();
+        for (Map.Entry<String, String> attribute : attributes.entrySet()) {
+            String key = attribute.getKey();
+            if (key.startsWith(NAMESPACE_DECLARATION)) {
+                declarations.put(key.substring(NAMESPACE_DECLARATION.length()), attribute.getValue());
+            } else if (key.equals(XMLNS)) {
+                declarations.put("", attribute.getValue());
+            } else {
+                otherAttributes.add(new String[]{key, attribute.getValue()});
+            }
+        }
+        for (Map.Entry<String, String> declaration : declarations.entrySet()) {
+            String uri = getNamespace(declaration.getKey());
+            if (!declaration.getValue().equals(uri == null ? "" : uri)) {
+                namespaces.add(new String[]{declaration.getKey(), declaration.getValue()});
+            }
+        }
+        String qualifiedName = getQualifiedName(name, prefix, scope, false);
+        for (String[] attribute : otherAttributes) {
+            attribute[0] = getQualifiedName(attribute[0], null, scope, true);
+        }
+
+        writeByte('<');
+        write(qualifiedName, false, false);
+        for (int i = scope; i < namespaces.size(); i++) {
+            String[] namespace = namespaces.get(i);
+            writeByte(' ');
+            write(namespace[0].isEmpty() ? XMLNS : XMLNS + ":" + namespace[0], false, false);
+            writeAttributeValue(namespace[1]);
+        }
+        for (String[] attribute : otherAttributes) {
+            writeByte(' ');
+            write(attribute[0], false, false);
+            writeAttributeValue(attribute[1]);
+        }
+        startTagOpen = true;
+        openElements.push(new OpenElement(qualifiedName, scope));
+    }
+
+    /**
+     * Writes the end tag of the last element started. An element without children is written as an empty element.
+     */
+    void endElement() {
+        OpenElement element = openElements.pop();
+        if (startTagOpen) {
+            writeByte('/');
+            writeByte('>');
+            startTagOpen = false;
+        } else {
+            writeByte('<');
+            writeByte('/');
+            write(element.name, false, false);
+            writeByte('>');
+        }
+        if (namespaces.size() > element.scope) {
+            namespaces.subList(element.scope, namespaces.size()).clear();
+        }
+    }
+
+    void writeText(String text) {
+        if (text.isEmpty()) {
+            return;
+        }
+        closeStartTag();
+        write(text, true, false);
+    }
+
+    /**
+     * Returns the bytes written so far and gives the buffer back to the thread.
+     *
+     * @return the written bytes
+     */
+    byte[] toByteArray() {
+        byte[] bytes = Arrays.copyOf(buffer, position);
+        if (buffer.length <= MAX_RETAINED_BUFFER_SIZE) {
+            BUFFERS.set(buffer);
+        }
+        return bytes;
+    }
+
+    private void closeStartTag() {
+        if (startTagOpen) {
+            writeByte('>');
+            startTagOpen = false;
+        }
+    }
+
+    /**
+     * Returns the prefixed name of an expanded name. A namespace which is not in the scope is declared by the
+     * element, with the given prefix if there is one.
+     */
+    private String getQualifiedName(String name, String prefix, int scope, boolean isAttribute) {
+        int end = name.indexOf('}');
+        if (!name.startsWith("{") || end < 0) {
+            return name;
+        }
+        String uri = name.substring(1, end);
+        String localName = name.substring(end + 1);
+        if (uri.isEmpty()) {
+            return localName;
+        }
+        String namespacePrefix = prefix != null && uri.equals(getNamespace(prefix)) ? prefix :
+                getPrefix(uri, !isAttribute);
+        if (namespacePrefix == null) {
+            namespacePrefix = prefix != null && !isDeclared(prefix, scope) ? prefix : generatePrefix(scope);
+            namespaces.add(new String[]{namespacePrefix, uri});
+        }
+        return namespacePrefix.isEmpty() ? localName : namespacePrefix + ":" + localName;
+    }
+
+    private String getNamespace(String prefix) {
+        for (int i = namespaces.size() - 1; i >= 0; i--) {
+            String[] namespace = namespaces.get(i);
+            if (namespace[0].equals(prefix)) {
+                return namespace[1];
+            }
+        }
+        return null;
+    }
+
+    private String getPrefix(String uri, boolean allowDefault) {
+        for (int i = namespaces.size() - 1; i >= 0; i--) {
+            String[] namespace = namespaces.get(i);
+            if (namespace[1].equals(uri) && (allowDefault || !namespace[0].isEmpty()) &&
+                    uri.equals(getNamespace(namespace[0]))) {
+                return namespace[0];
+            }
+        }
+        return null;
+    }
+
+    private boolean isDeclared(String prefix, int scope) {
+        for (int i = scope; i < namespaces.size(); i++) {
+            if (namespaces.get(i)[0].equals(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String generatePrefix(int scope) {
+        int index = 0;
+        while (isDeclared(GENERATED_PREFIX + index, scope) || getNamespace(GENERATED_PREFIX + index) != null) {
+            index++;
+        }
+        return GENERATED_PREFIX + index;
+    }
+
+    private void writeAttributeValue(String value) {
+        writeByte('=');
+        writeByte('"');
+        write(value, true, true);
+        writeByte('"');
+    }
+
+    private void writeByte(char value) {
+        ensureCapacity(1);
+        buffer[position++] = (byte) value;
+    }
+
+    /**
+     * Writes the string encoded in UTF-8. The leading ASCII characters which need no escaping are copied as they
+     * are, which covers most of the names and the text.
+     */
+    private void write(String value, boolean escape, boolean isAttribute) {
+        int length = value.length();
+        ensureCapacity(length);
+        int index = 0;
+        for (; index < length; index++) {
+            char c = value.charAt(index);
+            if (c >= 0x80 || (escape && needsEscape(c, isAttribute))) {
+                break;
+            }
+            buffer[position++] = (byte) c;
+        }
+        for (; index < length; index++) {
+            char c = value.charAt(index);
+            ensureCapacity(6);
+            if (c < 0x80) {
+                if (escape && needsEscape(c, isAttribute)) {
+                    writeEscaped(c);
+                } else {
+                    buffer[position++] = (byte) c;
+                }
+            } else if (c < 0x800) {
+                buffer[position++] = (byte) (0xC0 | (c >> 6));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && index + 1 < length &&
+                        Character.isLowSurrogate(value.charAt(index + 1))) {
+                    int codePoint = Character.toCodePoint(c, value.charAt(++index));
+                    buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+                    buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                    buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+                } else {
+                    // An unpaired surrogate can not be encoded, so it is replaced as done by the UTF-8 encoder.
+                    buffer[position++] = '?';
+                }
+            } else {
+                buffer[position++] = (byte) (0xE0 | (c >> 12));
+                buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    private static boolean needsEscape(char c, boolean isAttribute) {
+        return c == '&' || c == '<' || c == '>' || (isAttribute && c == '"');
+    }
+
+    private void writeEscaped(char c) {
+        String entity;
+        switch (c) {
+            case '&':
+                entity = "&amp;";
+                break;
+            case '<':
+                entity = "&lt;";
+                break;
+            case '>':
+                entity = "&gt;";
+                break;
+            default:
+                entity = "&quot;";
+                break;
+        }
+        for (int i = 0; i < entity.length(); i++) {
+            buffer[position++] = (byte) entity.charAt(i);
+        }
+    }
+
+    private void ensureCapacity(int length) {
+        if (position + length > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + length));
+        }
+    }
+
+    /**
+     * An element whose end tag is not written yet.
+     */
+    private static class OpenElement {
+
+        private final String name;
+        private final int scope;
+
+        OpenElement(String name, int scope) {
+            this.name = name;
+            this.scope = scope;
+        }
+    }
+}
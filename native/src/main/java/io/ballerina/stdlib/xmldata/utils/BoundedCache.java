@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2023 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.xmldata.utils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * A cache of the values computed for keys such as types and names, which holds at most a given number of entries.
+ * When the cache is full, all the entries are removed before the next one is added, so a program which uses many
+ * distinct keys does not hold on to them, while the lookups of the few keys most programs use stay lock-free.
+ * <p>
+ * A cache created with {@link #byIdentity(int)} returns an entry only for the same key instance. The types are cached
+ * by the identity, as different types can be equal by the name, and the values computed for one of them must not be
+ * used for the other.
+ *
+ * @param <K> type of the keys
+ * @param <V> type of the values
+ * @since 2.5.0
+ */
+public final class BoundedCache<K, V> {
+
+    private final int maxSize;
+    private final boolean byIdentity;
+    private final Map<K, Entry<K, V>> entries = new ConcurrentHashMap<>();
+
+    private BoundedCache(int maxSize, boolean byIdentity) {
+        this.maxSize = maxSize;
+        this.byIdentity = byIdentity;
+    }
+
+    /**
+     * Creates a cache which matches the keys by the identity.
+     *
+     * @param maxSize maximum number of entries
+     * @param <K>     type of the keys
+     * @param <V>     type of the values
+     * @return the cache
+     */
+    public static <K, V> BoundedCache<K, V> byIdentity(int maxSize) {
+        return new BoundedCache<>(maxSize, true);
+    }
+
+    /**
+     * Creates a cache which matches the keys by equality.
+     *
+     * @param maxSize maximum number of entries
+     * @param <K>     type of the keys
+     * @param <V>     type of the values
+     * @return the cache
+     */
+    public static <K, V> BoundedCache<K, V> byEquality(int maxSize) {
+        return new BoundedCache<>(maxSize, false);
+    }
+
+    /**
+     * Returns the value of the given key, which is computed and cached if the cache does not have it.
+     *
+     * @param key     key of the value
+     * @param compute computes the value of the key
+     * @return the value of the key
+     */
+    public V get(K key, Function<? super K, ? extends V> compute) {
+        Entry<K, V> entry = entries.get(key);
+        if (entry != null && (!byIdentity || entry.key == key)) {
+            return entry.value;
+        }
+        V value = compute.apply(key);
+        if (entries.size() >= maxSize) {
+            entries.clear();
+        }
+        entries.put(key, new Entry<>(key, value));
+        return value;
+    }
+
+    private static class Entry<K, V> {
+
+        private final K key;
+        private final V value;
+
+        Entry(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+}
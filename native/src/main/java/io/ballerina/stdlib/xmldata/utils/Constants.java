@@ -34,6 +34,8 @@ public class Constants {
 
     public static final String OPTIONS_ATTRIBUTE_PREFIX = "attributePrefix";
     public static final String OPTIONS_PRESERVE_NS = "preserveNamespaces";
+    public static final String OPTIONS_INCLUDE_PATHS = "includePaths";
+    public static final String OPTIONS_EXCLUDE_PATHS = "excludePaths";
     public static final String UNDERSCORE = "_";
     public static final String COLON = ":";
     public static final MapType JSON_MAP_TYPE = TypeCreator.createMapType(PredefinedTypes.TYPE_JSON);
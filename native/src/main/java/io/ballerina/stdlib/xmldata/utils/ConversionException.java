@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2023 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.stdlib.xmldata.utils;
+
+import io.ballerina.runtime.api.types.Type;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Thrown when an XML value cannot be converted to the expected type. The exception does not fill in its stack trace,
+ * since it is always returned to Ballerina as an error. The elements it is thrown through add their names to the
+ * path, so the path is only built when a conversion fails.
+ *
+ * @since 2.5.0
+ */
+public class ConversionException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    // The path segments from the element which failed to convert up to the root element.
+    private final List<String> pathSegments = new ArrayList<>();
+    private final String expectedType;
+    private String snippet;
+
+    public ConversionException(String message) {
+        this(message, null);
+    }
+
+    public ConversionException(String message, Type expectedType) {
+        super(message, null, false, false);
+        this.expectedType = expectedType == null ? null : expectedType.toString();
+    }
+
+    /**
+     * Adds the name of an element which the exception is thrown through, starting from the innermost element.
+     *
+     * @param elementName name of the element
+     */
+    public void addPathSegment(String elementName) {
+        pathSegments.add(elementName);
+    }
+
+    /**
+     * Sets the position of the element added last to the path among its siblings of the same name.
+     *
+     * @param position position of the element, starting from 1
+     */
+    public void setPosition(int position) {
+        int last = pathSegments.size() - 1;
+        if (last >= 0) {
+            pathSegments.set(last, pathSegments.get(last) + "[" + position + "]");
+        }
+    }
+
+    /**
+     * Returns the path of the element which failed to convert, such as `/order/items/item[3]/qty`.
+     *
+     * @return the path, or `null` if the failure is not within an element
+     */
+    public String getPath() {
+        if (pathSegments.isEmpty()) {
+            return null;
+        }
+        StringBuilder path = new StringBuilder();
+        for (int i = pathSegments.size() - 1; i >= 0; i--) {
+            path.append('/').append(pathSegments.get(i));
+        }
+        return path.toString();
+    }
+
+    public String getExpectedType() {
+        return expectedType;
+    }
+
+    public String getSnippet() {
+        return snippet;
+    }
+
+    public void setSnippet(String snippet) {
+        this.snippet = snippet;
+    }
+}
@@ -20,5 +20,6 @@ module io.ballerina.stdlib.xmldata {
     requires io.ballerina.runtime;
     requires io.ballerina.lang.value;
     requires java.xml;
+    requires java.management;
     exports io.ballerina.stdlib.xmldata;
 }